@@ -0,0 +1,75 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.Test;
+
+import backend.CsvTokenizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Testing for the CsvTokenizer class
+ */
+public class CsvTokenizerTest {
+
+    /**
+     * Fields split the same way as the old lookahead regex, with quotes and padding removed
+     */
+    @Test
+    void testMatchesRegexSplit() {
+        String[] rows = {
+            "Buddy,0,0,100,100,90,50,10,10,\"Treat: 1, Meal: 1, Bell: 1\"",
+            "as,1,0,100,100,100,100,0,0",
+            "asdasdasdasd,1,0,100,100,100,100,0,0,\"\"",
+            "Max,1,50,100,100,100,100,15,10,\"Treat: 1\"                "
+        };
+        CsvTokenizer csv = new CsvTokenizer();
+        for (String row : rows) {
+            String[] expected = row.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
+            csv.reset(row);
+            assertEquals(expected.length, csv.fieldCount());
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i].trim().replace("\"", ""), csv.string(i));
+                assertEquals(expected[i].trim().replace("\"", ""), csv.field(i).toString());
+            }
+        }
+    }
+
+    /**
+     * Numbers are parsed from the buffer with the same results and errors as Integer.parseInt
+     */
+    @Test
+    void testIntField() {
+        CsvTokenizer csv = new CsvTokenizer().reset(" 42 ,-7,+3,2147483647,-2147483648,2147483648,abc,");
+        assertEquals(42, csv.intField(0));
+        assertEquals(-7, csv.intField(1));
+        assertEquals(3, csv.intField(2));
+        assertEquals(Integer.MAX_VALUE, csv.intField(3));
+        assertEquals(Integer.MIN_VALUE, csv.intField(4));
+        assertThrows(NumberFormatException.class, () -> csv.intField(5));
+        assertThrows(NumberFormatException.class, () -> csv.intField(6));
+        assertThrows(NumberFormatException.class, () -> csv.intField(7));
+    }
+
+    /**
+     * Records are read line by line from a reader, across CRLF line endings and doubled quotes
+     */
+    @Test
+    void testReader() throws IOException {
+        CsvTokenizer csv = new CsvTokenizer(new StringReader("name,score\r\nJimbo,100\r\n\"Say \"\"hi\"\"\",2"));
+
+        assertTrue(csv.next());
+        assertEquals("name,score", csv.line());
+        assertTrue(csv.next());
+        assertTrue(csv.fieldEqualsIgnoreCase(0, "JIMBO"));
+        assertEquals(100, csv.intField(1));
+        assertTrue(csv.next());
+        assertEquals("Say \"hi\"", csv.string(0));
+        assertFalse(csv.next());
+    }
+}
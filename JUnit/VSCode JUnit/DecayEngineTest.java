@@ -0,0 +1,139 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.Test;
+
+import backend.DecayEngine;
+import backend.Pet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+/**
+ * Testing for the DecayEngine class
+ */
+public class DecayEngineTest {
+
+    /**
+     * The closed-form decay matches the hour-by-hour loop for random stats and durations
+     */
+    @Test
+    void testMatchesHourlyLoop() {
+        Random random = new Random(20241122L);
+        for (int run = 0; run < 20000; run++) {
+            int sleep = random.nextInt(131) - 10;
+            int fullness = random.nextInt(131) - 10;
+            int happiness = random.nextInt(131) - 10;
+            int health = random.nextInt(131) - 10;
+            int hours = random.nextInt(8) == 0 ? random.nextInt(5000) : random.nextInt(160);
+            assertSameDecay(sleep, fullness, happiness, health, hours);
+        }
+    }
+
+    /**
+     * Boundary values around the 25 and 0 thresholds match the hour-by-hour loop
+     */
+    @Test
+    void testThresholdBoundaries() {
+        int[] levels = {-2, -1, 0, 1, 2, 24, 25, 26, 27, 50, 100};
+        int[] hours = {0, 1, 2, 3, 24, 25, 26, 27, 100, 130};
+        for (int sleep : levels) {
+            for (int fullness : levels) {
+                for (int hour : hours) {
+                    assertSameDecay(sleep, fullness, 100, 100, hour);
+                    assertSameDecay(sleep, fullness, 1, 1, hour);
+                    assertSameDecay(sleep, fullness, 0, 0, hour);
+                    assertSameDecay(sleep, fullness, -3, -3, hour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Advancing one tick at a time, as the hourly update does, ends in the same state as one large advance
+     */
+    @Test
+    void testSingleTicksMatchOneAdvance() {
+        Pet stepped = pet(30, 27, 80, 40);
+        Pet jumped = pet(30, 27, 80, 40);
+        for (int tick = 0; tick < 72; tick++) {
+            DecayEngine.advance(stepped, 1);
+        }
+        DecayEngine.advance(jumped, 72);
+        assertEquals(jumped.getSleep(), stepped.getSleep());
+        assertEquals(jumped.getFullness(), stepped.getFullness());
+        assertEquals(jumped.getHappiness(), stepped.getHappiness());
+        assertEquals(jumped.getHealth(), stepped.getHealth());
+    }
+
+    /**
+     * Zero or negative durations leave the pet unchanged
+     */
+    @Test
+    void testNoElapsedTime() {
+        Pet pet = pet(10, 0, 50, 60);
+        DecayEngine.advance(pet, 0);
+        DecayEngine.advance(pet, -5);
+        assertEquals(10, pet.getSleep());
+        assertEquals(0, pet.getFullness());
+        assertEquals(50, pet.getHappiness());
+        assertEquals(60, pet.getHealth());
+    }
+
+    private static void assertSameDecay(int sleep, int fullness, int happiness, int health, int hours) {
+        Pet expected = pet(sleep, fullness, happiness, health);
+        Pet actual = pet(sleep, fullness, happiness, health);
+        hourlyLoop(expected, hours);
+        DecayEngine.advance(actual, hours);
+
+        String state = "sleep=" + sleep + " fullness=" + fullness + " happiness=" + happiness
+                + " health=" + health + " hours=" + hours;
+        assertEquals(expected.getSleep(), actual.getSleep(), state);
+        assertEquals(expected.getFullness(), actual.getFullness(), state);
+        assertEquals(expected.getHappiness(), actual.getHappiness(), state);
+        assertEquals(expected.getHealth(), actual.getHealth(), state);
+    }
+
+    private static Pet pet(int sleep, int fullness, int happiness, int health) {
+        Pet pet = new Pet("Decay", 0, 0, 0);
+        pet.setSleep(sleep);
+        pet.setFullness(fullness);
+        pet.setHappiness(happiness);
+        pet.setHealth(health);
+        return pet;
+    }
+
+    /**
+     * The per-hour decay loop previously used by GameManager.updateStatsLogin, kept as the reference
+     */
+    private static void hourlyLoop(Pet pet, int timeElapsed) {
+        for (int i = timeElapsed; i > 0; i--) {
+            if ((pet.getSleep() <= 25 || pet.getFullness() <= 25) && !(pet.getSleep() <= 25 && pet.getFullness() <= 25)) {
+                if (pet.getHappiness() - 1 <= 0) {
+                    pet.setHappiness(0);
+                } else {
+                    pet.setHappiness(pet.getHappiness() - 1);
+                }
+            }
+            if (pet.getSleep() <= 25 && pet.getFullness() <= 25) {
+                if (pet.getHappiness() - 2 <= 0) {
+                    pet.setHappiness(0);
+                } else {
+                    pet.setHappiness(pet.getHappiness() - 2);
+                }
+            }
+            if ((pet.getSleep() == 0 || pet.getFullness() == 0) && !(pet.getSleep() == 0 && pet.getFullness() == 0)) {
+                if (pet.getHealth() - 1 <= 0) {
+                    pet.setHealth(0);
+                } else {
+                    pet.setHealth(pet.getHealth() - 1);
+                }
+            }
+            if (pet.getSleep() == 0 && pet.getFullness() == 0) {
+                pet.setHealth(Math.max(0, pet.getHealth() - 2));
+            }
+            pet.setSleep(Math.max(0, pet.getSleep() - 1));
+            pet.setFullness(Math.max(0, pet.getFullness() - 1));
+        }
+    }
+}
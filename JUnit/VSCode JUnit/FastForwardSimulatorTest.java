@@ -0,0 +1,112 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import backend.DecayEngine;
+import backend.FastForwardSimulator;
+import backend.Pet;
+import backend.PetStatStore;
+import backend.SimulatedClock;
+import backend.StatisticsTracker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Testing for the FastForwardSimulator and SimulatedClock classes
+ */
+public class FastForwardSimulatorTest {
+
+    private static final String TEST_FILE_NAME = "test_simulated_statistics.csv";
+    private static final LocalDateTime START = LocalDateTime.of(2024, 11, 22, 12, 40);
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(TEST_FILE_NAME));
+    }
+
+    /**
+     * A pet decays once per hour boundary crossed, however the time is split up
+     */
+    @Test
+    void testDecaysPerHourBoundary() {
+        FastForwardSimulator simulator = new FastForwardSimulator(
+                new SimulatedClock(START.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        Pet pet = new Pet("Buddy", 0, 10, 10);
+
+        assertEquals(0, simulator.advance(pet, Duration.ofMinutes(15))); // 12:55
+        assertEquals(1, simulator.advance(pet, Duration.ofMinutes(10))); // 13:05
+        assertEquals(24 * 90, simulator.advance(pet, Duration.ofDays(90)));
+
+        Pet expected = new Pet("Buddy", 0, 10, 10);
+        DecayEngine.advance(expected, 1 + 24 * 90);
+        assertEquals(expected.getHealth(), pet.getHealth());
+        assertEquals(expected.getHappiness(), pet.getHappiness());
+        assertEquals(START.plusMinutes(25).plusDays(90), LocalDateTime.now(simulator.getClock()));
+    }
+
+    /**
+     * A day decays 24 hours across both daylight saving changes, as it does at login
+     */
+    @Test
+    void testDaylightSavingChanges() {
+        ZoneId zone = ZoneId.of("America/New_York");
+        Pet pet = new Pet("Buddy", 0, 10, 10);
+
+        // The clocks skip from 2:00 to 3:00 on 10 March 2024, so a day is 25 hours on the wall
+        FastForwardSimulator spring = new FastForwardSimulator(
+                new SimulatedClock(LocalDateTime.of(2024, 3, 9, 12, 0).atZone(zone).toInstant(), zone));
+        assertEquals(24, spring.advance(pet, Duration.ofDays(1)));
+        assertEquals(LocalDateTime.of(2024, 3, 10, 13, 0), LocalDateTime.now(spring.getClock()));
+
+        // The clocks go back from 2:00 to 1:00 on 3 November 2024, so a day is 23 hours on the wall
+        FastForwardSimulator fall = new FastForwardSimulator(
+                new SimulatedClock(LocalDateTime.of(2024, 11, 2, 12, 0).atZone(zone).toInstant(), zone));
+        assertEquals(24, fall.advance(pet, Duration.ofDays(1)));
+        assertEquals(LocalDateTime.of(2024, 11, 3, 11, 0), LocalDateTime.now(fall.getClock()));
+    }
+
+    /**
+     * Stepping a roster hour by hour ends where a single jump does
+     */
+    @Test
+    void testHourlyStepsMatchJump() {
+        PetStatStore stepped = new PetStatStore();
+        PetStatStore jumped = new PetStatStore();
+        for (int i = 0; i < 50; i++) {
+            stepped.add("Pet" + i, 0, 0, 100 - i, 100 - 2 * i, 60 + i % 10, 90, 10, 10);
+            jumped.add("Pet" + i, 0, 0, 100 - i, 100 - 2 * i, 60 + i % 10, 90, 10, 10);
+        }
+        new FastForwardSimulator(new SimulatedClock(START)).stepHourly(stepped, 200);
+        new FastForwardSimulator(new SimulatedClock(START)).advance(jumped, Duration.ofHours(200));
+
+        for (int row = 0; row < 50; row++) {
+            assertEquals(jumped.view(row).getHealth(), stepped.view(row).getHealth());
+            assertEquals(jumped.view(row).getHappiness(), stepped.view(row).getHappiness());
+            assertEquals(jumped.view(row).getSleep(), stepped.view(row).getSleep());
+        }
+    }
+
+    /**
+     * New statistics entries are stamped with the simulated time, and the clock cannot run backwards
+     */
+    @Test
+    void testStatisticsUseClock() throws IOException {
+        Files.createFile(Paths.get(TEST_FILE_NAME));
+        SimulatedClock clock = new SimulatedClock(START);
+        StatisticsTracker tracker = new StatisticsTracker("Buddy", TEST_FILE_NAME, clock);
+
+        assertEquals(StatisticsTracker.formatLocalDateTime(START), tracker.getLastLogout());
+        assertEquals(StatisticsTracker.formatLocalDateTime(START.plusDays(1)), tracker.getDayEnd());
+        assertThrows(IllegalArgumentException.class, () -> clock.advance(Duration.ofHours(-1)));
+    }
+}
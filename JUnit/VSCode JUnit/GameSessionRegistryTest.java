@@ -0,0 +1,160 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.Test;
+
+import backend.GameManager;
+import backend.GameSessionRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Testing for the GameSessionRegistry class
+ */
+public class GameSessionRegistryTest {
+
+    /**
+     * Each pet gets one context of its own, created once however many threads ask for it
+     */
+    @Test
+    void testContextsAreCreatedOncePerPet() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        GameSessionRegistry registry = new GameSessionRegistry((name, type) -> {
+            created.incrementAndGet();
+            return new GameManager(name, type);
+        });
+
+        int pets = 20;
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<GameManager>> results = new ArrayList<>();
+        for (int i = 0; i < pets * 8; i++) {
+            String name = (i % 2 == 0 ? "Student" : "STUDENT") + (i % pets);
+            results.add(pool.submit(() -> {
+                ready.await();
+                return registry.getOrCreate(name, 0);
+            }));
+        }
+        ready.countDown();
+
+        Map<String, GameManager> seen = new ConcurrentHashMap<>();
+        for (Future<GameManager> result : results) {
+            GameManager session = result.get();
+            String key = session.getCurrentPet().getName().toLowerCase();
+            assertSame(seen.computeIfAbsent(key, k -> session), session);
+        }
+        pool.shutdown();
+
+        assertEquals(pets, created.get());
+        assertEquals(pets, registry.size());
+        assertNotSame(registry.get("student1").getCurrentSettings(), registry.get("student2").getCurrentSettings());
+        assertNotSame(registry.get("student1").getCurrentInventory(), registry.get("student2").getCurrentInventory());
+    }
+
+    /**
+     * A bounded registry evicts its least recently used context and reloads it on the next access
+     */
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+        GameSessionRegistry registry = new GameSessionRegistry((name, type) -> {
+            loads.computeIfAbsent(name.toLowerCase(), k -> new AtomicInteger()).incrementAndGet();
+            return new GameManager(name, type);
+        }, 2);
+
+        GameManager first = registry.getOrCreate("LruFirst", 0);
+        registry.getOrCreate("LruSecond", 0);
+        assertSame(first, registry.getOrCreate("LruFirst", 0)); // LruSecond is now the least recently used
+        registry.getOrCreate("LruThird", 0);
+
+        assertEquals(2, registry.size());
+        assertSame(first, registry.get("LruFirst"));
+        assertNull(registry.get("LruSecond"));
+
+        registry.getOrCreate("LruSecond", 0);
+        assertEquals(2, loads.get("lrusecond").get());
+        assertEquals(1, loads.get("lrufirst").get());
+        assertNull(registry.get("LruThird")); // Evicted by reloading LruSecond
+
+        GameSessionRegistry.Stats stats = registry.getStats();
+        assertEquals(2, stats.getEvictions());
+        assertEquals(0, stats.getWriteBacks());
+        assertEquals(2, stats.getHits());
+        assertEquals(6, stats.getMisses());
+        assertEquals(0.25, stats.getHitRate(), 1e-9);
+    }
+
+    /**
+     * A context in use is not evicted, so no second context of the same pet is loaded, until it is released
+     */
+    @Test
+    void testAcquiredContextsAreNotEvicted() {
+        AtomicInteger loads = new AtomicInteger();
+        GameSessionRegistry registry = new GameSessionRegistry((name, type) -> {
+            loads.incrementAndGet();
+            return new GameManager(name, type);
+        }, 1);
+
+        GameManager busy = registry.acquire("InUseFirst", 0);
+        registry.getOrCreate("InUseSecond", 0);
+        assertEquals(2, registry.size()); // Over the bound, but the first is still in use
+        assertSame(busy, registry.acquire("InUseFirst"));
+        registry.release(busy);
+        assertSame(busy, registry.get("InUseFirst"));
+
+        registry.release(busy); // No longer in use, so the registry gets back within its bound
+        assertEquals(1, registry.size());
+        assertNull(registry.get("InUseSecond")); // The least recently used
+
+        GameManager second = registry.acquire("InUseSecond", 0);
+        assertNull(registry.get("InUseFirst")); // Evicted now that nobody uses it
+        assertEquals(3, loads.get());
+        registry.release(second);
+    }
+
+    /**
+     * A context only counts as dirty once its pet, inventory, settings or statistics changed
+     */
+    @Test
+    void testDirtyTracking() {
+        GameManager session = new GameManager("DirtyBuddy", 0);
+        assertFalse(session.isDirty());
+        session.exercisePet(); // Happiness is already full
+        assertFalse(session.isDirty());
+        session.getCurrentStatisticsTracker().setTotalStudyTime(25);
+        assertTrue(session.isDirty());
+    }
+
+    /**
+     * The current context can be swapped, and removing it leaves no current context
+     */
+    @Test
+    void testCurrentContext() {
+        GameSessionRegistry registry = new GameSessionRegistry();
+        assertNull(registry.getCurrent());
+
+        GameManager buddy = new GameManager("RegistryBuddy", 0);
+        registry.setCurrent(buddy);
+        assertSame(buddy, registry.getCurrent());
+        assertSame(buddy, registry.get("registrybuddy"));
+
+        assertSame(buddy, registry.remove("REGISTRYBUDDY"));
+        assertNull(registry.getCurrent());
+        assertNull(registry.get("RegistryBuddy"));
+        assertEquals(0, registry.size());
+    }
+}
@@ -0,0 +1,157 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import backend.GameManager;
+import backend.GameSessionRegistry;
+import frontend.HeadlessServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Testing for the HeadlessServer class
+ */
+public class HeadlessServerTest {
+
+    private HeadlessServer server;
+    private GameSessionRegistry registry;
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        registry = new GameSessionRegistry();
+        server = new HeadlessServer(0, registry);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    /**
+     * A pet is created once, then driven through the action endpoints
+     */
+    @Test
+    void testPetLifecycle() throws Exception {
+        HttpResponse<String> created = post("/pets/HeadlessBuddy?type=1");
+        assertEquals(200, created.statusCode());
+        assertTrue(created.body().contains("\"name\":\"HeadlessBuddy\""));
+        assertTrue(created.body().contains("\"type\":1"));
+
+        assertEquals(200, post("/pets/headlessbuddy/vet").statusCode());
+        assertEquals(200, post("/pets/HeadlessBuddy/exercise").statusCode());
+        assertEquals(1, registry.size());
+
+        registry.get("HeadlessBuddy").getCurrentSettings().setStudyTime(25);
+        HttpResponse<String> started = post("/pets/HeadlessBuddy/study/start");
+        assertTrue(started.body().contains("\"phase\":\"STUDY\""));
+        assertEquals(409, post("/pets/HeadlessBuddy/study/start").statusCode());
+        assertEquals(200, post("/pets/HeadlessBuddy/study/stop").statusCode());
+        assertEquals(409, post("/pets/HeadlessBuddy/study/stop").statusCode());
+    }
+
+    /**
+     * Unknown pets, items and actions are reported rather than failing the server
+     */
+    @Test
+    void testErrors() throws Exception {
+        assertEquals(404, get("/pets/NoSuchHeadlessPet").statusCode());
+        post("/pets/HeadlessMax");
+        assertEquals(409, post("/pets/HeadlessMax/give?item=Nothing").statusCode());
+        assertEquals(404, post("/pets/HeadlessMax/fly").statusCode());
+        assertEquals(405, get("/pets/HeadlessMax/vet").statusCode());
+        assertEquals(200, get("/pets/HeadlessMax").statusCode());
+    }
+
+    /**
+     * Names that would break the CSV files and unknown pet types are refused before any game is created
+     */
+    @Test
+    void testInvalidNamesAndTypes() throws Exception {
+        assertEquals(400, post("/pets/a%2Cb").statusCode());
+        assertEquals(400, post("/pets/Headless%0AInjected").statusCode());
+        assertEquals(400, post("/pets/Headless%22Quoted").statusCode());
+        assertEquals(400, get("/pets/" + "x".repeat(33)).statusCode());
+        assertEquals(400, post("/pets/HeadlessBird?type=7").statusCode());
+        assertEquals(400, post("/pets/HeadlessBird?type=-1").statusCode());
+        assertEquals(400, post("/pets/HeadlessBird?type=cat").statusCode());
+        assertEquals(0, registry.size());
+        assertEquals(200, post("/pets/Headless_Bird-2?type=2").statusCode());
+    }
+
+    /**
+     * The event stream starts with the pet's state and sends it again when the game changes
+     */
+    @Test
+    void testEventStream() throws Exception {
+        post("/pets/HeadlessStreamed");
+        HttpResponse<Stream<String>> stream = http.send(HttpRequest.newBuilder(uri("/pets/HeadlessStreamed/events"))
+                .GET().build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, stream.statusCode());
+        assertEquals("text/event-stream", stream.headers().firstValue("Content-Type").orElse(""));
+        Iterator<String> lines = stream.body().filter(line -> line.startsWith("data: ")).iterator();
+        assertTrue(lines.next().contains("\"health\":100"));
+
+        registry.get("HeadlessStreamed").getCurrentPet().setHealth(40);
+        assertTrue(lines.next().contains("\"health\":40"));
+        stream.body().close();
+    }
+
+    /**
+     * A running study session keeps its pet resident in a bounded registry, so the session credits the game
+     * the registry holds
+     */
+    @Test
+    void testStudySessionKeepsPetResident() throws Exception {
+        server.stop();
+        registry = new GameSessionRegistry(GameManager::new, 1);
+        server = new HeadlessServer(0, registry);
+        server.start();
+
+        post("/pets/HeadlessStudent");
+        GameManager student = registry.get("HeadlessStudent");
+        student.getCurrentSettings().setStudyTime(1);
+        student.getCurrentSettings().setBreakTime(1);
+        int studied = student.getCurrentStatisticsTracker().getTotalStudyTime();
+        int score = student.getCurrentPet().getPetScore();
+        assertTrue(post("/pets/HeadlessStudent/study/start").body().contains("\"phase\":\"STUDY\""));
+
+        // Over the bound with the student least recently used, yet the student stays resident
+        post("/pets/HeadlessOther");
+        assertSame(student, registry.get("HeadlessStudent"));
+
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!get("/pets/HeadlessStudent").body().contains("\"totalStudyTime\":" + (studied + 1))) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the study session");
+            Thread.sleep(50);
+        }
+        assertEquals(studied + 1, student.getCurrentStatisticsTracker().getTotalStudyTime());
+        assertEquals(Math.min(100, score + 10), student.getCurrentPet().getPetScore());
+    }
+
+    private HttpResponse<String> post(String path) throws Exception {
+        return http.send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return http.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+}
@@ -0,0 +1,45 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.Test;
+
+import backend.MonotonicCountdown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+/**
+ * Testing for the MonotonicCountdown class
+ */
+public class MonotonicCountdownTest {
+
+    /**
+     * The remaining time follows the time source however irregularly it is read
+     */
+    @Test
+    void testRemainingFollowsTimeSource() {
+        long[] now = {Long.MAX_VALUE - 30_000_000_000L}; // Close to wrapping around, as nanoTime may be
+        MonotonicCountdown countdown = new MonotonicCountdown(Duration.ofMinutes(1), () -> now[0]);
+        assertEquals(60, countdown.getDisplayedSeconds());
+
+        now[0] += 1;
+        assertEquals(60, countdown.getDisplayedSeconds());
+        now[0] += 999_999_999L;
+        assertEquals(59, countdown.getDisplayedSeconds());
+
+        // A long stall skips straight to the right second instead of counting one per tick
+        now[0] += 41_500_000_000L;
+        assertEquals(Duration.ofMillis(17_500), countdown.getRemaining());
+        assertEquals(18, countdown.getDisplayedSeconds());
+        assertEquals(Duration.ofMillis(42_500), countdown.getElapsed());
+        assertFalse(countdown.isFinished());
+
+        now[0] += 20_000_000_000L;
+        assertTrue(countdown.isFinished());
+        assertEquals(0, countdown.getDisplayedSeconds());
+        assertEquals(Duration.ofMinutes(1), countdown.getElapsed());
+        assertEquals(Duration.ZERO, countdown.getRemaining());
+    }
+}
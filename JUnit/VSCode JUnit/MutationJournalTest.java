@@ -0,0 +1,149 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import backend.Inventory;
+import backend.Item;
+import backend.MutationJournal;
+import backend.Pet;
+import backend.PetsDictionary;
+import backend.StatisticsTracker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Testing for the MutationJournal class
+ */
+public class MutationJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private Path journalFile;
+    private Path petsFile;
+    private Path statisticsFile;
+    private MutationJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journalFile = directory.resolve("mutations.journal");
+        petsFile = directory.resolve("pets_data.csv");
+        statisticsFile = directory.resolve("statistics_tracker.csv");
+        Files.write(petsFile, Arrays.asList(
+                "name,type,health,sleep,fullness,happiness,sleepEffectiveness,playEffectiveness,inventory",
+                "Buddy,0,0,100,100,90,50,10,10,\"Treat: 1\"",
+                "Max,1,50,100,100,100,100,15,10,\"Treat: 1\""));
+        Files.write(statisticsFile, Arrays.asList(
+                "name,last_study_session,last_logout,day_start,day_end,total_study_time",
+                "Buddy,,,,,0",
+                "Max,,,,,0"));
+        journal = new MutationJournal(journalFile.toString(), petsFile.toString(), statisticsFile.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    /**
+     * Changes to an attached pet, inventory and statistics are journaled and replayed over the snapshot
+     */
+    @Test
+    void testReplay() {
+        attachBuddy();
+
+        Pet pet = new PetsDictionary(petsFile.toString()).getPetByName("Buddy");
+        Inventory inventory = new Inventory();
+        inventory.loadInventory("Buddy", petsFile.toString());
+        StatisticsTracker tracker = new StatisticsTracker("Buddy", statisticsFile.toString());
+        assertEquals(100, pet.getHealth()); // The snapshot is untouched
+        journal.replay("BUDDY", pet, inventory, tracker);
+
+        assertEquals(35, pet.getHealth());
+        assertEquals(20, pet.getSleep());
+        assertEquals(3, inventory.getItemCount(new Item("Snack", "gift", 25)));
+        assertEquals(90, tracker.getTotalStudyTime());
+
+        // Replaying again changes nothing, since records hold new values rather than differences
+        journal.replay("Buddy", pet, inventory, tracker);
+        assertEquals(35, pet.getHealth());
+        assertEquals(3, inventory.getItemCount(new Item("Snack", "gift", 25)));
+
+        // Records of other pets are left out
+        Pet max = new PetsDictionary(petsFile.toString()).getPetByName("Max");
+        journal.replay("Max", max, new Inventory(), null);
+        assertEquals(50, max.getPetScore());
+        assertEquals(100, max.getHealth());
+    }
+
+    /**
+     * Compaction folds the journal into the snapshots and empties it, so a replay finds nothing left to apply
+     */
+    @Test
+    void testCompaction() throws IOException {
+        attachBuddy();
+        assertTrue(Files.size(journalFile) > 0);
+
+        assertTrue(journal.compact());
+        assertFalse(Files.exists(directory.resolve("mutations.journal.compacting")));
+        assertEquals(0, Files.size(journalFile));
+
+        Pet pet = new PetsDictionary(petsFile.toString()).getPetByName("Buddy");
+        assertEquals(35, pet.getHealth());
+        assertEquals(20, pet.getSleep());
+        Inventory inventory = new Inventory();
+        inventory.loadInventory("Buddy", petsFile.toString());
+        assertEquals(3, inventory.getItemCount(new Item("Snack", "gift", 25)));
+        assertEquals(90, new StatisticsTracker("Buddy", statisticsFile.toString()).getTotalStudyTime());
+
+        // Max had no records, so his row is as it was
+        List<String> rows = Files.readAllLines(petsFile);
+        assertTrue(rows.contains("Max,1,50,100,100,100,100,15,10,\"Treat: 1\""));
+        assertTrue(journal.compact()); // Nothing to fold
+    }
+
+    /**
+     * Discarded stat records are no longer replayed, while the pet's other records are kept
+     */
+    @Test
+    void testDiscardPetRecords() {
+        attachBuddy();
+        journal.discardPetRecords(List.of("buddy"));
+
+        Pet pet = new PetsDictionary(petsFile.toString()).getPetByName("Buddy");
+        Inventory inventory = new Inventory();
+        StatisticsTracker tracker = new StatisticsTracker("Buddy", statisticsFile.toString());
+        journal.replay("Buddy", pet, inventory, tracker);
+        assertEquals(100, pet.getHealth());
+        assertEquals(3, inventory.getItemCount(new Item("Snack", "gift", 25)));
+        assertEquals(90, tracker.getTotalStudyTime());
+    }
+
+    /**
+     * Changes Buddy's health, sleep, inventory and study time through the journal
+     */
+    private void attachBuddy() {
+        Pet pet = new PetsDictionary(petsFile.toString()).getPetByName("Buddy");
+        Inventory inventory = new Inventory();
+        inventory.loadInventory("Buddy", petsFile.toString());
+        StatisticsTracker tracker = new StatisticsTracker("Buddy", statisticsFile.toString());
+        journal.attach(pet, inventory, tracker);
+
+        pet.setHealth(60);
+        pet.setHealth(35);
+        pet.setSleep(20);
+        inventory.addItem(new Item("Snack", "gift", 25), 3);
+        tracker.setTotalStudyTime(90);
+    }
+}
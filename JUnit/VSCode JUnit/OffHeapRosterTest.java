@@ -0,0 +1,114 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import backend.DecayEngine;
+import backend.Inventory;
+import backend.Item;
+import backend.OffHeapRoster;
+import backend.Pet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Testing for the OffHeapRoster class
+ */
+public class OffHeapRosterTest {
+
+    private static final String CSV_FILE_NAME = "test_roster_import.csv";
+    private static final String ROSTER_FILE_NAME = "test_roster.bin";
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.write(Paths.get(CSV_FILE_NAME), Arrays.asList(
+                "name,type,health,sleep,fullness,happiness,sleepEffectiveness,playEffectiveness,inventory",
+                "Buddy,0,0,100,30,90,50,10,10,\"Treat: 1, Meal: 2, Bell: 1\"",
+                "Max,1,50,100,100,100,100,15,10,\"Treat: 1\"",
+                "Stray,2,0,80,20,20,40,10,10,\"\""));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(CSV_FILE_NAME));
+        Files.deleteIfExists(Paths.get(ROSTER_FILE_NAME));
+    }
+
+    /**
+     * An imported roster can be reopened from its file with the same pets and inventories
+     */
+    @Test
+    void testImportAndReopen() throws IOException {
+        try (OffHeapRoster roster = OffHeapRoster.importCsv(CSV_FILE_NAME, ROSTER_FILE_NAME)) {
+            assertEquals(3, roster.size());
+        }
+
+        try (OffHeapRoster roster = OffHeapRoster.open(ROSTER_FILE_NAME)) {
+            assertEquals(3, roster.size());
+            assertEquals(-1, roster.slotOf("Nobody"));
+
+            Pet max = roster.readPet(roster.slotOf("MAX"));
+            assertEquals("Max", max.getName());
+            assertEquals(1, max.getPetType());
+            assertEquals(50, max.getPetScore());
+            assertEquals(15, max.getSleepEffectiveness());
+
+            Inventory inventory = roster.readInventory(roster.slotOf("Buddy"));
+            assertEquals(2, inventory.getItemCount(new Item("Meal", "food", 50)));
+            assertEquals(1, inventory.getItemCount(new Item("Bell", "gift", 50)));
+            assertEquals(0, roster.readInventory(roster.slotOf("Stray")).getItemsList().size());
+        }
+    }
+
+    /**
+     * Changes written through the roster are kept in the file, and bulk decay follows the DecayEngine rules
+     */
+    @Test
+    void testWriteAndAdvance() throws IOException {
+        try (OffHeapRoster roster = OffHeapRoster.importCsv(CSV_FILE_NAME, ROSTER_FILE_NAME)) {
+            int slot = roster.slotOf("Buddy");
+            Pet buddy = roster.readPet(slot);
+            buddy.setHealth(75);
+            roster.writePet(slot, buddy);
+            roster.advanceAll(40);
+        }
+
+        Pet expected = new Pet("Buddy", 0, 10, 10);
+        expected.setHealth(75);
+        expected.setSleep(30);
+        expected.setFullness(90);
+        expected.setHappiness(50);
+        DecayEngine.advance(expected, 40);
+
+        try (OffHeapRoster roster = OffHeapRoster.open(ROSTER_FILE_NAME)) {
+            Pet buddy = roster.readPet(roster.slotOf("buddy"));
+            assertEquals(expected.getHealth(), buddy.getHealth());
+            assertEquals(expected.getSleep(), buddy.getSleep());
+            assertEquals(expected.getFullness(), buddy.getFullness());
+            assertEquals(expected.getHappiness(), buddy.getHappiness());
+        }
+    }
+
+    /**
+     * A roster refuses pets beyond its capacity, duplicate names and names too long for a record
+     */
+    @Test
+    void testLimits() throws IOException {
+        try (OffHeapRoster roster = OffHeapRoster.create(ROSTER_FILE_NAME, 1)) {
+            roster.add(new Pet("Solo", 0, 10, 10), null);
+            assertThrows(IllegalArgumentException.class, () -> roster.add(new Pet("SOLO", 0, 10, 10), null));
+            assertThrows(IllegalStateException.class, () -> roster.add(new Pet("Other", 0, 10, 10), null));
+        }
+        try (OffHeapRoster roster = OffHeapRoster.create(ROSTER_FILE_NAME, 4)) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> roster.add(new Pet("A name that is far too long for a record", 0, 10, 10), null));
+        }
+    }
+}
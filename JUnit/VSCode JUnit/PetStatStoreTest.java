@@ -0,0 +1,97 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.Test;
+
+import backend.DecayEngine;
+import backend.Pet;
+import backend.PetStatStore;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Testing for the PetStatStore class
+ */
+public class PetStatStoreTest {
+
+    /**
+     * Decaying the whole store gives the same stats as decaying each pet with the DecayEngine
+     */
+    @Test
+    void testAdvanceAllMatchesDecayEngine() {
+        Random random = new Random(42);
+        long[] durations = {1, 2, 24, 25, 26, 75, 101, 255, 256, 257, 5000};
+        for (long hours : durations) {
+            PetStatStore store = new PetStatStore();
+            List<Pet> pets = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                Pet pet = new Pet("Pet" + i, i % 3, 10, 10);
+                pet.setHealth(random.nextInt(106) - 5);
+                pet.setSleep(random.nextInt(106) - 5);
+                pet.setFullness(random.nextInt(106) - 5);
+                pet.setHappiness(random.nextInt(106) - 5);
+                store.add(pet);
+                pets.add(pet);
+            }
+
+            store.advanceAll(hours);
+            for (Pet pet : pets) {
+                DecayEngine.advance(pet, hours);
+                Pet stored = store.view(pet.getName());
+                String state = pet.getName() + " after " + hours + " hours";
+                assertEquals(pet.getHealth(), stored.getHealth(), state);
+                assertEquals(pet.getSleep(), stored.getSleep(), state);
+                assertEquals(pet.getFullness(), stored.getFullness(), state);
+                assertEquals(pet.getHappiness(), stored.getHappiness(), state);
+            }
+        }
+    }
+
+    /**
+     * A view reads and writes the stored row, and keeps working with code written against Pet
+     */
+    @Test
+    void testViewWritesThrough() {
+        PetStatStore store = new PetStatStore(1);
+        store.add("Buddy", 0, 20, 50, 60, 70, 80, 10, 15);
+        store.add("Max", 1, 0, 100, 100, 100, 100, 10, 10);
+
+        Pet buddy = store.view("buddy");
+        buddy.setHealth(55);
+        buddy.play();
+        DecayEngine.advance(buddy, 1);
+
+        Pet again = store.view(store.rowOf("Buddy"));
+        assertEquals(55, again.getHealth());
+        assertEquals(95, again.getHappiness());
+        assertEquals(59, again.getSleep());
+        assertEquals(2, store.size());
+        assertNull(store.view("Stray"));
+        assertThrows(IllegalArgumentException.class, () -> buddy.setHealth(500));
+        assertThrows(IllegalArgumentException.class, () -> store.add("MAX", 0, 0, 0, 0, 0, 0, 0, 0));
+    }
+
+    /**
+     * The top pets come out highest score first, with ties in row order
+     */
+    @Test
+    void testTopByScore() {
+        PetStatStore store = new PetStatStore();
+        int[] scores = {40, 90, 10, 90, 100, 40};
+        for (int i = 0; i < scores.length; i++) {
+            store.add("Pet" + i, 0, scores[i], 100, 100, 100, 100, 10, 10);
+        }
+        assertArrayEquals(new int[] {4, 1, 3, 0}, store.topByScore(4));
+        assertArrayEquals(new int[] {4, 1, 3, 0, 5, 2}, store.topByScore(10));
+
+        store.addScoreAll(5);
+        assertEquals(100, store.view(4).getPetScore());
+        assertEquals(2, store.scoreHistogram()[45]);
+    }
+}
@@ -0,0 +1,106 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import backend.Pet;
+import backend.PetsDictionary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+/**
+ * Testing for the single-pet lookup and the shared instance of the PetsDictionary class
+ */
+public class PetsDictionaryTest {
+
+    private static final String TEST_FILE_NAME = "test_pets_dictionary.csv";
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.write(Paths.get(TEST_FILE_NAME), Arrays.asList(
+                "name,type,health,sleep,fullness,happiness,sleepEffectiveness,playEffectiveness,inventory",
+                "Buddy,0,0,100,100,90,50,10,10,\"Treat: 1, Meal: 1, Bell: 1\"",
+                "Max,1,50,100,100,100,100,15,10,\"Treat: 1\""));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(TEST_FILE_NAME));
+        Files.deleteIfExists(Paths.get(TEST_FILE_NAME + ".idx"));
+    }
+
+    /**
+     * A single pet is found by name in any case, and a missing pet is null
+     */
+    @Test
+    void testLoadPet() {
+        Pet buddy = PetsDictionary.loadPet("BUDDY", TEST_FILE_NAME);
+        assertEquals("Buddy", buddy.getName());
+        assertEquals(50, buddy.getHappiness());
+        assertEquals(1, PetsDictionary.loadPet("max", TEST_FILE_NAME).getPetType());
+
+        assertNull(PetsDictionary.loadPet("Nobody", TEST_FILE_NAME));
+        assertNull(PetsDictionary.getShared(TEST_FILE_NAME).getPetByName("Nobody"));
+    }
+
+    /**
+     * Saving a pet updates the shared dictionary in place instead of reloading it
+     */
+    @Test
+    void testSharedRefreshedAfterSave() {
+        PetsDictionary shared = PetsDictionary.getShared(TEST_FILE_NAME);
+        assertSame(shared, PetsDictionary.getShared(TEST_FILE_NAME));
+
+        Pet buddy = PetsDictionary.loadPet("Buddy", TEST_FILE_NAME);
+        buddy.setHappiness(5);
+        buddy.saveToFile(TEST_FILE_NAME);
+        new Pet("Kiwi", 2, 20, 30).saveToFile(TEST_FILE_NAME);
+
+        assertSame(shared, PetsDictionary.getShared(TEST_FILE_NAME));
+        assertEquals(5, shared.getPetByName("Buddy").getHappiness());
+        assertEquals(2, shared.getPetByName("Kiwi").getPetType());
+        assertEquals(3, shared.getPets().size());
+    }
+
+    /**
+     * A change made to the file by anything else is noticed by its modification time or size
+     */
+    @Test
+    void testSharedInvalidatedByExternalChange() throws IOException {
+        Path file = Paths.get(TEST_FILE_NAME);
+        PetsDictionary shared = PetsDictionary.getShared(TEST_FILE_NAME);
+
+        // Same size, only the modification time tells the change apart
+        FileTime modified = Files.getLastModifiedTime(file);
+        Files.write(file, Arrays.asList(
+                "name,type,health,sleep,fullness,happiness,sleepEffectiveness,playEffectiveness,inventory",
+                "Buddy,0,0,100,100,90,70,10,10,\"Treat: 1, Meal: 1, Bell: 1\"",
+                "Max,1,50,100,100,100,100,15,10,\"Treat: 1\""));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 2000));
+        PetsDictionary reloaded = PetsDictionary.getShared(TEST_FILE_NAME);
+        assertNotSame(shared, reloaded);
+        assertEquals(70, reloaded.getPetByName("Buddy").getHappiness());
+
+        // Same modification time, only the size tells the change apart
+        modified = Files.getLastModifiedTime(file);
+        Files.write(file, Arrays.asList(
+                "name,type,health,sleep,fullness,happiness,sleepEffectiveness,playEffectiveness,inventory",
+                "Max,1,50,100,100,100,100,15,10,\"Treat: 1\""));
+        Files.setLastModifiedTime(file, modified);
+        PetsDictionary shrunk = PetsDictionary.getShared(TEST_FILE_NAME);
+        assertNotSame(reloaded, shrunk);
+        assertNull(shrunk.getPetByName("Buddy"));
+        assertEquals(1, shrunk.getPets().size());
+    }
+}
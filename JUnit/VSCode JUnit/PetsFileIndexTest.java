@@ -0,0 +1,89 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import backend.Inventory;
+import backend.Pet;
+import backend.PetsDictionary;
+import backend.PetsFileIndex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Testing for the PetsFileIndex class
+ */
+public class PetsFileIndexTest {
+
+    private static final String TEST_FILE_NAME = "test_pets_index.csv";
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.write(Paths.get(TEST_FILE_NAME), Arrays.asList(
+                "name,type,health,sleep,fullness,happiness,sleepEffectiveness,playEffectiveness,inventory",
+                "Buddy,0,0,100,100,90,50,10,10,\"Treat: 1, Meal: 1, Bell: 1\"",
+                "Max,1,50,100,100,100,100,15,10,\"Treat: 1\""));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(TEST_FILE_NAME));
+        Files.deleteIfExists(Paths.get(TEST_FILE_NAME + ".idx"));
+    }
+
+    /**
+     * A row that still fits its slot is overwritten in place without changing the file length
+     */
+    @Test
+    void testUpdateInPlace() throws IOException {
+        long before = Files.size(Paths.get(TEST_FILE_NAME));
+
+        Pet buddy = new PetsDictionary(TEST_FILE_NAME).getPetByName("Buddy");
+        buddy.setHappiness(5);
+        buddy.saveToFile(TEST_FILE_NAME);
+
+        assertEquals(before, Files.size(Paths.get(TEST_FILE_NAME)));
+        assertEquals(5, new PetsDictionary(TEST_FILE_NAME).getPetByName("Buddy").getHappiness());
+        assertEquals("Buddy,0,0,100,100,90,5,10,10,\"Treat: 1, Meal: 1, Bell: 1\"",
+                PetsFileIndex.forFile(TEST_FILE_NAME).readRow("buddy"));
+    }
+
+    /**
+     * A row that outgrows its slot triggers a rewrite and the other rows are untouched
+     */
+    @Test
+    void testRowGrowsPastSlot() throws IOException {
+        Inventory inventory = new Inventory();
+        inventory.loadInventory("Max", TEST_FILE_NAME);
+        inventory.addItem(new backend.Item("Ball", "gift", 25), 3);
+        inventory.saveToFile("Max", TEST_FILE_NAME);
+
+        Inventory reloaded = new Inventory();
+        reloaded.loadInventory("Max", TEST_FILE_NAME);
+        assertEquals(3, reloaded.getItemCount(new backend.Item("Ball", "gift", 25)));
+        assertEquals(1, reloaded.getItemCount(new backend.Item("Treat", "food", 10)));
+        assertEquals(50, new PetsDictionary(TEST_FILE_NAME).getPetByName("Buddy").getHappiness());
+    }
+
+    /**
+     * A new pet is appended and can be found through a freshly loaded index
+     */
+    @Test
+    void testAppendNewPet() throws IOException {
+        new Pet("Kiwi", 2, 20, 30).saveToFile(TEST_FILE_NAME);
+
+        assertTrue(Files.exists(Paths.get(TEST_FILE_NAME + ".idx")));
+        assertEquals("Kiwi,2,0,100,100,100,100,20,30,\"Treat: 1, Plushy: 1\"",
+                PetsFileIndex.forFile(TEST_FILE_NAME).readRow("Kiwi"));
+        assertEquals(3, new PetsDictionary(TEST_FILE_NAME).getPets().size());
+        assertNull(PetsFileIndex.forFile(TEST_FILE_NAME).readRow("Nobody"));
+    }
+}
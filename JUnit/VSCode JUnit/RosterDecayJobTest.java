@@ -0,0 +1,126 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import backend.DecayEngine;
+import backend.Inventory;
+import backend.MutationJournal;
+import backend.Pet;
+import backend.PetsDictionary;
+import backend.RosterDecayJob;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Testing for the RosterDecayJob class
+ */
+public class RosterDecayJobTest {
+
+    private static final String PETS_FILE_NAME = "test_roster_pets.csv";
+    private static final String STATISTICS_FILE_NAME = "test_roster_statistics.csv";
+    private static final String JOURNAL_FILE_NAME = "test_roster.journal";
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 11, 24, 12, 30);
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.write(Paths.get(PETS_FILE_NAME), Arrays.asList(
+                "name,type,health,sleep,fullness,happiness,sleepEffectiveness,playEffectiveness,inventory",
+                "Buddy,0,0,100,30,90,50,10,10,\"Treat: 1, Meal: 1, Bell: 1\"",
+                "Max,1,50,100,100,100,100,15,10,\"Treat: 1\"",
+                "Stray,2,0,80,20,20,40,10,10,\"\""));
+        Files.write(Paths.get(STATISTICS_FILE_NAME), Arrays.asList(
+                "name,last_study_session,last_logout,day_start,day_end,total_study_time",
+                "Buddy,2024-11-22 12:00 PM,2024-11-22 12:00 PM,2024-11-22 12:00 PM,2024-11-23 12:00 PM,60",
+                "Max,2024-11-22 12:00 PM,2024-11-24 12:00 PM,2024-11-22 12:00 PM,2024-11-23 12:00 PM,0"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(PETS_FILE_NAME));
+        Files.deleteIfExists(Paths.get(PETS_FILE_NAME + ".idx"));
+        Files.deleteIfExists(Paths.get(STATISTICS_FILE_NAME));
+        Files.deleteIfExists(Paths.get(JOURNAL_FILE_NAME));
+        Files.deleteIfExists(Paths.get(JOURNAL_FILE_NAME + ".compacting"));
+    }
+
+    /**
+     * Pets are advanced by the whole hours since their last logout, and the logout moves forward by those hours
+     */
+    @Test
+    void testDecaysRosterAndMovesLogout() throws IOException {
+        RosterDecayJob.Result result = new RosterDecayJob(PETS_FILE_NAME, STATISTICS_FILE_NAME).run(NOW);
+
+        assertEquals(3, result.getPets());
+        assertEquals(1, result.getDecayedPets()); // Max is under an hour behind, Stray has no statistics
+        assertTrue(result.getPetsPerSecond() > 0);
+
+        Pet expected = new Pet("Buddy", 0, 10, 10);
+        expected.setHealth(100);
+        expected.setSleep(30);
+        expected.setFullness(90);
+        expected.setHappiness(50);
+        DecayEngine.advance(expected, 48);
+
+        PetsDictionary roster = new PetsDictionary(PETS_FILE_NAME);
+        Pet buddy = roster.getPetByName("Buddy");
+        assertEquals(expected.getHealth(), buddy.getHealth());
+        assertEquals(expected.getSleep(), buddy.getSleep());
+        assertEquals(expected.getFullness(), buddy.getFullness());
+        assertEquals(expected.getHappiness(), buddy.getHappiness());
+        assertEquals(100, roster.getPetByName("Max").getHappiness());
+
+        List<String> pets = Files.readAllLines(Paths.get(PETS_FILE_NAME));
+        assertTrue(pets.get(1).contains("\"Treat: 1, Meal: 1, Bell: 1\""));
+
+        List<String> statistics = Files.readAllLines(Paths.get(STATISTICS_FILE_NAME));
+        long movedLogout = LocalDateTime.of(2024, 11, 24, 12, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertEquals("Buddy,2024-11-22 12:00 PM," + movedLogout + ",2024-11-22 12:00 PM,2024-11-23 12:00 PM,60",
+                statistics.get(1));
+    }
+
+    /**
+     * Running the job twice for the same time does not decay the same hours again
+     */
+    @Test
+    void testSecondRunIsNoOp() throws IOException {
+        RosterDecayJob job = new RosterDecayJob(PETS_FILE_NAME, STATISTICS_FILE_NAME);
+        job.run(NOW);
+        List<String> afterFirstRun = Files.readAllLines(Paths.get(PETS_FILE_NAME));
+
+        assertEquals(0, job.run(NOW).getDecayedPets());
+        assertEquals(afterFirstRun, Files.readAllLines(Paths.get(PETS_FILE_NAME)));
+    }
+
+    /**
+     * The journal is folded in before decaying, and its old stats are not replayed over the decayed rows
+     */
+    @Test
+    void testJournaledStatsAreDecayedNotReplayed() throws IOException {
+        Files.write(Paths.get(JOURNAL_FILE_NAME), Arrays.asList("P\tBuddy\tsleep\t80", "I\tBuddy\tTreat\tFood\t5\t4"));
+        MutationJournal journal = new MutationJournal(JOURNAL_FILE_NAME, PETS_FILE_NAME, STATISTICS_FILE_NAME);
+        assertEquals(1, new RosterDecayJob(PETS_FILE_NAME, STATISTICS_FILE_NAME, journal).run(NOW).getDecayedPets());
+
+        Pet expected = new Pet("Buddy", 0, 10, 10);
+        expected.setSleep(80);
+        DecayEngine.advance(expected, 48);
+        Pet buddy = new PetsDictionary(PETS_FILE_NAME).getPetByName("Buddy");
+        assertEquals(expected.getSleep(), buddy.getSleep());
+
+        Inventory inventory = new Inventory();
+        journal.replay("Buddy", buddy, inventory, null);
+        assertEquals(expected.getSleep(), buddy.getSleep());
+        journal.close();
+        assertTrue(Files.readAllLines(Paths.get(PETS_FILE_NAME)).get(1).contains("Treat: 4"));
+    }
+}
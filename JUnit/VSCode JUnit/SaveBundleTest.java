@@ -0,0 +1,126 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import backend.Inventory;
+import backend.Item;
+import backend.Pet;
+import backend.PetsDictionary;
+import backend.PetsFileIndex;
+import backend.SaveBundle;
+import backend.Settings;
+import backend.StatisticsTracker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Testing for the SaveBundle class
+ */
+public class SaveBundleTest {
+
+    @TempDir
+    Path directory;
+
+    private Path petsFile;
+    private Path settingsFile;
+    private Path statisticsFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        petsFile = directory.resolve("pets_data.csv");
+        settingsFile = directory.resolve("game_settings.csv");
+        statisticsFile = directory.resolve("statistics_tracker.csv");
+        Files.write(petsFile, Arrays.asList(
+                "name,type,health,sleep,fullness,happiness,sleepEffectiveness,playEffectiveness,inventory",
+                "Buddy,0,0,100,100,90,50,10,10,\"Treat: 1\""));
+        Files.write(settingsFile, Arrays.asList("background_music,study_time,break_time,pet_name", "0,60,20"));
+        Files.write(statisticsFile, Arrays.asList(
+                "name,last_study_session,last_logout,day_start,day_end,total_study_time",
+                "Buddy,,,,,0",
+                "Max,,,,,15"));
+    }
+
+    /**
+     * A bundle writes the pet, its inventory, settings and statistics, and the newest row of each wins a merge
+     */
+    @Test
+    void testCommitAndMerge() throws IOException {
+        Pet buddy = new Pet("Buddy", 0, 10, 10);
+        Inventory inventory = new Inventory();
+        inventory.addItem(new Item("Treat", "Food", 5), 2);
+        StatisticsTracker tracker = new StatisticsTracker("Buddy", statisticsFile.toString());
+        Settings settings = new Settings(settingsFile.toString(), "Buddy");
+
+        buddy.setHealth(40);
+        settings.setStudyTime(25);
+        SaveBundle bundle = new SaveBundle()
+                .pet(buddy, inventory, petsFile.toString())
+                .settings(settings, settingsFile.toString());
+        buddy.setHealth(70); // Rows are captured when added, so this needs another bundle
+        tracker.setTotalStudyTime(45);
+        bundle.merge(new SaveBundle()
+                .pet(buddy, inventory, petsFile.toString())
+                .statistics(tracker, statisticsFile.toString()));
+
+        assertTrue(bundle.commit());
+        assertEquals(70, new PetsDictionary(petsFile.toString()).getPetByName("Buddy").getHealth());
+        assertTrue(PetsFileIndex.forFile(petsFile.toString()).readRow("Buddy").contains("Treat: 2"));
+        assertEquals(25, new Settings(settingsFile.toString(), "Buddy").getStudyTime());
+        assertEquals(60, new Settings(settingsFile.toString()).getStudyTime());
+        assertEquals(45, new StatisticsTracker("Buddy", statisticsFile.toString()).getTotalStudyTime());
+        assertEquals("Max,,,,,15", Files.readAllLines(statisticsFile).get(2));
+    }
+
+    /**
+     * Files are replaced by moving a fully written temporary file over them, even if an earlier write left one
+     */
+    @Test
+    void testAtomicReplace() throws IOException {
+        Path temp = directory.resolve("statistics_tracker.csv.tmp");
+        Files.write(temp, Arrays.asList("left over from a crashed write"));
+        Object before = Files.readAttributes(statisticsFile, BasicFileAttributes.class).fileKey();
+
+        StatisticsTracker tracker = new StatisticsTracker("Max", statisticsFile.toString());
+        tracker.setTotalStudyTime(30);
+        assertTrue(new SaveBundle().statistics(tracker, statisticsFile.toString()).commit());
+
+        assertFalse(Files.exists(temp));
+        Object after = Files.readAttributes(statisticsFile, BasicFileAttributes.class).fileKey();
+        if (before != null) {
+            assertNotEquals(before, after); // A new file took the old one's place
+        }
+        List<String> lines = Files.readAllLines(statisticsFile);
+        assertEquals(3, lines.size());
+        assertEquals("Buddy,,,,,0", lines.get(1));
+        assertEquals(30, new StatisticsTracker("Max", statisticsFile.toString()).getTotalStudyTime());
+    }
+
+    /**
+     * A file that cannot be written fails the commit without keeping the other files from being saved
+     */
+    @Test
+    void testFailedFileDoesNotStopOthers() throws IOException {
+        Settings settings = new Settings(settingsFile.toString(), "Max");
+        StatisticsTracker tracker = new StatisticsTracker("Max", statisticsFile.toString());
+        tracker.setTotalStudyTime(50);
+        String missing = directory.resolve("missing").resolve("game_settings.csv").toString();
+
+        SaveBundle bundle = new SaveBundle().settings(settings, missing).statistics(tracker, statisticsFile.toString());
+        assertFalse(bundle.isEmpty());
+        assertFalse(bundle.commit());
+        assertEquals(50, new StatisticsTracker("Max", statisticsFile.toString()).getTotalStudyTime());
+        assertTrue(new SaveBundle().isEmpty());
+    }
+}
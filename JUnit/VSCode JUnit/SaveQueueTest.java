@@ -0,0 +1,95 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import backend.Inventory;
+import backend.Pet;
+import backend.PetsDictionary;
+import backend.SaveBundle;
+import backend.SaveQueue;
+import backend.StatisticsTracker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Testing for the SaveQueue class
+ */
+public class SaveQueueTest {
+
+    @TempDir
+    Path directory;
+
+    private Path petsFile;
+    private Path statisticsFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        petsFile = directory.resolve("pets_data.csv");
+        statisticsFile = directory.resolve("statistics_tracker.csv");
+        Files.write(petsFile, Arrays.asList(
+                "name,type,health,sleep,fullness,happiness,sleepEffectiveness,playEffectiveness,inventory",
+                "Buddy,0,0,100,100,90,50,10,10,\"Treat: 1\""));
+        Files.write(statisticsFile, Arrays.asList(
+                "name,last_study_session,last_logout,day_start,day_end,total_study_time",
+                "Buddy,,,,,0"));
+    }
+
+    /**
+     * Saves wait in the queue and collapse into one write of the latest values, made on flush
+     */
+    @Test
+    void testSavesCoalesceUntilFlush() throws IOException {
+        SaveQueue queue = new SaveQueue(60_000);
+        Pet buddy = new Pet("Buddy", 0, 10, 10);
+        Inventory inventory = new Inventory();
+        StatisticsTracker tracker = new StatisticsTracker("Buddy", statisticsFile.toString());
+        List<String> before = Files.readAllLines(petsFile);
+
+        for (int health = 1; health <= 50; health++) {
+            buddy.setHealth(health);
+            tracker.setTotalStudyTime(health * 2);
+            queue.submit(new SaveBundle().pet(buddy, inventory, petsFile.toString())
+                    .statistics(tracker, statisticsFile.toString()));
+        }
+        assertTrue(queue.hasPendingChanges());
+        assertEquals(before, Files.readAllLines(petsFile)); // Nothing is written before the flush
+
+        assertTrue(queue.flush());
+        assertFalse(queue.hasPendingChanges());
+        assertEquals(50, new PetsDictionary(petsFile.toString()).getPetByName("Buddy").getHealth());
+        assertEquals(100, new StatisticsTracker("Buddy", statisticsFile.toString()).getTotalStudyTime());
+        assertEquals(2, Files.readAllLines(statisticsFile).size()); // The row was replaced, not added again
+
+        assertTrue(queue.flush()); // Nothing left to write
+        queue.shutdown();
+    }
+
+    /**
+     * Pending saves are written by the background thread once the flush interval has passed
+     */
+    @Test
+    void testBackgroundFlush() throws Exception {
+        SaveQueue queue = new SaveQueue(20);
+        Pet buddy = new Pet("Buddy", 0, 10, 10);
+        buddy.setHappiness(33);
+        queue.submit(new SaveBundle().pet(buddy, new Inventory(), petsFile.toString()));
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (queue.hasPendingChanges()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the background flush");
+            Thread.sleep(5);
+        }
+        queue.shutdown(); // Waits for a flush that is still writing
+        assertEquals(33, new PetsDictionary(petsFile.toString()).getPetByName("Buddy").getHappiness());
+    }
+}
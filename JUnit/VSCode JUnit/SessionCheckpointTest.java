@@ -0,0 +1,82 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import backend.SessionCheckpoint;
+import backend.SessionCheckpoint.Checkpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Testing for the SessionCheckpoint class
+ */
+public class SessionCheckpointTest {
+
+    private static final String FILE = "test_sessions.checkpoint";
+    private static final Instant START = Instant.parse("2024-11-20T09:30:00Z");
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(FILE));
+    }
+
+    /**
+     * The last checkpoint of a session that never finished is found again after a restart
+     */
+    @Test
+    void testUnfinishedSessionSurvivesRestart() {
+        SessionCheckpoint checkpoints = new SessionCheckpoint(FILE);
+        checkpoints.save(new Checkpoint("Buddy", "1", 0, Duration.ofMinutes(25), Duration.ofMinutes(5), START));
+        checkpoints.save(new Checkpoint("Buddy", "1", 10, Duration.ofMinutes(15), Duration.ofMinutes(5),
+                START.plusSeconds(600)));
+        checkpoints.save(new Checkpoint("Max", "2", 3, Duration.ofMinutes(22), Duration.ofMinutes(5), START));
+        checkpoints.finish("Max", "2");
+        checkpoints.close(); // The application dies here
+
+        SessionCheckpoint restarted = new SessionCheckpoint(FILE);
+        Checkpoint unfinished = restarted.findUnfinished("buddy");
+        assertEquals("1", unfinished.getKey());
+        assertEquals(10, unfinished.getStudiedMinutes());
+        assertEquals(Duration.ofMinutes(15), unfinished.getRemaining());
+        assertEquals(Duration.ofMinutes(5), unfinished.getBreakLength());
+        assertEquals(START.plusSeconds(600), unfinished.getSavedAt());
+        assertNull(restarted.findUnfinished("Max"));
+
+        restarted.finish("Buddy", "1");
+        assertNull(restarted.findUnfinished("Buddy"));
+        restarted.close();
+    }
+
+    /**
+     * Compacting keeps only the last checkpoint of unfinished sessions, and appending still works after it
+     */
+    @Test
+    void testCompact() throws IOException {
+        SessionCheckpoint checkpoints = new SessionCheckpoint(FILE);
+        for (int minute = 0; minute < 25; minute++) {
+            checkpoints.save(new Checkpoint("Buddy", "1", minute, Duration.ofMinutes(25 - minute),
+                    Duration.ofMinutes(5), START.plusSeconds(60L * minute)));
+            checkpoints.save(new Checkpoint("Max", "2", minute, Duration.ofMinutes(25 - minute),
+                    Duration.ofMinutes(5), START.plusSeconds(60L * minute)));
+        }
+        checkpoints.finish("Buddy", "1");
+
+        assertTrue(checkpoints.compact());
+        assertEquals(1, Files.readAllLines(Paths.get(FILE)).size());
+        assertEquals(24, checkpoints.findUnfinished("Max").getStudiedMinutes());
+
+        checkpoints.save(new Checkpoint("Max", "3", 1, Duration.ofMinutes(24), Duration.ofMinutes(5),
+                START.plusSeconds(3600)));
+        assertEquals("3", checkpoints.findUnfinished("Max").getKey());
+        checkpoints.close();
+    }
+}
@@ -0,0 +1,57 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import backend.Settings;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Testing for the per-pet rows of the Settings class
+ */
+public class SettingsTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Each pet saves its own row, and pets without one keep using the defaults
+     */
+    @Test
+    void testSettingsArePerPet() throws IOException {
+        Path file = directory.resolve("game_settings.csv");
+        Files.write(file, List.of("background_music,study_time,break_time,pet_name", "0,60,20"));
+
+        Settings buddy = new Settings(file.toString(), "Buddy");
+        assertEquals(60, buddy.getStudyTime());
+        buddy.setStudyTime(25);
+        buddy.setBreakTime(5);
+        buddy.saveToFile(file.toString());
+
+        assertEquals(25, new Settings(file.toString(), "BUDDY").getStudyTime());
+        assertEquals(5, new Settings(file.toString(), "buddy").getBreakTime());
+        assertEquals(60, new Settings(file.toString(), "Max").getStudyTime());
+        assertEquals(60, new Settings(file.toString()).getStudyTime());
+
+        // Saving again updates the pet's row instead of adding another one
+        buddy.setStudyTime(30);
+        buddy.saveToFile(file.toString());
+        assertEquals(List.of("background_music,study_time,break_time,pet_name", "0,60,20", "0,30,5,Buddy"),
+                Files.readAllLines(file));
+
+        Settings defaults = new Settings(file.toString());
+        defaults.setBackgroundMusic(true);
+        defaults.saveToFile(file.toString());
+        assertTrue(new Settings(file.toString(), "Max").getBackgroundMusic());
+        assertFalse(new Settings(file.toString(), "Buddy").getBackgroundMusic());
+        assertEquals(30, new Settings(file.toString(), "Buddy").getStudyTime());
+    }
+}
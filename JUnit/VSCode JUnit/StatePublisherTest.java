@@ -0,0 +1,166 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.Test;
+
+import backend.Autosaver;
+import backend.GameManager;
+import backend.Item;
+import backend.StatePublisher;
+import backend.StatePublisher.Change;
+import backend.StatePublisher.Source;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Testing for the StatePublisher and Autosaver classes
+ */
+public class StatePublisherTest {
+
+    /**
+     * Records what a subscriber is sent, requesting only when told to
+     */
+    private static class Recorder implements Flow.Subscriber<Change> {
+        final List<Change> received = Collections.synchronizedList(new ArrayList<>());
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Change change) {
+            received.add(change);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    /**
+     * Changes wait until they are requested, and repeated changes to the same thing are sent once
+     */
+    @Test
+    void testBackpressureAndCoalescing() {
+        StatePublisher publisher = new StatePublisher(Runnable::run);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+
+        for (int i = 0; i < 1000; i++) {
+            publisher.publish(Source.PET, "Buddy");
+        }
+        publisher.publish(Source.INVENTORY, "Buddy");
+        publisher.publish(Source.PET, "Buddy");
+        assertTrue(recorder.received.isEmpty());
+
+        recorder.subscription.request(1);
+        assertEquals(List.of(new Change(Source.PET, "Buddy")), recorder.received);
+        recorder.subscription.request(5);
+        assertEquals(List.of(new Change(Source.PET, "Buddy"), new Change(Source.INVENTORY, "Buddy")),
+                recorder.received);
+
+        // Outstanding requests are used by the next changes
+        publisher.publish(Source.STATISTICS, "Buddy");
+        assertEquals(3, recorder.received.size());
+    }
+
+    /**
+     * Cancelled subscribers are sent nothing more, and closing completes the others
+     */
+    @Test
+    void testCancelAndClose() {
+        StatePublisher publisher = new StatePublisher(Runnable::run);
+        Recorder cancelled = new Recorder();
+        Recorder open = new Recorder();
+        publisher.subscribe(cancelled);
+        publisher.subscribe(open);
+        cancelled.subscription.request(10);
+        open.subscription.request(10);
+
+        cancelled.subscription.cancel();
+        assertEquals(1, publisher.subscribers());
+        publisher.publish(Source.PET, "Max");
+        assertTrue(cancelled.received.isEmpty());
+        assertEquals(1, open.received.size());
+
+        publisher.close();
+        assertTrue(open.completed);
+        assertFalse(cancelled.completed);
+        assertEquals(0, publisher.subscribers());
+
+        Recorder late = new Recorder();
+        publisher.subscribe(late);
+        assertTrue(late.completed);
+    }
+
+    /**
+     * Requesting no events is an error, as the Flow contract requires
+     */
+    @Test
+    void testInvalidRequest() {
+        StatePublisher publisher = new StatePublisher(Runnable::run);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+        recorder.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, recorder.error);
+        assertEquals(0, publisher.subscribers());
+    }
+
+    /**
+     * The pet, inventory and statistics of a game announce their changes, and the autosaver saves them
+     */
+    @Test
+    void testGameChangesAreAnnouncedAndSaved() throws InterruptedException {
+        GameManager game = new GameManager("PublishedPet", 0);
+        Recorder recorder = new Recorder();
+        game.getStatePublisher().subscribe(recorder);
+        recorder.subscription.request(Long.MAX_VALUE);
+        List<Runnable> saves = Collections.synchronizedList(new ArrayList<>());
+        Autosaver autosaver = Autosaver.start(game, saves::add);
+
+        game.getCurrentPet().setHealth(50);
+        game.getCurrentInventory().addItem(new Item("Treat", "Food", 5), 2);
+        game.getCurrentStatisticsTracker().setTotalStudyTime(90);
+        waitFor(() -> recorder.received.size() == 3 && !saves.isEmpty());
+        assertEquals(Source.PET, recorder.received.get(0).getSource());
+        assertEquals(Source.INVENTORY, recorder.received.get(1).getSource());
+        assertEquals(Source.STATISTICS, recorder.received.get(2).getSource());
+        assertEquals("PublishedPet", recorder.received.get(2).getPetName());
+
+        // One save is queued for the burst, and running it leaves nothing unsaved
+        assertEquals(1, saves.size());
+        assertTrue(game.isDirty());
+        saves.remove(0).run();
+        assertFalse(game.isDirty());
+
+        autosaver.stop();
+        game.close();
+        waitFor(() -> recorder.completed);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the changes");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import backend.StatisticsTracker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Testing for the timestamps of the StatisticsTracker class
+ */
+public class StatisticsTrackerTest {
+
+    private static final String FILE_NAME = "test_statistics_timestamps.csv";
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    private static final Instant NOON = Instant.parse("2024-11-22T12:00:00Z");
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(FILE_NAME));
+    }
+
+    /**
+     * Epoch milliseconds, legacy "AM"/"PM" text and ISO date-times all read as the same instant
+     */
+    @Test
+    void testParseTimestamp() {
+        long noon = NOON.toEpochMilli();
+        assertEquals(noon, StatisticsTracker.parseTimestamp(Long.toString(noon), ZONE));
+        assertEquals(noon, StatisticsTracker.parseTimestamp("2024-11-22 12:00 PM", ZONE));
+        assertEquals(noon, StatisticsTracker.parseTimestamp("2024-11-22 12:00 p.m.", ZONE));
+        assertEquals(noon, StatisticsTracker.parseTimestamp("2024-11-22T12:00:00", ZONE));
+        assertEquals(StatisticsTracker.UNKNOWN_TIME, StatisticsTracker.parseTimestamp("", ZONE));
+        assertThrows(DateTimeParseException.class, () -> StatisticsTracker.parseTimestamp("yesterday", ZONE));
+    }
+
+    /**
+     * Legacy rows are read once, written back as milliseconds and still displayed in the old format
+     */
+    @Test
+    void testLegacyRowIsRewrittenAsMillis() throws IOException {
+        Files.write(Paths.get(FILE_NAME), Arrays.asList(
+                "Name,LastStudySession,LastLogout,DayStart,DayEnd,TotalStudyTime",
+                "Buddy,2024-11-22 12:00 PM,2024-11-22 12:00 PM,2024-11-22 09:00 AM,2024-11-23 09:00 AM,60"));
+        Clock clock = Clock.fixed(NOON, ZONE);
+
+        StatisticsTracker tracker = new StatisticsTracker("Buddy", FILE_NAME, clock);
+        assertEquals(NOON.toEpochMilli(), tracker.getLastLogoutMillis());
+        tracker.setLastStudySession(NOON.plusSeconds(3600));
+        tracker.saveToFile(FILE_NAME);
+
+        List<String> lines = Files.readAllLines(Paths.get(FILE_NAME));
+        assertEquals("Buddy," + NOON.plusSeconds(3600).toEpochMilli() + "," + NOON.toEpochMilli() + ","
+                + NOON.minusSeconds(3 * 3600).toEpochMilli() + "," + NOON.plusSeconds(21 * 3600).toEpochMilli()
+                + ",60", lines.get(1));
+
+        StatisticsTracker reloaded = new StatisticsTracker("Buddy", FILE_NAME, clock);
+        assertEquals("2024-11-22 01:00 PM", reloaded.getLastStudySession());
+        assertEquals("2024-11-23 09:00 AM", reloaded.getDayEnd());
+    }
+
+    /**
+     * Display and legacy parsing do not depend on the default locale
+     */
+    @Test
+    void testFormattingIgnoresDefaultLocale() {
+        Locale original = Locale.getDefault();
+        try {
+            for (Locale locale : new Locale[] {Locale.US, Locale.CANADA, Locale.GERMANY}) {
+                Locale.setDefault(locale);
+                LocalDateTime evening = LocalDateTime.of(2024, 11, 22, 18, 5);
+                String formatted = StatisticsTracker.formatLocalDateTime(evening);
+                assertEquals("2024-11-22 06:05 PM", formatted);
+                assertEquals(evening, StatisticsTracker.formatStringToLocalDateTime(formatted));
+            }
+        } finally {
+            Locale.setDefault(original);
+        }
+        assertTrue(StatisticsTracker.parseTimestamp("2024-11-22 06:05 PM", ZONE) > NOON.toEpochMilli());
+    }
+}
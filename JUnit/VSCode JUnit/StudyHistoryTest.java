@@ -0,0 +1,110 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import backend.StudyHistory;
+import backend.StudyHistory.Bucket;
+import backend.StudyHistory.Period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Testing for the StudyHistory class
+ */
+public class StudyHistoryTest {
+
+    private static final String FILE = "test_study_history.log";
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(FILE));
+    }
+
+    /**
+     * Sessions land in the day, Monday-based week and month they started in, and survive a reload
+     */
+    @Test
+    void testTotals() {
+        StudyHistory history = new StudyHistory(FILE, ZONE);
+        record(history, LocalDate.of(2024, 11, 17), 25, false); // Sunday
+        record(history, LocalDate.of(2024, 11, 18), 25, false); // Monday
+        record(history, LocalDate.of(2024, 11, 18), 10, true);
+        record(history, LocalDate.of(2024, 11, 30), 40, false);
+        record(history, LocalDate.of(2024, 12, 2), 5, true);
+        history.close();
+
+        StudyHistory reloaded = new StudyHistory(FILE, ZONE);
+        Bucket monday = reloaded.getTotal(Period.DAY, LocalDate.of(2024, 11, 18));
+        assertEquals(35, monday.getMinutes());
+        assertEquals(2, monday.getSessions());
+        assertEquals(1, monday.getInterruptedSessions());
+        assertEquals(35, reloaded.getTotal(Period.WEEK, LocalDate.of(2024, 11, 20)).getMinutes());
+        assertEquals(25, reloaded.getTotal(Period.WEEK, LocalDate.of(2024, 11, 17)).getMinutes());
+        assertEquals(100, reloaded.getTotal(Period.MONTH, LocalDate.of(2024, 11, 1)).getMinutes());
+        assertEquals(0, reloaded.getTotal(Period.DAY, LocalDate.of(2024, 11, 19)).getMinutes());
+
+        List<Bucket> weeks = reloaded.getTotals(Period.WEEK, LocalDate.of(2024, 11, 13), LocalDate.of(2024, 12, 31));
+        assertEquals(List.of(LocalDate.of(2024, 11, 11), LocalDate.of(2024, 11, 18), LocalDate.of(2024, 11, 25),
+                LocalDate.of(2024, 12, 2)), weeks.stream().map(Bucket::getStart).toList());
+        assertEquals(5, reloaded.getEntries().size());
+        reloaded.close();
+    }
+
+    /**
+     * Compacting old sessions keeps every total while dropping their individual entries
+     */
+    @Test
+    void testCompactKeepsTotals() throws IOException {
+        StudyHistory history = new StudyHistory(FILE, ZONE);
+        for (int day = 1; day <= 30; day++) {
+            record(history, LocalDate.of(2024, 9, day), day, day % 7 == 0);
+            record(history, LocalDate.of(2024, 9, day), 1, false);
+        }
+        assertTrue(history.compact(LocalDate.of(2024, 9, 21)));
+        assertEquals(20, history.getEntries().size());
+        assertEquals(465 + 30, history.getTotal(Period.MONTH, LocalDate.of(2024, 9, 1)).getMinutes());
+        history.close();
+
+        // 20 day totals and 20 remaining sessions
+        assertEquals(40, Files.readAllLines(Paths.get(FILE)).size());
+        StudyHistory reloaded = new StudyHistory(FILE, ZONE);
+        assertEquals(465 + 30, reloaded.getTotal(Period.MONTH, LocalDate.of(2024, 9, 1)).getMinutes());
+        assertEquals(60, reloaded.getTotal(Period.MONTH, LocalDate.of(2024, 9, 1)).getSessions());
+        assertEquals(4, reloaded.getTotal(Period.MONTH, LocalDate.of(2024, 9, 1)).getInterruptedSessions());
+        assertEquals(15, reloaded.getTotal(Period.DAY, LocalDate.of(2024, 9, 14)).getMinutes());
+
+        record(reloaded, LocalDate.of(2024, 10, 1), 30, false);
+        assertEquals(30, reloaded.getTotal(Period.MONTH, LocalDate.of(2024, 10, 15)).getMinutes());
+        reloaded.close();
+    }
+
+    /**
+     * Pet names become file names that stay in the data directory and never collide
+     */
+    @Test
+    void testFileNames() {
+        assertEquals("study_history_buddy_2-x.log", StudyHistory.fileName("Buddy_2-X"));
+        assertEquals("study_history_%2E%2E%2Fetc%2Fpasswd.log", StudyHistory.fileName("../etc/passwd"));
+        assertEquals("study_history_a%5Cb%3Ac%20d.log", StudyHistory.fileName("a\\b:c d"));
+        assertEquals("study_history_z%C3%B6e.log", StudyHistory.fileName("Z\u00f6e"));
+        assertNotEquals(StudyHistory.fileName("a b"), StudyHistory.fileName("a_b"));
+    }
+
+    private static void record(StudyHistory history, LocalDate day, int minutes, boolean interrupted) {
+        Instant start = day.atTime(16, 0).atZone(ZONE).toInstant();
+        history.record(start, start.plusSeconds(60L * minutes), minutes, interrupted);
+    }
+}
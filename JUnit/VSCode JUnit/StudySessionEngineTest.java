@@ -0,0 +1,130 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.Test;
+
+import backend.SimulatedClock;
+import backend.StudySessionEngine;
+import backend.StudySessionEngine.Phase;
+import backend.StudySessionEngine.StudySession;
+import backend.TimingWheel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Testing for the StudySessionEngine class
+ */
+public class StudySessionEngineTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 11, 20, 9, 30);
+
+    /**
+     * A session goes from study to break to completed, with its remaining time counting down
+     */
+    @Test
+    void testSessionRunsThroughPhases() {
+        SimulatedClock clock = new SimulatedClock(START);
+        TimingWheel wheel = new TimingWheel(clock, Duration.ofMillis(100));
+        StudySessionEngine engine = new StudySessionEngine(wheel);
+        List<String> changes = new ArrayList<>();
+        StudySession session = engine.start(Duration.ofMinutes(25), Duration.ofMinutes(5),
+                (s, previous, phase) -> changes.add(previous + "->" + phase));
+
+        assertEquals(Phase.STUDY, session.getPhase());
+        assertEquals(Duration.ofMinutes(25), session.getRemaining());
+        assertEquals(1, engine.activeSessions());
+
+        clock.advance(Duration.ofMinutes(10));
+        wheel.advance();
+        assertEquals(Duration.ofMinutes(15), session.getRemaining());
+        assertEquals(Duration.ofMinutes(10), session.getStudied());
+
+        clock.advance(Duration.ofMinutes(15));
+        wheel.advance();
+        assertEquals(Phase.BREAK, session.getPhase());
+        assertEquals(Duration.ofMinutes(5), session.getRemaining());
+
+        clock.advance(Duration.ofMinutes(5));
+        wheel.advance();
+        assertEquals(Phase.COMPLETED, session.getPhase());
+        assertTrue(session.isFinished());
+        assertFalse(session.isInterrupted());
+        assertEquals(Duration.ofMinutes(25), session.getStudied());
+        assertEquals(List.of("STUDY->BREAK", "BREAK->COMPLETED"), changes);
+        assertEquals(0, engine.activeSessions());
+        assertEquals(0, wheel.pending());
+    }
+
+    /**
+     * Interrupting keeps the time studied so far and stops the session's timer
+     */
+    @Test
+    void testInterrupt() throws InterruptedException {
+        SimulatedClock clock = new SimulatedClock(START);
+        TimingWheel wheel = new TimingWheel(clock, Duration.ofMillis(100));
+        StudySessionEngine engine = new StudySessionEngine(wheel);
+        List<String> changes = new ArrayList<>();
+        StudySession session = engine.start(Duration.ofMinutes(25), Duration.ofMinutes(5),
+                (s, previous, phase) -> changes.add(previous + "->" + phase));
+
+        clock.advance(Duration.ofMinutes(12));
+        wheel.advance();
+        assertTrue(session.interrupt());
+        assertFalse(session.interrupt());
+        assertTrue(session.awaitFinish(Duration.ZERO));
+        assertTrue(session.isInterrupted());
+        assertEquals(Duration.ofMinutes(12), session.getStudied());
+        assertEquals(Duration.ZERO, session.getRemaining());
+        assertEquals(List.of("STUDY->INTERRUPTED"), changes);
+        assertNull(engine.getSession(session.getId()));
+        assertEquals(0, wheel.pending());
+    }
+
+    /**
+     * Ten thousand staggered sessions all run to the end on one wheel
+     */
+    @Test
+    void testManyConcurrentSessions() {
+        SimulatedClock clock = new SimulatedClock(START);
+        TimingWheel wheel = new TimingWheel(clock, Duration.ofSeconds(1));
+        StudySessionEngine engine = new StudySessionEngine(wheel);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger interrupted = new AtomicInteger();
+        List<StudySession> sessions = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            StudySession session = engine.start(Duration.ofMinutes(20 + i % 40), Duration.ofMinutes(i % 10),
+                    (s, previous, phase) -> {
+                        if (phase == Phase.COMPLETED) {
+                            completed.incrementAndGet();
+                        } else if (phase == Phase.INTERRUPTED) {
+                            interrupted.incrementAndGet();
+                        }
+                    });
+            sessions.add(session);
+            if (i % 100 == 0) {
+                clock.advance(Duration.ofSeconds(7));
+            }
+        }
+        for (int i = 0; i < sessions.size(); i += 5) {
+            sessions.get(i).interrupt();
+        }
+        assertEquals(8_000, engine.activeSessions());
+
+        for (int minute = 0; minute < 90; minute++) {
+            clock.advance(Duration.ofMinutes(1));
+            wheel.advance();
+        }
+        assertEquals(8_000, completed.get());
+        assertEquals(2_000, interrupted.get());
+        assertEquals(0, engine.activeSessions());
+        assertEquals(0, wheel.pending());
+    }
+}
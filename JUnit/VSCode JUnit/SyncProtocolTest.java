@@ -0,0 +1,97 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.Test;
+
+import backend.Pet;
+import backend.SyncProtocol;
+import backend.SyncProtocol.Field;
+import backend.SyncProtocol.Frame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Testing for the SyncProtocol class
+ */
+public class SyncProtocolTest {
+
+    /**
+     * Varints and zigzag encoding round-trip, and small values of either sign take one byte
+     */
+    @Test
+    void testVarints() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        int[] values = {0, 1, -1, 63, -64, 64, 300, -300, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (int value : values) {
+            SyncProtocol.putVarint(buffer, SyncProtocol.zigzag(value));
+        }
+        buffer.flip();
+        for (int value : values) {
+            assertEquals(value, SyncProtocol.unzigzag(SyncProtocol.getVarint(buffer)));
+        }
+        assertFalse(buffer.hasRemaining());
+
+        ByteBuffer small = ByteBuffer.allocate(8);
+        SyncProtocol.putVarint(small, SyncProtocol.zigzag(-5));
+        assertEquals(1, small.position());
+    }
+
+    /**
+     * A pet is sent whole once, then only the fields that changed are sent
+     */
+    @Test
+    void testTrackerSendsOnlyChanges() {
+        SyncProtocol.Tracker tracker = new SyncProtocol.Tracker();
+        Pet pet = new Pet("Buddy", 2, 50, 40);
+
+        Frame snapshot = SyncProtocol.decode(tracker.encodeChanges(pet));
+        assertEquals(SyncProtocol.SNAPSHOT, snapshot.getType());
+        assertEquals(100, snapshot.get(Field.HEALTH));
+        assertEquals(40, snapshot.get(Field.PLAY_EFFECTIVENESS));
+        assertNull(tracker.encodeChanges(pet));
+
+        pet.setHappiness(95);
+        pet.setSleep(103);
+        ByteBuffer bytes = tracker.encodeChanges(pet);
+        assertEquals(11, bytes.remaining()); // Prefix, type, name, mask and two one-byte changes
+        Frame delta = SyncProtocol.decode(bytes);
+        assertEquals(SyncProtocol.DELTA, delta.getType());
+        assertTrue(delta.has(Field.HAPPINESS));
+        assertTrue(delta.has(Field.SLEEP));
+        assertFalse(delta.has(Field.HEALTH));
+        assertEquals(-5, delta.get(Field.HAPPINESS));
+        assertEquals(3, delta.get(Field.SLEEP));
+        assertNull(tracker.encodeChanges(pet));
+
+        Pet copy = snapshot.applyTo(null);
+        delta.applyTo(copy);
+        assertEquals(2, copy.getPetType());
+        assertEquals(95, copy.getHappiness());
+        assertEquals(103, copy.getSleep());
+        assertEquals(50, copy.getSleepEffectiveness());
+    }
+
+    /**
+     * Frames are only reported complete once all their bytes have arrived, and oversized frames are refused
+     */
+    @Test
+    void testFraming() {
+        ByteBuffer frame = SyncProtocol.encodeSnapshot(new Pet("Max", 0, 50, 50));
+        int length = frame.remaining();
+        ByteBuffer partial = ByteBuffer.allocate(length);
+        partial.put(frame.duplicate().limit(length - 1)).flip();
+        assertEquals(-1, SyncProtocol.completeFrameLength(partial));
+        assertEquals(0, partial.position());
+        assertEquals(length, SyncProtocol.completeFrameLength(frame));
+
+        ByteBuffer huge = ByteBuffer.allocate(8);
+        SyncProtocol.putVarint(huge, SyncProtocol.MAX_PAYLOAD + 1);
+        huge.flip();
+        assertThrows(IllegalArgumentException.class, () -> SyncProtocol.completeFrameLength(huge));
+    }
+}
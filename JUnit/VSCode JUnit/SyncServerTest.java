@@ -0,0 +1,123 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import backend.Pet;
+import backend.SyncClient;
+import backend.SyncServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Testing for the SyncServer and SyncClient classes, on localhost
+ */
+public class SyncServerTest {
+
+    private SyncServer server;
+    private final List<SyncClient> clients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new SyncServer(0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (SyncClient client : clients) {
+            client.close();
+        }
+        server.stop();
+    }
+
+    /**
+     * Changes pushed by one client reach the hub and the other clients, but are not echoed back
+     */
+    @Test
+    void testChangesFanOut() throws Exception {
+        Pet buddy = new Pet("Buddy", 1, 50, 50);
+        SyncClient alice = connect((copy, frame) -> {
+            synchronized (buddy) {
+                frame.applyTo(buddy);
+            }
+        });
+        SyncClient bob = connect();
+
+        assertTrue(alice.push(buddy));
+        await(() -> bob.getPet("buddy") != null);
+        assertEquals(1, bob.getPet("Buddy").getPetType());
+
+        buddy.setHealth(80);
+        buddy.setPetScore(10);
+        assertTrue(alice.push(buddy));
+        assertFalse(alice.push(buddy)); // Nothing changed since
+        await(() -> bob.getPet("Buddy").getHealth() == 80);
+        assertEquals(10, bob.getPet("Buddy").getPetScore());
+        assertEquals(80, server.getPet("BUDDY").getHealth());
+
+        // Bob changes his own pet, and Alice's listener applies the change to hers
+        Pet bobsBuddy = new Pet("Buddy", 1, 50, 50);
+        bobsBuddy.setHealth(80);
+        bobsBuddy.setPetScore(10);
+        bobsBuddy.setFullness(70);
+        assertTrue(bob.push(bobsBuddy));
+        await(() -> {
+            synchronized (buddy) {
+                return buddy.getFullness() == 70;
+            }
+        });
+        assertNotSame(buddy, alice.getPet("Buddy"));
+        assertEquals(70, alice.getPet("Buddy").getFullness());
+        synchronized (buddy) {
+            assertFalse(alice.push(buddy)); // Received changes are not pushed back
+            assertEquals(80, buddy.getHealth());
+        }
+    }
+
+    /**
+     * A client that joins later starts from the hub's current state
+     */
+    @Test
+    void testLateJoinerGetsSnapshots() throws Exception {
+        SyncClient alice = connect();
+        Pet max = new Pet("Max", 0, 50, 50);
+        alice.push(max);
+        for (int i = 0; i < 30; i++) {
+            max.setSleep(max.getSleep() - 1);
+            alice.push(max);
+        }
+        await(() -> server.getPet("Max") != null && server.getPet("Max").getSleep() == 70);
+
+        SyncClient carol = connect();
+        await(() -> carol.getPet("Max") != null);
+        assertEquals(70, carol.getPet("Max").getSleep());
+    }
+
+    private SyncClient connect() throws IOException {
+        return connect(null);
+    }
+
+    private SyncClient connect(SyncClient.Listener listener) throws IOException {
+        SyncClient client = SyncClient.connect("localhost", server.getPort(), listener);
+        clients.add(client);
+        return client;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the sync");
+            Thread.sleep(5);
+        }
+    }
+}
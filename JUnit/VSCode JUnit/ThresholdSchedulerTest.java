@@ -0,0 +1,131 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.Test;
+
+import backend.DecayEngine;
+import backend.Pet;
+import backend.SimulatedClock;
+import backend.ThresholdScheduler;
+import backend.ThresholdScheduler.Threshold;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Testing for the ThresholdScheduler class
+ */
+public class ThresholdSchedulerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 11, 20, 9, 30);
+
+    /**
+     * The next threshold is the nearest of sleep and fullness reaching 25 or 0
+     */
+    @Test
+    void testHoursUntilNextThreshold() {
+        assertEquals(40, ThresholdScheduler.hoursUntilNextThreshold(100, 65));
+        assertEquals(5, ThresholdScheduler.hoursUntilNextThreshold(30, 100));
+        assertEquals(20, ThresholdScheduler.hoursUntilNextThreshold(20, 0));
+        assertEquals(-1, ThresholdScheduler.hoursUntilNextThreshold(0, -3));
+    }
+
+    /**
+     * Catching up decays the pet like the DecayEngine and reports each crossing once
+     */
+    @Test
+    void testCatchUpDecaysAndNotifies() {
+        SimulatedClock clock = new SimulatedClock(START);
+        ThresholdScheduler scheduler = new ThresholdScheduler(clock);
+        List<Threshold> crossed = new ArrayList<>();
+        scheduler.addListener((pet, threshold) -> crossed.add(threshold));
+        try {
+            Pet pet = new Pet("Buddy", 0, 10, 10);
+            pet.setFullness(30);
+            Pet expected = new Pet("Buddy", 0, 10, 10);
+            expected.setFullness(30);
+            scheduler.track(pet);
+            assertEquals(START.withMinute(0).plusHours(5), scheduler.nextThresholdTime(pet));
+
+            clock.advance(Duration.ofMinutes(20));
+            assertEquals(0, scheduler.catchUp(pet));
+            assertEquals(List.of(), crossed);
+
+            clock.advance(Duration.ofHours(5));
+            assertEquals(5, scheduler.catchUp(pet));
+            DecayEngine.advance(expected, 5);
+            assertEquals(expected.toString(), pet.toString());
+            assertEquals(List.of(Threshold.FULLNESS_LOW), crossed);
+            assertEquals(START.withMinute(0).plusHours(30), scheduler.nextThresholdTime(pet));
+
+            clock.advance(Duration.ofDays(4));
+            assertEquals(96, scheduler.catchUp(pet));
+            DecayEngine.advance(expected, 96);
+            assertEquals(expected.toString(), pet.toString());
+            assertEquals(List.of(Threshold.FULLNESS_LOW, Threshold.SLEEP_LOW,
+                    Threshold.SLEEP_EMPTY, Threshold.FULLNESS_EMPTY), crossed);
+            assertNull(scheduler.nextThresholdTime(pet));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * An update applies the decay that is due before the change, so the change is not decayed or overwritten,
+     * and the next threshold follows the changed stats
+     */
+    @Test
+    void testUpdateAppliesDecayThenChange() {
+        SimulatedClock clock = new SimulatedClock(START);
+        ThresholdScheduler scheduler = new ThresholdScheduler(clock);
+        try {
+            Pet pet = new Pet("Buddy", 0, 10, 10);
+            scheduler.track(pet);
+            clock.advance(Duration.ofHours(80));
+
+            assertEquals(80, scheduler.update(pet, () -> pet.setSleep(100)));
+            assertEquals(100, pet.getSleep());
+            assertEquals(20, pet.getFullness());
+            assertEquals(START.withMinute(0).plusHours(100), scheduler.nextThresholdTime(pet));
+            assertEquals(0, scheduler.update(pet, null));
+            assertEquals(100, pet.getSleep());
+
+            Pet untracked = new Pet("Max", 0, 10, 10);
+            assertEquals(0, scheduler.update(untracked, () -> untracked.setHealth(5)));
+            assertEquals(5, untracked.getHealth());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Changing a pet and rescheduling moves its next threshold
+     */
+    @Test
+    void testRescheduleAfterChange() {
+        SimulatedClock clock = new SimulatedClock(START);
+        ThresholdScheduler scheduler = new ThresholdScheduler(clock);
+        try {
+            Pet pet = new Pet("Max", 1, 10, 10);
+            pet.setSleep(27);
+            scheduler.track(pet);
+            assertEquals(START.withMinute(0).plusHours(2), scheduler.nextThresholdTime(pet));
+
+            clock.advance(Duration.ofHours(1));
+            scheduler.catchUp(pet);
+            pet.setSleep(100);
+            scheduler.reschedule(pet);
+            assertEquals(START.withMinute(0).plusHours(1 + 74), scheduler.nextThresholdTime(pet));
+
+            scheduler.untrack(pet);
+            assertNull(scheduler.nextThresholdTime(pet));
+            assertEquals(0, scheduler.catchUp(pet));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package JUnit.JUnitTests.src.test.java.com.mycompany.junittests;
+
+import org.junit.jupiter.api.Test;
+
+import backend.SimulatedClock;
+import backend.TimingWheel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Testing for the TimingWheel class
+ */
+public class TimingWheelTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 11, 20, 9, 30);
+
+    /**
+     * Every timer runs on the first tick at or after its deadline, never before, across all wheel levels
+     */
+    @Test
+    void testTimersRunAtTheirDeadline() {
+        SimulatedClock clock = new SimulatedClock(START);
+        TimingWheel wheel = new TimingWheel(clock, Duration.ofMillis(10));
+        Random random = new Random(7);
+        long[] delays = new long[20_000];
+        Instant[] firedAt = new Instant[delays.length];
+        for (int i = 0; i < delays.length; i++) {
+            // Mix of delays from the first wheel up to several days away
+            delays[i] = random.nextInt(4) == 0 ? random.nextInt(2000) : (long) (random.nextDouble() * 300_000_000L);
+            int timer = i;
+            wheel.schedule(() -> firedAt[timer] = clock.instant(), Duration.ofMillis(delays[i]));
+        }
+        Instant start = clock.instant();
+        assertEquals(delays.length, wheel.pending());
+
+        int fired = 0;
+        while (wheel.pending() > 0) {
+            clock.advance(Duration.ofMillis(random.nextInt(5) == 0 ? 3_600_000 : 7));
+            fired += wheel.advance();
+        }
+        assertEquals(delays.length, fired);
+        for (int i = 0; i < delays.length; i++) {
+            Instant deadline = start.plusMillis(delays[i]);
+            assertFalse(firedAt[i].isBefore(deadline), "timer " + i + " fired early");
+        }
+    }
+
+    /**
+     * With the clock moving one tick at a time, timers run within one tick of their deadline
+     */
+    @Test
+    void testTimersRunWithinOneTick() {
+        SimulatedClock clock = new SimulatedClock(START);
+        TimingWheel wheel = new TimingWheel(clock, Duration.ofMillis(10));
+        long[] delays = {0, 5, 10, 11, 639, 640, 641, 40_960, 40_961, 2_621_440};
+        List<Long> late = new ArrayList<>();
+        Instant start = clock.instant();
+        for (long delay : delays) {
+            wheel.schedule(() -> late.add(clock.millis() - start.plusMillis(delay).toEpochMilli()),
+                    Duration.ofMillis(delay));
+        }
+        while (wheel.pending() > 0) {
+            clock.advance(Duration.ofMillis(10));
+            wheel.advance();
+        }
+        assertEquals(delays.length, late.size());
+        for (long lateness : late) {
+            assertTrue(lateness >= 0 && lateness <= 10, "ran " + lateness + " ms late");
+        }
+    }
+
+    /**
+     * Cancelled timers never run and no longer count as pending
+     */
+    @Test
+    void testCancel() {
+        SimulatedClock clock = new SimulatedClock(START);
+        TimingWheel wheel = new TimingWheel(clock, Duration.ofSeconds(1));
+        List<String> ran = new ArrayList<>();
+        TimingWheel.Timeout studyEnd = wheel.schedule(() -> ran.add("study"), Duration.ofMinutes(25));
+        TimingWheel.Timeout breakEnd = wheel.schedule(() -> ran.add("break"), Duration.ofMinutes(30));
+
+        assertTrue(studyEnd.cancel());
+        assertFalse(studyEnd.cancel());
+        assertTrue(studyEnd.isCancelled());
+        assertEquals(1, wheel.pending());
+
+        clock.advance(Duration.ofHours(1));
+        assertEquals(1, wheel.advance());
+        assertEquals(List.of("break"), ran);
+        assertTrue(breakEnd.isExpired());
+        assertFalse(breakEnd.cancel());
+        assertEquals(0, wheel.pending());
+    }
+
+    /**
+     * The driver thread runs due timers without anyone calling advance
+     */
+    @Test
+    void testDriverThread() throws InterruptedException {
+        TimingWheel wheel = new TimingWheel(java.time.Clock.systemDefaultZone(), Duration.ofMillis(5));
+        wheel.start();
+        try {
+            CountDownLatch latch = new CountDownLatch(2);
+            wheel.schedule(latch::countDown, Duration.ofMillis(20));
+            wheel.schedule(latch::countDown, Duration.ofMillis(50));
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            wheel.shutdown();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package backend;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+/**
+ * The {@code Autosaver} class saves a game whenever its {@link StatePublisher} announces a change, so screens
+ * no longer need to save after every action. It takes one change at a time: changes made while a save is
+ * being queued collapse into one more save, and the {@link SaveQueue} merges those into a single write.
+ */
+public class Autosaver implements Flow.Subscriber<StatePublisher.Change> {
+    private final GameManager game; // The game to save
+    private final Executor executor; // Runs the saves on the thread that changes the game
+    private volatile Flow.Subscription subscription; // The subscription to the game's changes
+
+    /**
+     * Constructs an {@code Autosaver}. Subscribe it to the game's publisher to start saving.
+     *
+     * @param game     The game to save.
+     * @param executor Runs the saves, e.g. {@code SwingUtilities::invokeLater} so the game is only read on the
+     *                 thread that changes it.
+     */
+    public Autosaver(GameManager game, Executor executor) {
+        this.game = game;
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribes a new autosaver to a game's changes.
+     *
+     * @param game     The game to save.
+     * @param executor Runs the saves on the thread that changes the game.
+     * @return The autosaver.
+     */
+    public static Autosaver start(GameManager game, Executor executor) {
+        Autosaver autosaver = new Autosaver(game, executor);
+        game.getStatePublisher().subscribe(autosaver);
+        return autosaver;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(StatePublisher.Change change) {
+        executor.execute(() -> {
+            try {
+                if (game.isDirty()) {
+                    game.saveGameAsync();
+                }
+            } finally {
+                subscription.request(1);
+            }
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        System.err.println("Autosave stopped: " + throwable.getMessage());
+    }
+
+    @Override
+    public void onComplete() {
+        // The game was closed, and saving it is up to whoever closed it
+    }
+
+    /**
+     * Stops saving the game on changes.
+     */
+    public void stop() {
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package backend;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * The {@code CsvTokenizer} class splits CSV records into fields in a single pass, handling commas inside
+ * quoted fields and doubled quotes ({@code ""}) inside them. It is shared by every loader and saver of the
+ * game's CSV files.
+ *
+ * The tokenizer reuses its buffers from record to record. Fields are returned as {@link CharSequence} views
+ * into those buffers, with surrounding whitespace and quotes removed, and numbers are parsed straight from
+ * the buffer, so reading a record does not create a {@code String} per field. Views are only valid until
+ * the next record is read; call {@link #string(int)} to keep a field.
+ */
+public class CsvTokenizer {
+    private static final int CHUNK_SIZE = 8192; // Characters read from the reader at a time
+
+    private final Reader reader; // Source of records for next(), or null when records are passed to reset()
+    private final char[] chunk; // Characters read ahead from the reader
+    private int chunkPosition; // Next unread character in the chunk
+    private int chunkLimit; // Number of valid characters in the chunk
+
+    private char[] line = new char[256]; // The raw characters of the current record
+    private int lineLength; // Number of characters in the current record
+    private char[] fields = new char[256]; // The unquoted characters of all fields of the current record
+    private int[] starts = new int[16]; // Start of each field in the fields buffer
+    private int[] ends = new int[16]; // End of each field in the fields buffer
+    private int fieldCount; // Number of fields in the current record
+    private FieldView[] views = new FieldView[0]; // Reusable views over the fields
+
+    /**
+     * Constructs a {@code CsvTokenizer} for records passed one at a time to {@link #reset(CharSequence)}.
+     */
+    public CsvTokenizer() {
+        this(null);
+    }
+
+    /**
+     * Constructs a {@code CsvTokenizer} that reads one record per line from the given reader.
+     *
+     * @param reader The reader to read records from.
+     */
+    public CsvTokenizer(Reader reader) {
+        this.reader = reader;
+        this.chunk = reader == null ? null : new char[CHUNK_SIZE];
+    }
+
+    /**
+     * Reads and splits the next line of the reader.
+     *
+     * @return {@code true} if a record was read, {@code false} at the end of the input.
+     * @throws IOException if the reader fails.
+     */
+    public boolean next() throws IOException {
+        if (reader == null) {
+            throw new IllegalStateException("This tokenizer has no reader");
+        }
+        lineLength = 0;
+        boolean readAny = false;
+        while (true) {
+            if (chunkPosition == chunkLimit) {
+                chunkLimit = reader.read(chunk, 0, chunk.length);
+                chunkPosition = 0;
+                if (chunkLimit <= 0) {
+                    chunkLimit = 0;
+                    if (!readAny) {
+                        return false;
+                    }
+                    break;
+                }
+            }
+            char ch = chunk[chunkPosition++];
+            readAny = true;
+            if (ch == '\n') {
+                break;
+            }
+            appendToLine(ch);
+        }
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        split();
+        return true;
+    }
+
+    /**
+     * Splits the given record, replacing the current one.
+     *
+     * @param record The record to split, without its line separator.
+     * @return This tokenizer.
+     */
+    public CsvTokenizer reset(CharSequence record) {
+        lineLength = 0;
+        for (int i = 0; i < record.length(); i++) {
+            appendToLine(record.charAt(i));
+        }
+        split();
+        return this;
+    }
+
+    /**
+     * Retrieves the number of fields in the current record. An empty record has one empty field.
+     *
+     * @return The number of fields.
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Checks whether the current record contains only whitespace.
+     *
+     * @return {@code true} if the record is blank.
+     */
+    public boolean isBlank() {
+        for (int i = 0; i < lineLength; i++) {
+            if (!Character.isWhitespace(line[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves a field of the current record as a view that is valid until the next record is read.
+     *
+     * @param index The index of the field.
+     * @return The field, without surrounding whitespace and quotes.
+     * @throws IndexOutOfBoundsException if the record has no such field.
+     */
+    public CharSequence field(int index) {
+        checkIndex(index);
+        return views[index];
+    }
+
+    /**
+     * Retrieves a field of the current record as a new string.
+     *
+     * @param index The index of the field.
+     * @return The field, without surrounding whitespace and quotes.
+     * @throws IndexOutOfBoundsException if the record has no such field.
+     */
+    public String string(int index) {
+        checkIndex(index);
+        return new String(fields, starts[index], ends[index] - starts[index]);
+    }
+
+    /**
+     * Parses a field of the current record as a decimal integer, directly from the buffer.
+     *
+     * @param index The index of the field.
+     * @return The parsed value.
+     * @throws NumberFormatException if the field is not a valid integer.
+     * @throws IndexOutOfBoundsException if the record has no such field.
+     */
+    public int intField(int index) {
+        checkIndex(index);
+        int position = starts[index];
+        int end = ends[index];
+        if (position == end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+
+        boolean negative = fields[position] == '-';
+        if (negative || fields[position] == '+') {
+            position++;
+            if (position == end) {
+                throw new NumberFormatException("For input string: \"" + string(index) + "\"");
+            }
+        }
+
+        // Accumulate negatively so Integer.MIN_VALUE can be parsed without overflow
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        while (position < end) {
+            int digit = fields[position++] - '0';
+            if (digit < 0 || digit > 9 || result < limit / 10 || result * 10 < limit + digit) {
+                throw new NumberFormatException("For input string: \"" + string(index) + "\"");
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Compares a field of the current record with a string, ignoring case, without copying the field.
+     *
+     * @param index The index of the field.
+     * @param value The string to compare with.
+     * @return {@code true} if the field equals the string, ignoring case.
+     */
+    public boolean fieldEqualsIgnoreCase(int index, String value) {
+        if (index >= fieldCount) {
+            return false;
+        }
+        int length = ends[index] - starts[index];
+        if (value == null || length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char a = fields[starts[index] + i];
+            char b = value.charAt(i);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)
+                    && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the raw text of the current record.
+     *
+     * @return The record as it was read, without its line separator.
+     */
+    public String line() {
+        return new String(line, 0, lineLength);
+    }
+
+    /**
+     * Splits the raw record into unquoted, trimmed fields.
+     */
+    private void split() {
+        if (fields.length < lineLength) {
+            fields = new char[Math.max(lineLength, fields.length * 2)];
+        }
+        fieldCount = 0;
+        int out = 0;
+        int fieldStart = 0;
+        boolean inQuotes = false;
+
+        for (int i = 0; i < lineLength; i++) {
+            char ch = line[i];
+            if (ch == '"') {
+                if (inQuotes && i + 1 < lineLength && line[i + 1] == '"') {
+                    fields[out++] = '"'; // A doubled quote inside a quoted field
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (ch == ',' && !inQuotes) {
+                addField(fieldStart, out);
+                fieldStart = out;
+            } else {
+                fields[out++] = ch;
+            }
+        }
+        addField(fieldStart, out);
+    }
+
+    private void addField(int start, int end) {
+        while (start < end && Character.isWhitespace(fields[start])) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(fields[end - 1])) {
+            end--;
+        }
+        if (fieldCount == starts.length) {
+            int[] grownStarts = new int[starts.length * 2];
+            int[] grownEnds = new int[ends.length * 2];
+            System.arraycopy(starts, 0, grownStarts, 0, fieldCount);
+            System.arraycopy(ends, 0, grownEnds, 0, fieldCount);
+            starts = grownStarts;
+            ends = grownEnds;
+        }
+        if (fieldCount == views.length) {
+            FieldView[] grown = new FieldView[Math.max(16, views.length * 2)];
+            System.arraycopy(views, 0, grown, 0, views.length);
+            for (int i = views.length; i < grown.length; i++) {
+                grown[i] = new FieldView(i);
+            }
+            views = grown;
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private void appendToLine(char ch) {
+        if (lineLength == line.length) {
+            char[] grown = new char[line.length * 2];
+            System.arraycopy(line, 0, grown, 0, lineLength);
+            line = grown;
+        }
+        line[lineLength++] = ch;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " out of bounds for " + fieldCount + " fields");
+        }
+    }
+
+    /**
+     * A reusable view of one field of the current record.
+     */
+    private class FieldView implements CharSequence {
+        private final int index; // The field this view shows
+
+        FieldView(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int length() {
+            return ends[index] - starts[index];
+        }
+
+        @Override
+        public char charAt(int i) {
+            if (i < 0 || i >= length()) {
+                throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + length());
+            }
+            return fields[starts[index] + i];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(fields, starts[index], length());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package backend;
+
+/**
+ * The {@code DecayEngine} class applies the hourly decay rules to a pet for any number of hours at once.
+ *
+ * Every hour, sleep and fullness drop by 1 (not below 0). Before they drop, happiness loses 1 point for each
+ * of sleep and fullness that is at or below 25, and health loses 1 point for each of them that is at 0;
+ * neither goes below 0. Because sleep and fullness fall by exactly one point per hour, the number of hours
+ * each of them spends at or below a threshold can be computed directly, so advancing a pet by any number of
+ * hours costs O(1) and gives exactly the same result as applying the rules hour by hour.
+ *
+ * One tick is one hour. Login catch-up, the hourly in-game update and the next-day demo all go through
+ * {@link #advance(Pet, long)}; the primitive {@code decay*} methods apply the same rules to plain stat values.
+ */
+public final class DecayEngine {
+    /** Sleep or fullness at or below this level makes the pet lose happiness */
+    public static final int LOW_THRESHOLD = 25;
+    /** Sleep or fullness at this level makes the pet lose health */
+    public static final int EMPTY_THRESHOLD = 0;
+
+    private DecayEngine() {
+    }
+
+    /**
+     * Advances the pet by the given number of ticks, reading and writing each stat once.
+     *
+     * @param pet   The pet to decay.
+     * @param hours The number of elapsed ticks (hours); zero or less leaves the pet unchanged.
+     */
+    public static void advance(Pet pet, long hours) {
+        if (hours <= 0) {
+            return;
+        }
+        int sleep = pet.getSleep();
+        int fullness = pet.getFullness();
+
+        pet.setHappiness(decayHappiness(pet.getHappiness(), sleep, fullness, hours));
+        pet.setHealth(decayHealth(pet.getHealth(), sleep, fullness, hours));
+        pet.setSleep(decayLevel(sleep, hours));
+        pet.setFullness(decayLevel(fullness, hours));
+    }
+
+    /**
+     * Computes happiness after the given number of hours.
+     *
+     * @param happiness The current happiness.
+     * @param sleep     The current sleep level.
+     * @param fullness  The current fullness.
+     * @param hours     The number of elapsed hours.
+     * @return The happiness after the hours have passed.
+     */
+    public static int decayHappiness(int happiness, int sleep, int fullness, long hours) {
+        long loss = hoursAtOrBelow(sleep, LOW_THRESHOLD, hours) + hoursAtOrBelow(fullness, LOW_THRESHOLD, hours);
+        return applyLoss(happiness, loss);
+    }
+
+    /**
+     * Computes health after the given number of hours.
+     *
+     * @param health   The current health.
+     * @param sleep    The current sleep level.
+     * @param fullness The current fullness.
+     * @param hours    The number of elapsed hours.
+     * @return The health after the hours have passed.
+     */
+    public static int decayHealth(int health, int sleep, int fullness, long hours) {
+        long loss = hoursAtZero(sleep, hours) + hoursAtZero(fullness, hours);
+        return applyLoss(health, loss);
+    }
+
+    /**
+     * Computes a sleep or fullness level after the given number of hours.
+     *
+     * @param level The current level.
+     * @param hours The number of elapsed hours.
+     * @return The level after the hours have passed.
+     */
+    public static int decayLevel(int level, long hours) {
+        if (hours <= 0) {
+            return level;
+        }
+        return (int) Math.max(0, level - hours);
+    }
+
+    /**
+     * Counts the hours, out of the next {@code hours}, that start with the level at or below the threshold.
+     * The level is checked before each hourly drop, so the first hour sees the current level.
+     */
+    static long hoursAtOrBelow(int level, int threshold, long hours) {
+        if (hours <= 0) {
+            return 0;
+        }
+        if (level <= threshold) {
+            return hours;
+        }
+        return Math.max(0, hours - (level - threshold));
+    }
+
+    /**
+     * Counts the hours, out of the next {@code hours}, that start with the level at exactly zero.
+     * A negative level is clamped to zero after the first hour.
+     */
+    static long hoursAtZero(int level, long hours) {
+        if (hours <= 0) {
+            return 0;
+        }
+        if (level == EMPTY_THRESHOLD) {
+            return hours;
+        }
+        if (level < EMPTY_THRESHOLD) {
+            return hours - 1;
+        }
+        return Math.max(0, hours - level);
+    }
+
+    /**
+     * Applies a total loss the same way the hourly rules do: a stat that loses points never drops below 0,
+     * and a stat that loses nothing keeps its value.
+     */
+    private static int applyLoss(int value, long loss) {
+        if (loss == 0) {
+            return value;
+        }
+        return (int) Math.max(0, value - loss);
+    }
+}
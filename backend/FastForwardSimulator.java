@@ -0,0 +1,116 @@
+package backend;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * The {@code FastForwardSimulator} class moves a {@link SimulatedClock} forward and applies the decay that
+ * would have happened in the meantime, to one pet or to a whole {@link PetStatStore} roster. A pet loses one
+ * hour of decay for every hour boundary the clock crosses, as it does when the game checks it every hour.
+ * Hours are counted on the instant timeline, like the decay applied at login and by the {@link RosterDecayJob},
+ * so a daylight saving change does not add or skip an hour of decay.
+ *
+ * Jumping ahead uses the closed-form {@link DecayEngine}, so months of virtual time cost the same as one hour.
+ * {@link #stepHourly(PetStatStore, long)} instead applies the decay one tick at a time, which is useful as a
+ * regression benchmark for the per-tick path.
+ */
+public class FastForwardSimulator {
+    private static final long HOUR_MILLIS = Duration.ofHours(1).toMillis(); // Milliseconds in an hour
+
+    private final SimulatedClock clock; // The clock the simulation moves forward
+
+    /**
+     * Constructs a {@code FastForwardSimulator} driving the given clock.
+     *
+     * @param clock The simulated clock, usually also given to the {@link GameManager} being simulated.
+     */
+    public FastForwardSimulator(SimulatedClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Retrieves the clock the simulation moves forward.
+     *
+     * @return The simulated clock.
+     */
+    public SimulatedClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Moves the clock forward and decays the pet for every hour boundary crossed.
+     *
+     * @param pet      The pet to decay.
+     * @param duration How far to move the clock.
+     * @return The number of hours of decay applied.
+     */
+    public long advance(Pet pet, Duration duration) {
+        long hours = moveClock(duration);
+        DecayEngine.advance(pet, hours);
+        return hours;
+    }
+
+    /**
+     * Moves the clock forward and decays every pet of the roster for every hour boundary crossed.
+     *
+     * @param roster   The roster to decay.
+     * @param duration How far to move the clock.
+     * @return The number of hours of decay applied.
+     */
+    public long advance(PetStatStore roster, Duration duration) {
+        long hours = moveClock(duration);
+        roster.advanceAll(hours);
+        return hours;
+    }
+
+    /**
+     * Moves the clock forward one hour at a time, decaying the roster by one tick per hour.
+     *
+     * @param roster The roster to decay.
+     * @param hours  The number of hours to simulate.
+     */
+    public void stepHourly(PetStatStore roster, long hours) {
+        for (long hour = 0; hour < hours; hour++) {
+            roster.advanceAll(moveClock(Duration.ofHours(1)));
+        }
+    }
+
+    /**
+     * Moves the clock and counts the hour boundaries between the old and new instant.
+     */
+    private long moveClock(Duration duration) {
+        long before = clock.millis();
+        long after = clock.advance(duration).toEpochMilli();
+        return Math.max(0, Math.floorDiv(after, HOUR_MILLIS) - Math.floorDiv(before, HOUR_MILLIS));
+    }
+
+    /**
+     * Measures simulated pet-hours per second on a generated roster.
+     *
+     * @param args Optionally the number of pets and the number of simulated days, in that order.
+     */
+    public static void main(String[] args) {
+        int pets = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 180;
+        long hours = days * 24L;
+
+        PetStatStore roster = new PetStatStore(pets);
+        for (int i = 0; i < pets; i++) {
+            roster.add("Pet" + i, i % 3, 0, 100, 100 - i % 100, 100 - i % 77, 100, 10, 10);
+        }
+        FastForwardSimulator simulator = new FastForwardSimulator(new SimulatedClock(LocalDateTime.now()));
+
+        long start = System.nanoTime();
+        simulator.stepHourly(roster, hours);
+        report("Hour by hour", pets, hours, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        simulator.advance(roster, Duration.ofHours(hours));
+        report("Single jump", pets, hours, System.nanoTime() - start);
+    }
+
+    private static void report(String mode, int pets, long hours, long nanos) {
+        double petHoursPerSecond = (double) pets * hours * 1_000_000_000.0 / Math.max(1, nanos);
+        System.out.printf("%s: %d pets x %d hours in %.1f ms (%.3g simulated pet-hours/s)%n",
+                mode, pets, hours, nanos / 1_000_000.0, petHoursPerSecond);
+    }
+}
@@ -11,14 +11,14 @@ public class Game {
 
     /**
      * Constructs a {@code Game} instance with the specified pet name.
-     * The constructor initializes the game with a pet fetched from the {@code PetsDictionary}.
-     * If the pet name is not found, an error is logged, and the game will not be fully initialized.
+     * The constructor initializes the game with the pet's saved row, looked up by name through
+     * {@link PetsDictionary#loadPet(String)} without loading the rest of the roster.
+     * If the pet name is not found, a new pet of the given type is created.
      *
      * @param petName the name of the pet to initialize the game with.
      */
     public Game(String petName, int petType) {
-        PetsDictionary petsDictionary = new PetsDictionary();
-        this.pet = petsDictionary.getPetByName(petName);
+        this.pet = PetsDictionary.loadPet(petName);
        
         if (this.pet == null) {
             this.pet = new Pet(petName, petType, 50, 50); //Set 50 as base effectiveness.
@@ -26,7 +26,7 @@ public class Game {
 
 
         // Initialize settings for the given pet
-        this.settings = new Settings();
+        this.settings = Settings.forPet(this.pet.getName());
 
 
         System.out.println("Game initialized with pet: " + this.pet.getName());
@@ -2,6 +2,9 @@ package backend;
 import java.io.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 /**
@@ -11,13 +14,24 @@ import java.util.*;
  */
 public class GameManager {
 
-    private static GameManager instance;
+    private static final Duration STUDY_UNIT = Duration.ofSeconds(1); // Countdown time per minute of study time
+    private static Thread consoleReader; // Reads 'q' from the console, started by the first console session
+    private static volatile StudySessionEngine.StudySession consoleSession; // The session the console can end
+    private static final ExecutorService STUDY_WORK = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "study-work");
+        thread.setDaemon(true);
+        return thread;
+    }); // Credits, rewards and checkpoints of study sessions, in order, off the timing wheel's driver thread
     private Game currentGame; // The current game instance.
     private Pet currentPet; // The current pet being managed in the game.
     private Inventory currentInventory; // The inventory associated with the current pet.
     private Settings currentSettings; // The settings for the current game.
     private String csvFilePath; // Path to the CSV file for storing inventory data.
     private StatisticsTracker currentStatisticsTracker; // Tracks statistics for the current pet.
+    private Clock clock; // The source of the current time.
+    private volatile ThresholdScheduler thresholdScheduler; // Decays the current pet when it is due, created on first use.
+    private volatile String savedState; // The game state as of the last save or load, to tell whether it changed
+    private final StatePublisher statePublisher = new StatePublisher(); // Announces changes to the pet, inventory and statistics
 
 
     /**
@@ -27,42 +41,175 @@ public class GameManager {
      * @param petName The name of the pet.
      */
     public GameManager(String petName, int petType) {
+        this(petName, petType, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructor for {@code GameManager} that takes the current time from the given clock.
+     * Decay and study timestamps follow the clock, so a simulated clock can fast-forward the game.
+     *
+     * @param petName The name of the pet.
+     * @param petType The type of the pet.
+     * @param clock   The source of the current time.
+     */
+    public GameManager(String petName, int petType, Clock clock) {
+        this.clock = clock;
         this.currentGame = new Game(petName, petType);
         this.currentPet = currentGame.getPet();
         this.currentSettings = currentGame.getSettings();
         this.currentInventory = new Inventory(); // Initialize Inventory
         this.csvFilePath = "../data_handling/pets_data.csv"; // Default inventory file path
-        this.currentStatisticsTracker = new StatisticsTracker(petName);
+        this.currentStatisticsTracker = new StatisticsTracker(petName, clock);
         this.currentInventory.loadInventory(petName);
 
+        // Bring the snapshot up to date with the journal, then journal every further change
+        MutationJournal journal = MutationJournal.getInstance();
+        journal.replay(petName, currentPet, currentInventory, currentStatisticsTracker);
+        journal.attach(currentPet, currentInventory, currentStatisticsTracker);
+        this.savedState = snapshotState();
+
+        // Announce every further change to subscribers such as the status bars and the autosaver
+        currentPet.attachPublisher(statePublisher);
+        currentInventory.attachPublisher(statePublisher, petName);
+        currentStatisticsTracker.attachPublisher(statePublisher, petName);
+
 
         startGame();
     }
 
+    /**
+     * Retrieves the game the desktop application is playing, the current context of the
+     * {@link GameSessionRegistry}. A default pet is played if none has been chosen yet.
+     *
+     * @return The current game.
+     */
     public static GameManager getInstance() {
-        if (instance == null) {
-            instance = new GameManager("Fluffy", 0); // Default pet or initialize as required
+        GameSessionRegistry registry = GameSessionRegistry.getInstance();
+        GameManager current = registry.getCurrent();
+        if (current == null) {
+            synchronized (GameManager.class) {
+                current = registry.getCurrent();
+                if (current == null) {
+                    current = registry.getOrCreate("Fluffy", 0); // Default pet or initialize as required
+                    registry.setCurrent(current);
+                }
+            }
         }
-        return instance;
+        return current;
     }
-    
 
+
+    /**
+     * Makes a game the one the desktop application is playing, registering it in the {@link GameSessionRegistry}.
+     *
+     * @param newInstance The game to play.
+     */
     public static void setInstance(GameManager newInstance) {
-        instance = newInstance;
+        GameSessionRegistry.getInstance().setCurrent(newInstance);
+    }
+
+
+    /**
+     * Retrieves the clock the game takes the current time from.
+     *
+     * @return The game's clock.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+
+    /**
+     * Replaces the clock the game takes the current time from, e.g. with a {@link SimulatedClock}.
+     *
+     * @param clock The new source of the current time.
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+
+    /**
+     * Retrieves the scheduler that decays the current pet, starting it on first use.
+     * The pet is then decayed from the current hour on, without any hourly polling.
+     *
+     * @return The game's threshold scheduler.
+     */
+    public synchronized ThresholdScheduler getThresholdScheduler() {
+        if (thresholdScheduler == null) {
+            // Games on the system clock share one wheel, so hosting many games does not cost a thread each
+            TimingWheel shared = TimingWheel.getInstance();
+            thresholdScheduler = clock.equals(shared.getClock())
+                    ? new ThresholdScheduler(shared) : new ThresholdScheduler(clock);
+            thresholdScheduler.track(currentPet);
+        }
+        return thresholdScheduler;
+    }
+
+
+    /**
+     * Retrieves the publisher announcing changes to the current pet, inventory and statistics.
+     *
+     * @return The game's state publisher.
+     */
+    public StatePublisher getStatePublisher() {
+        return statePublisher;
+    }
+
+
+    /**
+     * Stops decaying the current pet in the background and completes the subscriptions to its changes.
+     * The game can still be saved afterwards.
+     */
+    public synchronized void close() {
+        if (thresholdScheduler != null) {
+            thresholdScheduler.shutdown();
+            thresholdScheduler = null;
+        }
+        statePublisher.close();
+    }
+
+
+    /**
+     * Applies the decay the current pet is due, if the threshold scheduler has been started.
+     * Call this before showing the pet's stats.
+     */
+    public void catchUpDecay() {
+        if (thresholdScheduler != null) {
+            thresholdScheduler.catchUp(currentPet);
+        }
+    }
+
+
+    /**
+     * Changes the current pet after applying the decay it is due, then recomputes when it will next cross a threshold.
+     * All three steps hold the scheduler's lock for the pet, so a decay timer firing on the wheel thread cannot
+     * overwrite the change.
+     *
+     * @param change The change to the pet's stats.
+     */
+    private void changePet(Runnable change) {
+        ThresholdScheduler scheduler = thresholdScheduler;
+        if (scheduler != null) {
+            scheduler.update(currentPet, change);
+        } else {
+            change.run();
+        }
     }
     
     public void exercisePet(){
-        this.currentPet.setHappiness(Math.min(this.currentPet.getHappiness() + 5, 100));
+        changePet(() -> this.currentPet.setHappiness(Math.min(this.currentPet.getHappiness() + 5, 100)));
     }
 
     public void sleepPet(){
-        this.currentPet.setSleep(Math.min(this.currentPet.getSleep() + 5, 100));
+        changePet(() -> this.currentPet.setSleep(Math.min(this.currentPet.getSleep() + 5, 100)));
     }
 
     /**
      * Starts the game by displaying the loaded pet and inventory information.
+     * Final because the constructor calls it.
      */
-    public void startGame() {
+    public final void startGame() {
         System.out.println("Starting game with pet: " + currentPet.getName());
         
         System.out.println(currentInventory); // Optional: Display loaded inventory
@@ -70,14 +217,77 @@ public class GameManager {
 
 
     /**
-     * Saves the current game state, including pet data, settings, and statistics.
+     * Saves the current game state, including pet data, inventory, settings, and statistics.
+     * Everything is committed as one {@link SaveBundle}, so each file is written once.
      */
     public void saveGame() {
-        currentPet.saveToFile();
-        currentSettings.saveToFile();
-        currentStatisticsTracker.saveToFile();
-        currentInventory.saveToFile(this.currentPet.getName());
-        System.out.println("Game saved successfully.");
+        // Go through the save queue so no older queued save can land after this one
+        SaveQueue.getInstance().submit(createSaveBundle());
+        boolean saved = SaveQueue.getInstance().flush();
+        if (saved) {
+            System.out.println("Game saved successfully.");
+        } else {
+            System.err.println("Game could not be fully saved.");
+        }
+    }
+
+
+    /**
+     * Queues the current game state for saving without waiting for the disk.
+     * Repeated calls before the queue is flushed are merged into a single write.
+     */
+    public void saveGameAsync() {
+        SaveQueue.getInstance().submit(createSaveBundle());
+    }
+
+
+    /**
+     * Checks whether the pet, inventory, settings or statistics changed since the game was last saved or loaded.
+     *
+     * @return {@code true} if there are changes to save.
+     */
+    public boolean isDirty() {
+        return !snapshotState().equals(savedState);
+    }
+
+
+    /**
+     * Saves the game and waits for the disk if anything changed since it was last saved or loaded,
+     * applying any decay that is due first.
+     *
+     * @return {@code true} if the game is saved, {@code false} if writing it failed.
+     */
+    public boolean saveIfDirty() {
+        catchUpDecay();
+        if (!isDirty()) {
+            return true;
+        }
+        SaveQueue.getInstance().submit(createSaveBundle());
+        return SaveQueue.getInstance().flush();
+    }
+
+
+    /**
+     * Captures the saved form of the pet, inventory, settings and statistics.
+     */
+    private String snapshotState() {
+        return currentPet.toCsvRow("\"" + currentInventory + "\"") + "\n" + currentSettings.toCsvRow() + "\n"
+                + currentStatisticsTracker.toCsvRow();
+    }
+
+
+    /**
+     * Captures the current pet, inventory, settings, and statistics in a {@link SaveBundle}.
+     *
+     * @return The bundle holding the current game state.
+     */
+    private SaveBundle createSaveBundle() {
+        catchUpDecay();
+        savedState = snapshotState();
+        return new SaveBundle()
+                .pet(currentPet, currentInventory, csvFilePath)
+                .settings(currentSettings)
+                .statistics(currentStatisticsTracker);
     }
 
 
@@ -107,7 +317,14 @@ public class GameManager {
      * @return The pet being managed in the game.
      */
     public void setCurrentPet(Pet pet) {
+        if (thresholdScheduler != null) {
+            thresholdScheduler.untrack(currentPet);
+            thresholdScheduler.track(pet);
+        }
+        currentPet.attachPublisher(null);
+        pet.attachPublisher(statePublisher);
         this.currentPet = pet;
+        statePublisher.publish(StatePublisher.Source.PET, pet.getName());
     }
 
 
@@ -143,21 +360,24 @@ public class GameManager {
     }
 
     public void visitVet(){
-        this.currentPet.setHealth(100);
+        changePet(() -> this.currentPet.setHealth(100));
     }
     
     /**
      * Gives an item from the inventory to the pet. The item type must match an item in the inventory.
      *
      * @param itemType The type of item to give (e.g., "Food").
+     * @return {@code true} if the item was in the inventory and was given.
      */
-    public void givePet(String itemName) {
+    public boolean givePet(String itemName) {
         Item inventoryItem = this.currentInventory.getItem(itemName);
         if (inventoryItem != null) {
             this.currentInventory.removeItem(inventoryItem);
-            this.currentPet.useItem(inventoryItem);
+            changePet(() -> this.currentPet.useItem(inventoryItem));
+            return true;
         } else {
             System.out.println("Item not found in inventory.");
+            return false;
         }
     }
 
@@ -166,208 +386,335 @@ public class GameManager {
      * Starts a study session, including study time and break time.
      * Tracks the study progress, handles interruptions, and updates statistics accordingly.
      * If study session is completed, gives a random food or gift.
+     * This console version blocks until the session ends and shows a progress bar; typing 'q' ends it early.
      */
     public void startStudySession() {
         int studyTime = currentSettings.getStudyTime(); // in minutes
         int breakTime = currentSettings.getBreakTime(); // in minutes
-        int totalStudyTime = currentStatisticsTracker.getTotalStudyTime();
-
-
-        int totalStudySeconds = studyTime; // Convert minutes to seconds for countdown
-        int totalBreakSeconds = breakTime; // Convert break time to seconds
-
 
         System.out.println("Study session started! Study time: " + studyTime + " minutes.");
         System.out.println("Press 'q' at any time to break the study session.");
 
-
-        int barLength = 50; // Length of the progress bar
-
-
-        // Study session countdown
-        int actualStudySeconds = countDownWithProgressBar(totalStudySeconds, barLength, "Study");
-        int actualStudyMinutes = actualStudySeconds;
-
-
-        totalStudyTime += actualStudyMinutes;
-        currentStatisticsTracker.setTotalStudyTime(totalStudyTime);
-        LocalDateTime now = LocalDateTime.now();
-        String time = StatisticsTracker.formatLocalDateTime(now);
-        currentStatisticsTracker.setLastStudySession(now.toString());
-        System.out.println("\nTotal study time updated to: " + currentStatisticsTracker.getTotalStudyTime() + " minutes.");
-        System.out.println("Last study session: " + time);
-
-
-        if (actualStudySeconds < totalStudySeconds) {
-            System.out.println("\nStudy session interrupted early.");
-            return;
+        SessionCheckpoint.Checkpoint unfinished = getUnfinishedStudySession();
+        if (unfinished != null) {
+            System.out.println("Crediting an unfinished study session: " + unfinished);
+            creditUnfinishedStudySession(unfinished);
         }
 
-        getCurrentPet().setPetScore(Math.min(100, getCurrentPet().getPetScore() + 10));
-        System.out.println("\nTime for a break! Break time: " + breakTime + " minutes.");
-        int actualBreakSeconds = countDownWithProgressBar(totalBreakSeconds, barLength, "Break");
-
-
-        if (actualBreakSeconds < totalBreakSeconds) {
-            System.out.println("\nBreak interrupted early.");
-        } else {
-            long foodOrGift = Math.round(Math.random());
-            System.out.println("\nBreak time is over. Study session completed!");
-
-
-            if(foodOrGift == 0){
-                Item foodArray[] = new Item[3];
-                foodArray[0] = new Item("Treat", "food", 10);
-                foodArray[1] = new Item("Snack", "food", 25);
-                foodArray[2] = new Item("Meal", "food", 50);
-                Random rand = new Random();
-                int randNum = rand.nextInt(3);
-                System.out.println("Food given: " + foodArray[randNum].getName());
-                this.getCurrentInventory().addItem(foodArray[randNum]);
+        StudySessionEngine.StudySession session = startStudySessionAsync();
+        consoleSession = session;
+        startConsoleReader();
+        try {
+            int barLength = 50; // Length of the progress bar
+            while (!session.awaitFinish(Duration.ofSeconds(1))) {
+                printProgressBar(session, barLength);
             }
+            // Let the credit and reward of the last phase land before returning
+            STUDY_WORK.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            System.err.println("Timer interrupted: " + e.getMessage());
+            session.interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error crediting the study session: " + e.getCause());
+        } finally {
+            consoleSession = null;
+        }
+    }
 
 
-            if(foodOrGift == 1){
-                Item giftArray[] = new Item[3];
-                giftArray[0] = new Item("Plushy", "gift", 10);
-                giftArray[1] = new Item("Ball", "gift", 25);
-                giftArray[2] = new Item("Bell", "gift", 50);
-                Random rand = new Random();
-                int randNum = rand.nextInt(3);
-                System.out.println("Gift given: " + giftArray[randNum].getName());
-                this.getCurrentInventory().addItem(giftArray[randNum]);
-            }
-        }
+    /**
+     * Starts a study session on the {@link StudySessionEngine} and returns at once.
+     * When the study phase ends the time studied is credited, and a completed session gives a random food or gift.
+     * Until then the session is checkpointed every {@link SessionCheckpoint#INTERVAL}.
+     *
+     * @return The running session, whose phase and remaining time can be read at any time.
+     */
+    public StudySessionEngine.StudySession startStudySessionAsync() {
+        return startStudySessionAsync(null);
     }
 
 
     /**
-     * Handles a countdown timer with a progress bar.
+     * Starts a study session like {@link #startStudySessionAsync()}, and runs a task once the session has
+     * finished and its credit and reward have been applied to this game.
      *
-     * @param totalSeconds The total duration of the countdown in seconds.
-     * @param barLength    The length of the progress bar.
-     * @param phase        The current phase of the timer (e.g., "Study" or "Break").
-     * @return The number of seconds completed before interruption.
+     * @param whenCredited Run once the completed or interrupted session has been credited, or {@code null}.
+     * @return The running session.
      */
-    private int countDownWithProgressBar(int totalSeconds, int barLength, String phase) {
-        Scanner scanner = new Scanner(System.in);
-        for (int i = 0; i < totalSeconds; i++) {
-            int progress = (i * barLength) / totalSeconds;
-            System.out.print("\r" + phase + " Progress: [");
-            for (int j = 0; j < barLength; j++) {
-                if (j <= progress) {
-                    System.out.print("=");
-                } else {
-                    System.out.print(" ");
-                }
-            }
-            System.out.print("] " + (totalSeconds - i) + "s remaining");
+    public StudySessionEngine.StudySession startStudySessionAsync(Runnable whenCredited) {
+        // The countdown runs one second per minute of study time
+        Duration studyLength = STUDY_UNIT.multipliedBy(currentSettings.getStudyTime());
+        Duration breakLength = STUDY_UNIT.multipliedBy(currentSettings.getBreakTime());
+        StudySessionEngine.StudySession session = StudySessionEngine.getInstance().start(studyLength, breakLength,
+                (study, previous, phase) -> {
+                    studyPhaseChanged(study, previous, phase);
+                    boolean finished = phase == StudySessionEngine.Phase.COMPLETED
+                            || phase == StudySessionEngine.Phase.INTERRUPTED;
+                    if (finished && whenCredited != null) {
+                        STUDY_WORK.execute(whenCredited); // Runs after the phase change queued just before it
+                    }
+                });
+        scheduleCheckpoint(session, breakLength);
+        return session;
+    }
 
 
-            try {
-                if (System.in.available() > 0 && scanner.nextLine().equalsIgnoreCase("q")) {
-                    return i;
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
+    /**
+     * Checkpoints a session after {@link SessionCheckpoint#INTERVAL}, and again after every further interval
+     * for as long as it is in its study phase.
+     */
+    private void scheduleCheckpoint(StudySessionEngine.StudySession session, Duration breakLength) {
+        TimingWheel.getInstance().schedule(() -> {
+            if (session.getPhase() == StudySessionEngine.Phase.STUDY) {
+                String key = studyKey(session);
+                int studied = studiedUnits(session);
+                Duration remaining = session.getRemaining();
+                STUDY_WORK.execute(() -> saveStudyCheckpoint(key, studied, remaining, breakLength));
+                scheduleCheckpoint(session, breakLength);
             }
+        }, SessionCheckpoint.INTERVAL);
+    }
 
 
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                System.err.println("Timer interrupted: " + e.getMessage());
-            }
-        }
+    private static String studyKey(StudySessionEngine.StudySession session) {
+        return String.valueOf(session.getStartTime().toEpochMilli());
+    }
 
 
-        return totalSeconds;
+    private static int studiedUnits(StudySessionEngine.StudySession session) {
+        return (int) (session.getStudied().toMillis() / STUDY_UNIT.toMillis());
     }
 
 
     /**
-     * Exits the game after saving the current state.
+     * Saves the progress of a running study session of the current pet, so it survives the application dying.
+     *
+     * @param key            Identifies the session, e.g. its start time in milliseconds.
+     * @param studiedMinutes The study time to credit so far.
+     * @param remaining      The study time left.
+     * @param breakLength    The break following the study time.
      */
-    public void exitGame() {
-        saveGame();
-        System.out.println("Exiting game. Goodbye!");
+    public void saveStudyCheckpoint(String key, int studiedMinutes, Duration remaining, Duration breakLength) {
+        SessionCheckpoint.getInstance().save(new SessionCheckpoint.Checkpoint(currentPet.getName(), key,
+                studiedMinutes, remaining, breakLength, clock.instant()));
     }
 
 
     /**
-     * Decreases Health by 1 point per hour if happiness or fullness is at 0 or below. Decreases by 2 if both.
-     * Does the same for happiness with 25.
-     * @param tracker the StatisticsTracker instance of the game
-     * @param pet the pet to have points deducted from
+     * Records that a study session of the current pet has been credited, so it is not offered again.
+     *
+     * @param key The session's key.
      */
-    public void updateStatsLogin(StatisticsTracker tracker, Pet pet) {
-        long timeElapsed;
-        LocalDateTime prevDateTime = StatisticsTracker.formatStringToLocalDateTime(tracker.getLastLogout());
-        LocalDateTime currDateTime = LocalDateTime.now();
-        Duration duration = Duration.between(currDateTime, prevDateTime);
-        timeElapsed = Math.abs(duration.toHours());
-        for(int i = (int)timeElapsed; i > 0; i--) {
-            if ((pet.getSleep() <= 25 || pet.getFullness() <= 25) && !(pet.getSleep() <= 25 && pet.getFullness() <= 25)) {
-
-
-
-
-                if (pet.getHappiness() - 1 <= 0) {
-                    pet.setHappiness(0);
-                } else {
-                    pet.setHappiness(pet.getHappiness() - 1);
-                }
+    public void finishStudyCheckpoint(String key) {
+        SessionCheckpoint.getInstance().finish(currentPet.getName(), key);
+    }
 
 
-            }
+    /**
+     * Looks for a study session of the current pet that was cut short by the application dying.
+     *
+     * @return The last checkpoint of that session, or {@code null} if there is none.
+     */
+    public SessionCheckpoint.Checkpoint getUnfinishedStudySession() {
+        return SessionCheckpoint.getInstance().findUnfinished(currentPet.getName());
+    }
 
 
-            if (pet.getSleep() <= 25 && pet.getFullness() <= 25) {
+    /**
+     * Credits the study time saved in the checkpoint of an unfinished session and closes that session.
+     * To resume it, start a new countdown over the checkpoint's remaining time afterwards.
+     *
+     * @param checkpoint The checkpoint of the unfinished session.
+     */
+    public void creditUnfinishedStudySession(SessionCheckpoint.Checkpoint checkpoint) {
+        Instant start = checkpoint.getSavedAt().minus(Duration.ofMinutes(checkpoint.getStudiedMinutes()));
+        creditStudy(checkpoint.getStudiedMinutes(), start, true);
+        SessionCheckpoint.getInstance().finish(checkpoint.getPetName(), checkpoint.getKey());
+    }
 
 
-                if (pet.getHappiness() - 2 <= 0) {
+    /**
+     * Credits study time and hands out rewards as a session moves through its phases. Called on the timing
+     * wheel's driver thread, which every study and decay timer shares, so it only reads the session there and
+     * hands the disk writes and game changes to a worker thread.
+     */
+    private void studyPhaseChanged(StudySessionEngine.StudySession session,
+                                   StudySessionEngine.Phase previous, StudySessionEngine.Phase phase) {
+        int studied = studiedUnits(session);
+        STUDY_WORK.execute(() -> applyPhaseChange(session, studied, previous, phase));
+    }
 
 
-                    pet.setHappiness(0);
+    /**
+     * Applies a phase change of a study session on the worker thread. The study history and checkpoint are
+     * written first, then the game is changed while holding its lock, so callers that lock the game see each
+     * change whole.
+     */
+    private void applyPhaseChange(StudySessionEngine.StudySession session, int studied,
+                                  StudySessionEngine.Phase previous, StudySessionEngine.Phase phase) {
+        boolean interrupted = phase == StudySessionEngine.Phase.INTERRUPTED;
+        if (previous == StudySessionEngine.Phase.STUDY) {
+            getStudyHistory().record(session.getStartTime(), clock.instant(), studied, interrupted);
+            finishStudyCheckpoint(studyKey(session));
+        }
+        synchronized (this) {
+            if (previous == StudySessionEngine.Phase.STUDY) {
+                addStudyTime(studied);
+            }
+            if (phase == StudySessionEngine.Phase.BREAK) {
+                changePet(() -> currentPet.setPetScore(Math.min(100, currentPet.getPetScore() + 10)));
+                System.out.println("\nTime for a break! Break time: " + currentSettings.getBreakTime() + " minutes.");
+            } else if (interrupted) {
+                if (previous == StudySessionEngine.Phase.STUDY) {
+                    System.out.println("\nStudy session interrupted early.");
                 } else {
-
-
-                    pet.setHappiness(pet.getHappiness() - 2);
-
-
+                    System.out.println("\nBreak interrupted early.");
                 }
+            } else if (phase == StudySessionEngine.Phase.COMPLETED) {
+                System.out.println("\nBreak time is over. Study session completed!");
+                rewardStudySession();
             }
+        }
+    }
 
 
-            if ((pet.getSleep() == 0 || pet.getFullness() == 0) && !(pet.getSleep() == 0 && pet.getFullness() == 0)) {
+    /**
+     * Adds study time to the statistics, records now as the last study session, and logs the session in the
+     * pet's {@link StudyHistory}.
+     *
+     * @param minutes     The number of minutes studied.
+     * @param start       When the session started.
+     * @param interrupted Whether the session was ended early.
+     */
+    public void creditStudy(int minutes, Instant start, boolean interrupted) {
+        getStudyHistory().record(start, clock.instant(), minutes, interrupted);
+        addStudyTime(minutes);
+    }
 
 
+    /**
+     * Adds study time to the statistics and records now as the last study session.
+     */
+    private void addStudyTime(int minutes) {
+        currentStatisticsTracker.setTotalStudyTime(currentStatisticsTracker.getTotalStudyTime() + minutes);
+        currentStatisticsTracker.setLastStudySession(clock.instant());
+        System.out.println("\nTotal study time updated to: " + currentStatisticsTracker.getTotalStudyTime() + " minutes.");
+        System.out.println("Last study session: " + currentStatisticsTracker.getLastStudySession());
+    }
 
 
-                if (pet.getHealth() - 1 <= 0) {
-                    pet.setHealth(0);
-                } else {
-                    pet.setHealth(pet.getHealth() - 1);
-                }
+    /**
+     * Retrieves the study history of the current pet, with its daily, weekly and monthly totals.
+     *
+     * @return The current pet's study history.
+     */
+    public StudyHistory getStudyHistory() {
+        return StudyHistory.forPet(currentPet.getName());
+    }
 
 
-            }
+    /**
+     * Gives a random food or gift to the inventory for a completed study session.
+     *
+     * @return The item given.
+     */
+    public Item rewardStudySession() {
+        long foodOrGift = Math.round(Math.random());
+        Item reward;
+        if(foodOrGift == 0){
+            Item foodArray[] = new Item[3];
+            foodArray[0] = new Item("Treat", "food", 10);
+            foodArray[1] = new Item("Snack", "food", 25);
+            foodArray[2] = new Item("Meal", "food", 50);
+            Random rand = new Random();
+            int randNum = rand.nextInt(3);
+            reward = foodArray[randNum];
+            System.out.println("Food given: " + reward.getName());
+        } else {
+            Item giftArray[] = new Item[3];
+            giftArray[0] = new Item("Plushy", "gift", 10);
+            giftArray[1] = new Item("Ball", "gift", 25);
+            giftArray[2] = new Item("Bell", "gift", 50);
+            Random rand = new Random();
+            int randNum = rand.nextInt(3);
+            reward = giftArray[randNum];
+            System.out.println("Gift given: " + reward.getName());
+        }
+        this.getCurrentInventory().addItem(reward);
+        return reward;
+    }
 
 
+    /**
+     * Prints the progress bar of a running session over the current console line.
+     *
+     * @param session   The running session.
+     * @param barLength The length of the progress bar.
+     */
+    private static void printProgressBar(StudySessionEngine.StudySession session, int barLength) {
+        long total = Math.max(1, session.getPhaseLength().toMillis());
+        long remaining = session.getRemaining().toMillis();
+        int progress = (int) (((total - remaining) * barLength) / total);
+        String phase = session.getPhase() == StudySessionEngine.Phase.BREAK ? "Break" : "Study";
+        StringBuilder bar = new StringBuilder("\r").append(phase).append(" Progress: [");
+        for (int j = 0; j < barLength; j++) {
+            bar.append(j <= progress ? '=' : ' ');
+        }
+        bar.append("] ").append((remaining + 999) / 1000).append("s remaining");
+        System.out.print(bar);
+    }
 
 
-            if (pet.getSleep() == 0 && pet.getFullness() == 0) {
-                pet.setHealth(Math.max(0, pet.getHealth() - 2));
+    /**
+     * Starts the thread that reads console lines and ends the console's study session on 'q'.
+     * There is one such thread for the whole application, blocked on the console until a line arrives.
+     */
+    private static synchronized void startConsoleReader() {
+        if (consoleReader != null) {
+            return;
+        }
+        consoleReader = new Thread(() -> {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    StudySessionEngine.StudySession session = consoleSession;
+                    if (session != null && line.trim().equalsIgnoreCase("q")) {
+                        session.interrupt();
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading the console: " + e.getMessage());
             }
+        }, "console-reader");
+        consoleReader.setDaemon(true);
+        consoleReader.start();
+    }
 
 
+    /**
+     * Exits the game after saving the current state.
+     */
+    public void exitGame() {
+        saveGame();
+        System.out.println("Exiting game. Goodbye!");
+    }
 
 
-
-
-            pet.setSleep(Math.max(0,pet.getSleep() -1));
-            pet.setFullness(Math.max(0,pet.getFullness() -1));
+    /**
+     * Decreases Health by 1 point per hour if happiness or fullness is at 0 or below. Decreases by 2 if both.
+     * Does the same for happiness with 25.
+     * All hours since the last logout are applied at once by the {@link DecayEngine}.
+     * @param tracker the StatisticsTracker instance of the game
+     * @param pet the pet to have points deducted from
+     */
+    public void updateStatsLogin(StatisticsTracker tracker, Pet pet) {
+        long lastLogout = tracker.getLastLogoutMillis();
+        if (lastLogout == StatisticsTracker.UNKNOWN_TIME) {
+            return;
         }
+        long timeElapsed = Math.abs(clock.millis() - lastLogout) / Duration.ofHours(1).toMillis();
+        DecayEngine.advance(pet, timeElapsed);
     }
 
 
@@ -377,6 +724,8 @@ public class GameManager {
      * Decreases the Happiness if an hour has passed in game by 1 if sleep or fullness less than or equal to 25.
      * Decreases by two if both.
      * Does the same with Health and the value of 0.
+     * The hour is applied as one tick of the {@link DecayEngine}.
+     * The {@link ThresholdScheduler} from {@link #getThresholdScheduler()} does the same without polling.
      *
      * @param pet The pet to be acted upon
      * @param lastHour The last hour when health was deducted
@@ -384,91 +733,10 @@ public class GameManager {
      * @return lastHour last hour passed.
      */
     public int updateStatsContinuous(Pet pet, int lastHour){
-        LocalDateTime currDateTime = LocalDateTime.now();
-
-
-
-
+        LocalDateTime currDateTime = LocalDateTime.now(clock);
         if(currDateTime.getHour() != lastHour){
-            if((pet.getSleep() <= 25 || pet.getFullness() <= 25) && !(pet.getSleep() <= 25 && pet.getFullness() <=25)){
-
-
-
-
-                if(pet.getHappiness() - 1 <= 0){
-                    pet.setHappiness(0);
-                }
-
-
-                else{
-                    pet.setHappiness(pet.getHappiness() - 1);
-                }
-
-
-            }
-
-
-            if(pet.getSleep() <= 25 && pet.getFullness()  <= 25){
-
-
-                if(pet.getHappiness() - 2 <= 0){
-
-
-                    pet.setHappiness(0);
-                }
-
-
-                else{
-
-
-                    pet.setHappiness(pet.getHappiness() - 2);
-
-
-                }
-            }
-
-
-            if((pet.getSleep() == 0 || pet.getFullness() == 0) && !(pet.getSleep() == 0 && pet.getFullness() == 0)){
-
-
-
-
-                if(pet.getHealth() - 1 <= 0){
-                    pet.setHealth(0);
-                }
-
-
-                else{
-                    pet.setHealth(pet.getHealth() - 1);
-                }
-
-
-            }
-
-
-            if(pet.getSleep() == 0 && pet.getFullness()  == 0){
-
-
-                if(pet.getHealth() - 2 <= 0){
-                    pet.setHealth(0);
-                }
-                else{
-
-
-                    pet.setHealth(pet.getHealth() - 2);
-                }
-
-
-
-
-            }
-            pet.setSleep(Math.max(0,pet.getSleep() -1));
-            pet.setFullness(Math.max(0,pet.getFullness() -1));
+            DecayEngine.advance(pet, 1);
         }
-
-
-
-
         return currDateTime.getHour();
     }
 
@@ -477,78 +745,14 @@ public class GameManager {
 
     /**
      * Adds 24 hours to the time and updates stats.
+     * The day is applied as 24 ticks of the {@link DecayEngine}.
      */
     public void updateStatsNextDayDemo(){
-
-
-        LocalDateTime currDateTime = LocalDateTime.now();
-        LocalDateTime nextDateTime = LocalDateTime.now().plusDays(1);
+        LocalDateTime currDateTime = LocalDateTime.now(clock);
+        LocalDateTime nextDateTime = currDateTime.plusDays(1);
         Duration duration = Duration.between(currDateTime, nextDateTime);
         long timeElapsed = Math.abs(duration.toHours());
-        for(int i = (int)timeElapsed; i > 0; i--) {
-            if ((this.getCurrentPet().getSleep() <= 25 || this.getCurrentPet().getFullness() <= 25) && !(this.getCurrentPet().getSleep() <= 25 && this.getCurrentPet().getFullness() <= 25)) {
-
-
-
-
-                if (this.getCurrentPet().getHappiness() - 1 <= 0) {
-                    this.getCurrentPet().setHappiness(0);
-                } else {
-                    this.getCurrentPet().setHappiness(this.getCurrentPet().getHappiness() - 1);
-                }
-
-
-            }
-
-
-            if (this.getCurrentPet().getSleep() <= 25 && this.getCurrentPet().getFullness() <= 25) {
-
-
-                if (this.getCurrentPet().getHappiness() - 2 <= 0) {
-
-
-                    this.getCurrentPet().setHappiness(0);
-                } else {
-
-
-                    this.getCurrentPet().setHappiness(this.getCurrentPet().getHappiness() - 2);
-
-
-                }
-            }
-
-
-            if ((this.getCurrentPet().getSleep() == 0 || this.getCurrentPet().getFullness() == 0) && !(this.getCurrentPet().getSleep() == 0 && this.getCurrentPet().getFullness() == 0)) {
-
-
-
-
-                if (this.getCurrentPet().getHealth() - 1 <= 0) {
-                    this.getCurrentPet().setHealth(0);
-                } else {
-                    this.getCurrentPet().setHealth(this.getCurrentPet().getHealth() - 1);
-                }
-
-
-            }
-
-
-
-
-            if (this.getCurrentPet().getSleep() == 0 && this.getCurrentPet().getFullness() == 0) {
-                this.getCurrentPet().setHealth(Math.max(0, this.getCurrentPet().getHealth() - 2));
-            }
-
-
-
-
-
-
-            this.getCurrentPet().setSleep(Math.max(0,this.getCurrentPet().getSleep() -1));
-            this.getCurrentPet().setFullness(Math.max(0,this.getCurrentPet().getFullness() -1));
-        }
-
-
+        DecayEngine.advance(getCurrentPet(), timeElapsed);
     }
 
 
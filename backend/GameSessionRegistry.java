@@ -0,0 +1,465 @@
+package backend;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code GameSessionRegistry} class holds one independent game context per pet, each a {@link GameManager}
+ * with its own pet, inventory, settings and statistics. Contexts are created lazily on first use, and looking
+ * one up never takes a lock, so one process can host many players at once.
+ *
+ * A registry can be bounded to a number of resident contexts. Once it holds more, the least recently used
+ * context is saved if it changed, closed and dropped; the next {@link #getOrCreate} for that pet loads it
+ * again from the data files. Contexts taken with {@link #acquire} are in use until {@link #release}d and are
+ * never evicted meanwhile, so a request never works on a context that has been replaced. Recency is a timestamp written on each access, and only evictions scan for the
+ * oldest one. {@link #getStats()} reports hits, misses and evictions to size the bound.
+ *
+ * The desktop application plays one pet at a time; that context is the registry's current one, which is never
+ * evicted and which {@link GameManager#getInstance()}, {@link Settings#getInstance()} and
+ * {@link StatisticsTracker#getInstance(String)} return for backward compatibility.
+ */
+public class GameSessionRegistry {
+    /** Creates the game context of a pet that has none yet */
+    public interface Factory {
+        /**
+         * Creates a game context.
+         *
+         * @param petName The name of the pet.
+         * @param petType The type of the pet, used if it does not exist yet.
+         * @return The new game context.
+         */
+        GameManager create(String petName, int petType);
+    }
+
+    /**
+     * A snapshot of a registry's cache counters.
+     */
+    public static final class Stats {
+        private final long hits; // Lookups that found a resident context
+        private final long misses; // Lookups that found none
+        private final long evictions; // Contexts dropped to stay within the bound
+        private final long writeBacks; // Evicted contexts that had changes to save
+
+        Stats(long hits, long misses, long evictions, long writeBacks) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.writeBacks = writeBacks;
+        }
+
+        /** @return The number of lookups that found a resident context. */
+        public long getHits() { return hits; }
+
+        /** @return The number of lookups that found no resident context. */
+        public long getMisses() { return misses; }
+
+        /** @return The number of contexts evicted. */
+        public long getEvictions() { return evictions; }
+
+        /** @return The number of evicted contexts that were saved because they changed. */
+        public long getWriteBacks() { return writeBacks; }
+
+        /** @return The share of lookups that found a resident context, or 0 if there were none. */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d hitRate=%.3f evictions=%d writeBacks=%d",
+                    hits, misses, getHitRate(), evictions, writeBacks);
+        }
+    }
+
+    /**
+     * A resident game context and when it was last used. An entry goes into the map before its context is
+     * loaded, so loading a pet's files only holds up lookups of that pet, never the map itself.
+     */
+    private static final class Entry {
+        private volatile GameManager session; // The game context, or null while it is loading
+        private volatile long lastAccess = System.nanoTime(); // When the context was last looked up
+        private final AtomicInteger users = new AtomicInteger(); // Callers using the context, or -1 once evicted
+
+        Entry() {
+        }
+
+        Entry(GameManager session) {
+            this.session = session;
+        }
+
+        /**
+         * Loads the context once, making any other thread asking for it wait until it is ready.
+         */
+        GameManager load(Factory factory, String petName, int petType) {
+            GameManager loaded = session;
+            if (loaded == null) {
+                synchronized (this) {
+                    loaded = session;
+                    if (loaded == null) {
+                        loaded = factory.create(petName, petType);
+                        session = loaded;
+                    }
+                }
+            }
+            return loaded;
+        }
+
+        void touch() {
+            lastAccess = System.nanoTime();
+        }
+
+        /**
+         * Marks the context as used by one more caller, unless it has been evicted.
+         */
+        boolean retain() {
+            while (true) {
+                int count = users.get();
+                if (count < 0) {
+                    return false;
+                }
+                if (users.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            users.updateAndGet(count -> count > 0 ? count - 1 : count);
+        }
+
+        boolean inUse() {
+            return users.get() > 0;
+        }
+
+        boolean evicted() {
+            return users.get() < 0;
+        }
+
+        /**
+         * Marks the context as evicted if no caller is using it. Only called holding this entry's lock.
+         */
+        boolean retire() {
+            return users.compareAndSet(0, -1);
+        }
+
+        void reinstate() {
+            users.set(0);
+        }
+
+        /**
+         * Waits for an eviction of this entry to finish, since the evicting thread holds its lock throughout.
+         */
+        void awaitEviction() {
+            synchronized (this) {
+                // Nothing to do, the eviction has saved the context and removed the entry
+            }
+        }
+    }
+
+    /** Creates the shared registry on first use, without locking later lookups */
+    private static final class Holder {
+        private static final GameSessionRegistry INSTANCE = new GameSessionRegistry();
+    }
+
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>(); // Game contexts by lower-case pet name
+    private final Factory factory; // Creates missing game contexts
+    private final int maxSessions; // The most contexts kept resident, or 0 for no bound
+    private final Object evictionLock = new Object(); // Lets one thread evict at a time
+    private final LongAdder hits = new LongAdder(); // Lookups that found a resident context
+    private final LongAdder misses = new LongAdder(); // Lookups that found none
+    private final LongAdder evictions = new LongAdder(); // Contexts evicted
+    private final LongAdder writeBacks = new LongAdder(); // Evicted contexts that had to be saved
+    private volatile GameManager current; // The context the desktop application is playing, or null
+
+    /**
+     * Constructs an unbounded {@code GameSessionRegistry} whose contexts load their pets from the data files.
+     */
+    public GameSessionRegistry() {
+        this(GameManager::new, 0);
+    }
+
+    /**
+     * Constructs an unbounded {@code GameSessionRegistry} whose contexts are created by the given factory.
+     *
+     * @param factory Creates the game context of a pet.
+     */
+    public GameSessionRegistry(Factory factory) {
+        this(factory, 0);
+    }
+
+    /**
+     * Constructs a {@code GameSessionRegistry} that keeps at most the given number of contexts resident.
+     *
+     * @param factory     Creates, or reloads, the game context of a pet.
+     * @param maxSessions The most contexts to keep resident, or 0 for no bound.
+     */
+    public GameSessionRegistry(Factory factory, int maxSessions) {
+        if (maxSessions < 0) {
+            throw new IllegalArgumentException("The session bound cannot be negative: " + maxSessions);
+        }
+        this.factory = factory;
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * Retrieves the shared registry of the application.
+     *
+     * @return The shared game session registry.
+     */
+    public static GameSessionRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Looks up the game context of a pet without creating or reloading it.
+     *
+     * @param petName The name of the pet, in any case.
+     * @return The pet's game context, or {@code null} if it has none resident.
+     */
+    public GameManager get(String petName) {
+        return lookup(petName, 0, false, false);
+    }
+
+    /**
+     * Retrieves the game context of a pet, creating it, or reloading it after an eviction, if it is not
+     * resident. Concurrent calls for the same pet create the context only once; the pet's files are read
+     * outside the map's locks, so loading one pet never holds up lookups of others.
+     *
+     * @param petName The name of the pet, in any case.
+     * @param petType The type of the pet, used if it does not exist yet.
+     * @return The pet's game context.
+     */
+    public GameManager getOrCreate(String petName, int petType) {
+        return lookup(petName, petType, true, false);
+    }
+
+    /**
+     * Looks up the resident game context of a pet and marks it as in use, so it is not evicted until it is
+     * {@link #release}d.
+     *
+     * @param petName The name of the pet, in any case.
+     * @return The pet's game context, or {@code null} if it has none resident.
+     */
+    public GameManager acquire(String petName) {
+        return lookup(petName, 0, false, true);
+    }
+
+    /**
+     * Retrieves the game context of a pet like {@link #getOrCreate}, and marks it as in use, so it is not
+     * evicted until it is {@link #release}d.
+     *
+     * @param petName The name of the pet, in any case.
+     * @param petType The type of the pet, used if it does not exist yet.
+     * @return The pet's game context.
+     */
+    public GameManager acquire(String petName, int petType) {
+        return lookup(petName, petType, true, true);
+    }
+
+    /**
+     * Marks a game context taken with {@link #acquire} as no longer used by the caller, letting it be evicted
+     * once nobody else uses it.
+     *
+     * @param session The game context.
+     */
+    public void release(GameManager session) {
+        String key = key(session.getCurrentPet().getName());
+        Entry entry = sessions.get(key);
+        if (entry != null && entry.session == session) {
+            entry.release();
+            evictExcess(null);
+        }
+    }
+
+    /**
+     * Finds, and if asked creates, a pet's context. A context being evicted is waited for and then loaded
+     * again, so no caller is handed a context that has been closed.
+     */
+    private GameManager lookup(String petName, int petType, boolean create, boolean retain) {
+        String key = key(petName);
+        Entry entry = sessions.get(key);
+        GameManager session = entry == null ? null : entry.session;
+        if (session != null && !entry.evicted() && (!retain || entry.retain())) {
+            hits.increment();
+            entry.touch();
+            return session;
+        }
+        misses.increment();
+        if (!create) {
+            return null;
+        }
+        while (true) {
+            entry = sessions.computeIfAbsent(key, k -> new Entry());
+            try {
+                session = entry.load(factory, petName, petType);
+            } catch (RuntimeException e) {
+                sessions.remove(key, entry);
+                throw e;
+            }
+            if (retain ? entry.retain() : !entry.evicted()) {
+                break;
+            }
+            entry.awaitEviction();
+        }
+        entry.touch();
+        evictExcess(key);
+        return session;
+    }
+
+    /**
+     * Adds a game context, replacing and closing any other context of the same pet.
+     *
+     * @param session The game context to add.
+     */
+    public void register(GameManager session) {
+        String key = key(session.getCurrentPet().getName());
+        Entry previous = sessions.put(key, new Entry(session));
+        if (previous != null && previous.session != null && previous.session != session) {
+            previous.session.close();
+        }
+        evictExcess(key);
+    }
+
+    /**
+     * Saves and closes the game context of a pet and removes it from the registry.
+     *
+     * @param petName The name of the pet, in any case.
+     * @return The removed context, or {@code null} if the pet had none.
+     */
+    public GameManager remove(String petName) {
+        Entry entry = sessions.remove(key(petName));
+        GameManager session = entry == null ? null : entry.session;
+        if (session == null) {
+            return null;
+        }
+        session.saveGameAsync();
+        session.close();
+        if (current == session) {
+            current = null;
+        }
+        return session;
+    }
+
+    /**
+     * Retrieves the context the desktop application is playing.
+     *
+     * @return The current game context, or {@code null} if no pet has been chosen yet.
+     */
+    public GameManager getCurrent() {
+        return current;
+    }
+
+    /**
+     * Makes a game context the one the desktop application is playing, registering it if needed.
+     *
+     * @param session The game context to play, or {@code null} to play none.
+     */
+    public void setCurrent(GameManager session) {
+        current = session;
+        if (session != null) {
+            register(session);
+        }
+    }
+
+    /**
+     * Retrieves every resident game context.
+     *
+     * @return A snapshot of the game contexts.
+     */
+    public Collection<GameManager> sessions() {
+        List<GameManager> resident = new ArrayList<>(sessions.size());
+        for (Entry entry : sessions.values()) {
+            GameManager session = entry.session;
+            if (session != null) {
+                resident.add(session);
+            }
+        }
+        return Collections.unmodifiableList(resident);
+    }
+
+    /**
+     * Retrieves the number of resident game contexts.
+     *
+     * @return The number of game contexts.
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Retrieves the most contexts the registry keeps resident.
+     *
+     * @return The bound, or 0 if the registry is unbounded.
+     */
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    /**
+     * Retrieves the registry's cache counters.
+     *
+     * @return A snapshot of the hits, misses and evictions so far.
+     */
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), writeBacks.sum());
+    }
+
+    /**
+     * Evicts least recently used contexts until the registry is within its bound. The context just used,
+     * the current context and contexts in use are kept. Each victim is saved before it is dropped, holding
+     * its entry's lock, so a lookup of it waits and then reloads its latest state.
+     */
+    private void evictExcess(String keep) {
+        if (maxSessions == 0 || sessions.size() <= maxSessions) {
+            return;
+        }
+        synchronized (evictionLock) {
+            while (sessions.size() > maxSessions) {
+                String victimKey = null;
+                Entry victim = null;
+                for (Map.Entry<String, Entry> candidate : sessions.entrySet()) {
+                    Entry entry = candidate.getValue();
+                    if (candidate.getKey().equals(keep) || entry.session == null || entry.session == current
+                            || entry.inUse()) {
+                        continue;
+                    }
+                    if (victim == null || entry.lastAccess < victim.lastAccess) {
+                        victimKey = candidate.getKey();
+                        victim = entry;
+                    }
+                }
+                if (victim == null) {
+                    return;
+                }
+                synchronized (victim) {
+                    if (!victim.retire()) {
+                        continue; // Acquired since it was picked, so pick again
+                    }
+                    victim.session.catchUpDecay();
+                    if (victim.session.isDirty()) {
+                        writeBacks.increment();
+                        if (!victim.session.saveIfDirty()) {
+                            System.err.println("Keeping " + victimKey + " resident, its game could not be saved.");
+                            victim.reinstate();
+                            return;
+                        }
+                    }
+                    if (sessions.remove(victimKey, victim)) {
+                        victim.session.close();
+                        evictions.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    private static String key(String petName) {
+        return petName.toLowerCase();
+    }
+}
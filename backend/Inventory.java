@@ -1,11 +1,6 @@
 package backend;
 import java.util.HashMap;
 import java.util.List;
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Map;
@@ -16,7 +11,11 @@ import java.util.Map;
  */
 public class Inventory {
     private static final String FILE_PATH = "../data_handling/pets_data.csv"; // The inventory file path
+    static final List<String> ITEM_NAMES = List.of("Treat", "Snack", "Meal", "Plushy", "Ball", "Bell"); // Items a pet can own
     private Map<Item, Integer> inventory; // A map of items and their quantities in the inventory.
+    private MutationJournal journal; // Journal that records item changes, or null if they are not journaled
+    private StatePublisher publisher; // Publisher told about item changes, or null if they are not published
+    private String petName; // The pet the journaled and published changes belong to
 
     /**
      * Constructor for {@code Inventory}.
@@ -26,32 +25,6 @@ public class Inventory {
         inventory = new HashMap<>();
     }
 
-    /**
-     * Parses a CSV line into an array of values, handling commas inside quoted strings.
-     *
-     * @param line The CSV line to parse.
-     * @return An array of strings representing the values in the CSV line.
-     */
-    private String[] parseCSVLine(String line) {
-        List<String> values = new ArrayList<>();
-        StringBuilder sb = new StringBuilder();
-        boolean inQuotes = false;
-
-        for (char ch : line.toCharArray()) {
-            if (ch == '\"') {
-                inQuotes = !inQuotes;
-            } else if (ch == ',' && !inQuotes) {
-                values.add(sb.toString());
-                sb.setLength(0);
-            } else {
-                sb.append(ch);
-            }
-        }
-        values.add(sb.toString());
-
-        return values.toArray(new String[0]);
-    }
-
     /**
      * Loads inventory data for a specific pet from a CSV file.
      * The CSV file must have the columns: name, health, sleep, fullness, happiness, sleepEffectiveness, 
@@ -65,54 +38,32 @@ public class Inventory {
 
     
     public void saveToFile(String petName, String filePath) {
-        String fileName = filePath;
-        List<String> lines = new ArrayList<>();
-        boolean updated = false;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-            String line;
-
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) {
-                    continue; // Skip empty lines
-                }
-
-                String[] data = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
+        try {
+            PetsFileIndex index = PetsFileIndex.forFile(filePath);
+            String line = index.readRow(petName);
 
-
-
-                if (data[0].trim().equalsIgnoreCase(petName)) {
-                    // Update the pet's inventory
-                    line = String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,\"%s\"",
-                            data[0].trim(),
-                            data[1].trim(),
-                            data[2].trim(),
-                            data[3].trim(),
-                            data[4].trim(),
-                            data[5].trim(),
-                            data[6].trim(),
-                            data[7].trim(),
-                            data[8].trim(),
-                            this.toString()); // Use Inventory's toString() method
-                    updated = true;
-                }
-
-                lines.add(line);
-            }
-
-            if (!updated) {
+            if (line == null) {
                 System.err.println("Pet with name " + petName + " not found in the file.");
+                return;
             }
-        } catch (IOException e) {
-            System.err.println("Error reading the file: " + e.getMessage());
-        }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
-            for (String line : lines) {
-                writer.write(line);
-                writer.newLine();
-            }
-            System.out.println("Pet data successfully saved to file: " + fileName);
+            CsvTokenizer data = new CsvTokenizer().reset(line);
+
+            // Update the pet's inventory
+            line = String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,\"%s\"",
+                    data.field(0),
+                    data.field(1),
+                    data.field(2),
+                    data.field(3),
+                    data.field(4),
+                    data.field(5),
+                    data.field(6),
+                    data.field(7),
+                    data.field(8),
+                    this.toString()); // Use Inventory's toString() method
+
+            index.writeRow(petName, line);
+            System.out.println("Pet data successfully saved to file: " + filePath);
         } catch (IOException e) {
             System.err.println("Error writing to the file: " + e.getMessage());
         }
@@ -124,79 +75,148 @@ public class Inventory {
     public void loadInventory(String petName) {
         loadInventory(petName, FILE_PATH);
     }
+    /**
+     * Loads the inventory of a pet from the given pets data file. The pet's row is found through the
+     * file's {@link PetsFileIndex}, so the rest of the roster is not read.
+     *
+     * @param petName  The name of the pet whose inventory to load.
+     * @param filePath The path to the pets data file.
+     */
     public void loadInventory(String petName, String filePath) {
-        String csvFilePath = filePath;
-        try (BufferedReader br = new BufferedReader(new FileReader(csvFilePath))) {
-            String line;
-            boolean isHeader = true;
+        try {
+            String row = PetsFileIndex.forFile(filePath).readRow(petName);
+            if (row == null) {
+                System.err.println("Pet with name " + petName + " not found in the inventory file.");
+                return;
+            }
+            loadFromRow(row);
+            System.out.println("Inventory loaded for " + petName);
+        } catch (IOException e) {
+            System.err.println("Error reading the inventory file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the inventory of a pet from its row in the pets data file.
+     *
+     * @param row The pet's CSV row.
+     */
+    void loadFromRow(String row) {
+        CsvTokenizer csv = new CsvTokenizer().reset(row);
+        if (csv.fieldCount() > 9) {
+            loadInventoryColumn(csv.string(9));
+        }
+    }
 
-            while ((line = br.readLine()) != null) {
-                if (isHeader) {
-                    isHeader = false;
-                    continue; // Skip the header row
-                }
+    /**
+     * Adds the items of an inventory column in the format "ItemName: Quantity, ItemName: Quantity".
+     *
+     * @param inventoryData The inventory column, with or without its surrounding quotes.
+     */
+    private void loadInventoryColumn(String inventoryData) {
+        inventoryData = inventoryData.trim();
 
-                String[] data = parseCSVLine(line);
+        if (inventoryData.startsWith("\"") && inventoryData.endsWith("\"")) {
+            inventoryData = inventoryData.substring(1, inventoryData.length() - 1);
+        }
 
-                String name = data[0].trim();
-                if (name.equalsIgnoreCase(petName)) {
-                    String inventoryData = data[9].trim(); // Assuming inventory is at column index 8
+        String[] inventoryItems = inventoryData.split(",");
+        for (String item : inventoryItems) {
+            if (item.trim().isEmpty()) {
+                continue; // An empty inventory has no items
+            }
 
-                    if (inventoryData.startsWith("\"") && inventoryData.endsWith("\"")) {
-                        inventoryData = inventoryData.substring(1, inventoryData.length() - 1);
-                    }
+            String[] parts = item.split(":");
+            String itemName = parts[0].trim();
+            int quantity;
+            try {
+                quantity = Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                System.err.println("Invalid quantity for item: " + item);
+                continue;
+            }
 
-                    String[] inventoryItems = inventoryData.split(",");
-                    for (String item : inventoryItems) {
+            Item inventoryItem = catalogItem(itemName);
+            if (inventoryItem == null) {
+                System.err.println("Unknown item name: " + itemName);
+                continue;
+            }
 
-                        String[] parts = item.split(":");
-                        String itemName = parts[0].trim();
-                        int quantity;
-                        try {
-                            quantity = Integer.parseInt(parts[1].trim());
-                        } catch (NumberFormatException e) {
-                            System.err.println("Invalid quantity for item: " + item);
-                            continue;
-                        }
+            this.addItem(inventoryItem, quantity);
+        }
+    }
 
-                        Item inventoryItem = null;
+    /**
+     * Creates the item stored under the given name in the pets data file.
+     *
+     * @param itemName The item's name, one of {@link #ITEM_NAMES}.
+     * @return The item, or {@code null} if the name is unknown.
+     */
+    static Item catalogItem(String itemName) {
+        switch (itemName) {
+            case "Treat":
+                return new Item("Treat", "food", 10);
+            case "Snack":
+                return new Item("Snack", "gift", 25);
+            case "Meal":
+                return new Item("Meal", "food", 50);
+            case "Plushy":
+                return new Item("Plushy", "gift", 10);
+            case "Ball":
+                return new Item("Ball", "gift", 25);
+            case "Bell":
+                return new Item("Bell", "gift", 50);
+            default:
+                return null;
+        }
+    }
 
-                        switch (itemName) {
-                            case "Treat":
-                                inventoryItem = new Item("Treat", "food", 10);
-                                break;
-                            case "Snack":
-                                inventoryItem = new Item("Snack", "gift", 25);
-                                break;
-                            case "Meal":
-                                inventoryItem = new Item("Meal", "food", 50);
-                                break;
-                            case "Plushy":
-                                inventoryItem = new Item("Plushy", "gift", 10);
-                                break;
-                            case "Ball":
-                                inventoryItem = new Item("Ball", "gift", 25);
-                                break;
-                            case "Bell":
-                                inventoryItem = new Item("Bell", "gift", 50);
-                                break;
-                            default:
-                                System.err.println("Unknown item name: " + itemName);
-                                continue;
-                        }
+    /**
+     * Starts recording every item change of this inventory in the given journal.
+     *
+     * @param journal The journal to record into, or {@code null} to stop recording.
+     * @param petName The name of the pet that owns this inventory.
+     */
+    void attachJournal(MutationJournal journal, String petName) {
+        this.journal = journal;
+        this.petName = petName;
+    }
 
-                        this.addItem(inventoryItem, quantity);
-                    }
+    /**
+     * Starts announcing item changes of this inventory through the given publisher.
+     *
+     * @param publisher The publisher to announce through, or {@code null} to stop announcing.
+     * @param petName   The name of the pet that owns this inventory.
+     */
+    void attachPublisher(StatePublisher publisher, String petName) {
+        this.publisher = publisher;
+        this.petName = petName;
+    }
 
-                    System.out.println("Inventory loaded for " + name);
-                    break;
-                }
-            }
+    /**
+     * Sets the quantity of an item, removing it when the quantity drops to zero. Used when replaying the journal.
+     *
+     * @param item     The item to update.
+     * @param quantity The new quantity.
+     */
+    void setItemCount(Item item, int quantity) {
+        if (quantity > 0) {
+            inventory.put(item, quantity);
+        } else {
+            inventory.remove(item);
+        }
+    }
 
-        } catch (FileNotFoundException e) {
-            System.err.println("Inventory file not found: " + e.getMessage());
-        } catch (IOException e) {
-            System.err.println("Error reading the inventory file: " + e.getMessage());
+    /**
+     * Records the current quantity of an item if a journal is attached, and announces the change if a publisher
+     * is attached.
+     */
+    private void journal(Item item) {
+        if (journal != null) {
+            journal.recordItem(petName, item, getItemCount(item));
+        }
+        if (publisher != null) {
+            publisher.publish(StatePublisher.Source.INVENTORY, petName);
         }
     }
 
@@ -207,6 +227,7 @@ public class Inventory {
      */
     public void addItem(Item item) {
         inventory.put(item, inventory.getOrDefault(item, 0) + 1);
+        journal(item);
     }
 
     /**
@@ -217,6 +238,7 @@ public class Inventory {
      */
     public void addItem(Item item, int quantity) {
         inventory.put(item, inventory.getOrDefault(item, 0) + quantity);
+        journal(item);
     }
 
     /**
@@ -233,6 +255,7 @@ public class Inventory {
             } else {
                 inventory.remove(item);
             }
+            journal(item);
         } else {
             System.out.println("Item not found in inventory.");
         }
@@ -255,7 +278,7 @@ public class Inventory {
      */
     public Item getItem(String name) {
         for (Item item : inventory.keySet()) {
-            if (item.getName() == name) {
+            if (item.getName().equals(name)) {
                 return item;
             }
         }
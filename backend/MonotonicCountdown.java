@@ -0,0 +1,90 @@
+package backend;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * The {@code MonotonicCountdown} class is a countdown measured against a fixed {@link System#nanoTime()}
+ * deadline. The remaining time is worked out from the deadline every time it is read, so it cannot drift
+ * however late or irregularly the screen showing it is refreshed, and wall clock changes do not affect it.
+ */
+public class MonotonicCountdown {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final LongSupplier nanoTime; // The monotonic time source
+    private final long lengthNanos; // The length of the countdown
+    private final long startNanos; // When the countdown started
+    private final long deadlineNanos; // When the countdown runs out
+
+    /**
+     * Constructs a {@code MonotonicCountdown} that starts now.
+     *
+     * @param length How long the countdown lasts.
+     */
+    public MonotonicCountdown(Duration length) {
+        this(length, System::nanoTime);
+    }
+
+    /**
+     * Constructs a {@code MonotonicCountdown} that starts now according to the given time source.
+     *
+     * @param length   How long the countdown lasts.
+     * @param nanoTime The monotonic time source, in nanoseconds, such as {@code System::nanoTime}.
+     */
+    public MonotonicCountdown(Duration length, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.lengthNanos = length.toNanos();
+        this.startNanos = nanoTime.getAsLong();
+        this.deadlineNanos = startNanos + lengthNanos;
+    }
+
+    /**
+     * Retrieves how long the countdown lasts in total.
+     *
+     * @return The length of the countdown.
+     */
+    public Duration getLength() {
+        return Duration.ofNanos(lengthNanos);
+    }
+
+    /**
+     * Retrieves the time left until the deadline.
+     *
+     * @return The remaining time, or zero once the countdown has run out.
+     */
+    public Duration getRemaining() {
+        return Duration.ofNanos(remainingNanos());
+    }
+
+    /**
+     * Retrieves the remaining time in whole seconds as a countdown shows it, rounded up so that the display
+     * reads 0 only once the countdown has run out.
+     *
+     * @return The number of seconds to display.
+     */
+    public long getDisplayedSeconds() {
+        return (remainingNanos() + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+
+    /**
+     * Retrieves the time measured since the countdown started.
+     *
+     * @return The elapsed time, at most the length of the countdown.
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos(lengthNanos - remainingNanos());
+    }
+
+    /**
+     * Checks whether the countdown has run out.
+     *
+     * @return {@code true} once the deadline has passed.
+     */
+    public boolean isFinished() {
+        return remainingNanos() == 0;
+    }
+
+    private long remainingNanos() {
+        long remaining = deadlineNanos - nanoTime.getAsLong(); // Subtract first, as nanoTime may wrap around
+        return Math.max(0, Math.min(lengthNanos, remaining));
+    }
+}
@@ -0,0 +1,423 @@
+package backend;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code MutationJournal} class records every change to a pet's stats, inventory and study time as a
+ * small record appended to a journal file, instead of rewriting the CSV snapshots on each change.
+ * Each record holds the new value of one field (or the new quantity of one item), so replaying a record
+ * that is already part of a snapshot does no harm.
+ *
+ * A background compactor periodically folds the journal into the snapshot files ({@code pets_data.csv}
+ * and {@code statistics_tracker.csv}) through a {@link SaveBundle}. When a game starts, the journal is
+ * replayed on top of the last snapshot.
+ *
+ * Code that rewrites a pet's stats in the snapshot without going through the journal must first call
+ * {@link #discardPetRecords}, or the older values journaled for that pet would be replayed over its new row.
+ */
+public class MutationJournal {
+    private static final String FILE_PATH = "../data_handling/mutations.journal"; // The journal file path
+    private static final String PETS_FILE_PATH = "../data_handling/pets_data.csv"; // The pet data file path
+    private static final String STATISTICS_FILE_PATH = "../data_handling/statistics_tracker.csv"; // The statistics file path
+    private static final String COMPACTING_SUFFIX = ".compacting"; // Suffix of a journal that is being folded
+    private static final long COMPACTION_INTERVAL_MILLIS = 60_000; // Time between two background compactions
+    private static final char SEPARATOR = '\t'; // Separates the columns of a record
+    private static MutationJournal instance;
+
+    private final Path journalFile; // Records are appended here
+    private final Path compactingFile; // The journal being folded into the snapshots
+    private final String petsFilePath; // Pet snapshot the journal is folded into
+    private final String statisticsFilePath; // Statistics snapshot the journal is folded into
+    private final Object compactionLock = new Object(); // Allows one compaction at a time
+    private FileChannel channel; // Open journal, or null if the journal could not be opened
+    private ScheduledExecutorService compactor; // Runs the background compactions
+
+    /**
+     * Returns the shared journal, creating it and starting its background compactor on first use.
+     *
+     * @return The shared journal.
+     */
+    public static synchronized MutationJournal getInstance() {
+        if (instance == null) {
+            instance = new MutationJournal(FILE_PATH, PETS_FILE_PATH, STATISTICS_FILE_PATH);
+            instance.startCompactor(COMPACTION_INTERVAL_MILLIS);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "journal-shutdown"));
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a {@code MutationJournal} and opens its journal file for appending.
+     *
+     * @param journalPath        The path to the journal file.
+     * @param petsFilePath       The path to the pets data file the journal is folded into.
+     * @param statisticsFilePath The path to the statistics file the journal is folded into.
+     */
+    public MutationJournal(String journalPath, String petsFilePath, String statisticsFilePath) {
+        this.journalFile = Paths.get(journalPath);
+        this.compactingFile = Paths.get(journalPath + COMPACTING_SUFFIX);
+        this.petsFilePath = petsFilePath;
+        this.statisticsFilePath = statisticsFilePath;
+        openChannel();
+    }
+
+    /**
+     * Starts recording all changes to the given pet, inventory and statistics in this journal.
+     *
+     * @param pet       The pet to journal.
+     * @param inventory The pet's inventory.
+     * @param tracker   The pet's statistics.
+     */
+    public void attach(Pet pet, Inventory inventory, StatisticsTracker tracker) {
+        pet.attachJournal(this);
+        inventory.attachJournal(this, pet.getName());
+        tracker.attachJournal(this);
+    }
+
+    /**
+     * Records the new value of a pet stat.
+     *
+     * @param name  The pet's name.
+     * @param field The name of the stat.
+     * @param value The new value.
+     */
+    void recordPet(String name, String field, int value) {
+        append("P" + SEPARATOR + name + SEPARATOR + field + SEPARATOR + value);
+    }
+
+    /**
+     * Records the new quantity of an inventory item.
+     *
+     * @param name     The name of the pet owning the inventory.
+     * @param item     The item that changed.
+     * @param quantity The new quantity of the item.
+     */
+    void recordItem(String name, Item item, int quantity) {
+        append("I" + SEPARATOR + name + SEPARATOR + item.getName() + SEPARATOR + item.getType()
+                + SEPARATOR + item.getEffectiveness() + SEPARATOR + quantity);
+    }
+
+    /**
+     * Records the new value of a statistic.
+     *
+     * @param name  The name of the tracked pet.
+     * @param field The name of the statistic.
+     * @param value The new value.
+     */
+    void recordStatistics(String name, String field, int value) {
+        append("S" + SEPARATOR + name + SEPARATOR + field + SEPARATOR + value);
+    }
+
+    /**
+     * Appends one record to the end of the journal.
+     */
+    private synchronized void append(String record) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap((record + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing to the journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applies all journaled changes of the given pet on top of its loaded snapshot.
+     * Changes must not be journaled while replaying, so call this before {@link #attach}.
+     *
+     * @param name      The pet's name.
+     * @param pet       The pet loaded from the snapshot.
+     * @param inventory The pet's inventory loaded from the snapshot.
+     * @param tracker   The pet's statistics loaded from the snapshot.
+     */
+    public void replay(String name, Pet pet, Inventory inventory, StatisticsTracker tracker) {
+        for (String[] record : readRecords()) {
+            if (record[1].equalsIgnoreCase(name)) {
+                apply(record, pet, inventory, tracker);
+            }
+        }
+    }
+
+    /**
+     * Drops the journaled stat changes of the given pets, so they are neither replayed nor folded over rows
+     * that are about to be rewritten outside the journal. Inventory and statistics records are kept, since
+     * those columns are not rewritten. Call this before writing the new rows: a compaction running in between
+     * then has nothing to fold for these pets.
+     *
+     * @param names The names of the pets, in any case.
+     */
+    public void discardPetRecords(Collection<String> names) {
+        Set<String> keys = new HashSet<>();
+        for (String name : names) {
+            keys.add(name.toLowerCase());
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        synchronized (compactionLock) {
+            dropPetRecords(compactingFile, keys);
+            synchronized (this) {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        System.err.println("Error closing the journal: " + e.getMessage());
+                    }
+                }
+                dropPetRecords(journalFile, keys);
+                openChannel();
+            }
+        }
+    }
+
+    /**
+     * Rewrites a journal file without the stat records of the given pets, if it has any.
+     */
+    private static void dropPetRecords(Path file, Set<String> keys) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            List<String> kept = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                String[] record = line.split(String.valueOf(SEPARATOR));
+                if (record.length < 4 || !record[0].equals("P") || !keys.contains(record[1].toLowerCase())) {
+                    kept.add(line);
+                }
+            }
+            if (kept.size() < lines.size()) {
+                SaveBundle.writeLines(file, kept);
+            }
+        } catch (IOException e) {
+            System.err.println("Error discarding journal records: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts folding the journal into the snapshot files at a fixed interval on a background thread.
+     *
+     * @param intervalMillis The time between two compactions, in milliseconds.
+     */
+    public synchronized void startCompactor(long intervalMillis) {
+        if (compactor != null) {
+            return;
+        }
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compact, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Folds the journal into the snapshot files. The current journal is first moved aside so new records
+     * keep being appended while the old ones are folded, and it is only deleted once the snapshots are written.
+     *
+     * @return {@code true} if there was nothing to fold or the journal was folded successfully.
+     */
+    public boolean compact() {
+        synchronized (compactionLock) {
+            rotate();
+            if (!Files.exists(compactingFile)) {
+                return true;
+            }
+
+            Map<String, List<String[]>> recordsByPet = new LinkedHashMap<>();
+            for (String[] record : readRecords(compactingFile)) {
+                recordsByPet.computeIfAbsent(record[1].toLowerCase(), k -> new ArrayList<>()).add(record);
+            }
+
+            SaveBundle bundle = new SaveBundle();
+            try {
+                PetsFileIndex index = PetsFileIndex.forFile(petsFilePath);
+                for (List<String[]> records : recordsByPet.values()) {
+                    String name = records.get(0)[1];
+                    String row = index.readRow(name);
+                    if (row == null) {
+                        System.err.println("Dropping journal records of unknown pet: " + name);
+                        continue;
+                    }
+
+                    Pet pet = Pet.fromCsvRow(row);
+                    Inventory inventory = new Inventory();
+                    inventory.loadFromRow(row);
+                    StatisticsTracker tracker = null;
+                    for (String[] record : records) {
+                        if (record[0].equals("S") && tracker == null) {
+                            tracker = new StatisticsTracker(pet.getName(), statisticsFilePath);
+                        }
+                        apply(record, pet, inventory, tracker);
+                    }
+
+                    bundle.pet(pet, inventory, petsFilePath);
+                    if (tracker != null) {
+                        bundle.statistics(tracker, statisticsFilePath);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error compacting the journal: " + e.getMessage());
+                return false;
+            }
+
+            if (!bundle.isEmpty() && !bundle.commit()) {
+                return false; // Keep the journal so the next compaction can retry
+            }
+            try {
+                Files.deleteIfExists(compactingFile);
+            } catch (IOException e) {
+                System.err.println("Error deleting the compacted journal: " + e.getMessage());
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Stops the background compactor and closes the journal file.
+     */
+    public synchronized void close() {
+        if (compactor != null) {
+            compactor.shutdown();
+            compactor = null;
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing the journal: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Moves the current journal aside for compaction and starts a new one, unless an earlier
+     * compaction left its journal behind.
+     */
+    private synchronized void rotate() {
+        try {
+            if (Files.exists(compactingFile) || !Files.exists(journalFile) || Files.size(journalFile) == 0) {
+                return;
+            }
+            if (channel != null) {
+                channel.close();
+            }
+            Files.move(journalFile, compactingFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Error rotating the journal: " + e.getMessage());
+        }
+        openChannel();
+    }
+
+    private synchronized void openChannel() {
+        try {
+            channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Journal disabled, could not open " + journalFile + ": " + e.getMessage());
+            channel = null;
+        }
+    }
+
+    /**
+     * Reads the records of the journal being compacted followed by those of the current journal.
+     */
+    private List<String[]> readRecords() {
+        List<String[]> records;
+        synchronized (compactionLock) {
+            records = readRecords(compactingFile);
+        }
+        records.addAll(readRecords(journalFile));
+        return records;
+    }
+
+    private static List<String[]> readRecords(Path file) {
+        List<String[]> records = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return records;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] record = line.split(String.valueOf(SEPARATOR));
+                if (record.length >= 4) {
+                    records.add(record);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading the journal: " + e.getMessage());
+        }
+        return records;
+    }
+
+    /**
+     * Applies one record to the given pet state. Records for a missing target are skipped.
+     */
+    private static void apply(String[] record, Pet pet, Inventory inventory, StatisticsTracker tracker) {
+        try {
+            switch (record[0]) {
+                case "P":
+                    if (pet != null) {
+                        applyPetField(pet, record[2], Integer.parseInt(record[3]));
+                    }
+                    break;
+                case "I":
+                    if (inventory != null && record.length >= 6) {
+                        Item item = new Item(record[2], record[3], Integer.parseInt(record[4]));
+                        inventory.setItemCount(item, Integer.parseInt(record[5]));
+                    }
+                    break;
+                case "S":
+                    if (tracker != null && record[2].equals("totalStudyTime")) {
+                        tracker.setTotalStudyTime(Integer.parseInt(record[3]));
+                    }
+                    break;
+                default:
+                    System.err.println("Unknown journal record: " + String.join(",", record));
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid journal record: " + String.join(",", record));
+        }
+    }
+
+    private static void applyPetField(Pet pet, String field, int value) {
+        switch (field) {
+            case "health": pet.setHealth(value); break;
+            case "maxHealth": pet.setMaxHealth(value); break;
+            case "sleep": pet.setSleep(value); break;
+            case "maxSleep": pet.setMaxSleep(value); break;
+            case "fullness": pet.setFullness(value); break;
+            case "maxFullness": pet.setMaxFullness(value); break;
+            case "happiness": pet.setHappiness(value); break;
+            case "maxHappiness": pet.setMaxHappiness(value); break;
+            case "sleepEffectiveness": pet.setSleepEffectiveness(value); break;
+            case "playEffectiveness": pet.setPlayEffectiveness(value); break;
+            case "petType": pet.setPetType(value); break;
+            case "petScore": pet.setPetScore(value); break;
+            default:
+                System.err.println("Unknown pet field in journal: " + field);
+        }
+    }
+}
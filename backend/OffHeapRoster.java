@@ -0,0 +1,456 @@
+package backend;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The {@code OffHeapRoster} class keeps a roster of pets in a memory-mapped binary file instead of on the Java
+ * heap. Opening an existing roster maps the file and reads only its header, so even very large rosters are
+ * available at once without parsing {@code pets_data.csv} and without adding to garbage collection work.
+ *
+ * The file starts with a header, followed by a name hash table and then the pet records:
+ * <pre>
+ * header  (64 bytes)  magic, version, max pets, table size, pet count
+ * table   (4 bytes per entry)  open-addressing hash table of record number + 1, or 0 for an empty entry
+ * records (64 bytes per pet)
+ *   0  name length (1 byte) and UTF-8 name (31 bytes)
+ *   32 type, score, health, sleep, fullness, happiness, sleep effectiveness, play effectiveness (1 byte each)
+ *   40 max health, max sleep, max fullness, max happiness (1 byte each)
+ *   44 hash of the lower-case name (4 bytes)
+ *   48 count of each item in {@link Inventory#ITEM_NAMES} (2 bytes each)
+ * </pre>
+ * The number of pets is fixed when the file is created. A mapping is limited to 2 GB, which holds about
+ * 25 million pets. Methods are synchronized, so a roster can be shared between threads.
+ */
+public class OffHeapRoster implements Closeable {
+    private static final int MAGIC = 0x50524F53; // "PROS", marks a roster file
+    private static final int VERSION = 1; // Layout version of the file
+    private static final int HEADER_SIZE = 64; // Bytes before the hash table
+    private static final int RECORD_SIZE = 64; // Bytes per pet record
+    private static final int NAME_BYTES = 31; // Longest UTF-8 name a record can hold
+
+    private static final int MAX_PETS_OFFSET = 8; // Header position of the maximum number of pets
+    private static final int TABLE_SIZE_OFFSET = 12; // Header position of the number of hash table entries
+    private static final int COUNT_OFFSET = 16; // Header position of the number of stored pets
+
+    private static final int STATS_OFFSET = 32; // Record position of the stats
+    private static final int TYPE = 0, SCORE = 1, HEALTH = 2, SLEEP = 3, FULLNESS = 4, HAPPINESS = 5,
+            SLEEP_EFFECTIVENESS = 6, PLAY_EFFECTIVENESS = 7, MAX_HEALTH = 8, MAX_SLEEP = 9, MAX_FULLNESS = 10,
+            MAX_HAPPINESS = 11; // Stat positions after STATS_OFFSET
+    private static final int HASH_OFFSET = 44; // Record position of the name hash
+    private static final int ITEMS_OFFSET = 48; // Record position of the item counts
+
+    private final FileChannel channel; // The open roster file
+    private final MappedByteBuffer buffer; // The whole file, mapped into memory
+    private final int maxPets; // Number of records the file has room for
+    private final int tableSize; // Number of hash table entries, a power of two
+    private final int recordsOffset; // File position of the first record
+    private int count; // Number of stored pets
+
+    private OffHeapRoster(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a pet roster file");
+        }
+        this.maxPets = buffer.getInt(MAX_PETS_OFFSET);
+        this.tableSize = buffer.getInt(TABLE_SIZE_OFFSET);
+        this.count = buffer.getInt(COUNT_OFFSET);
+        this.recordsOffset = HEADER_SIZE + tableSize * 4;
+        if (Integer.bitCount(tableSize) != 1 || count < 0 || count > maxPets
+                || (long) recordsOffset + (long) maxPets * RECORD_SIZE > buffer.capacity()) {
+            throw new IOException("Corrupt pet roster file");
+        }
+    }
+
+    /**
+     * Creates a new, empty roster file, replacing any existing file.
+     *
+     * @param filePath The path of the roster file.
+     * @param maxPets  The number of pets the roster has room for.
+     * @return The open roster.
+     * @throws IOException if the file cannot be created.
+     * @throws IllegalArgumentException if the roster would not fit in one mapping.
+     */
+    public static OffHeapRoster create(String filePath, int maxPets) throws IOException {
+        int tableSize = Integer.highestOneBit(Math.max(2, maxPets * 2 - 1)) << 1; // At most half full
+        long size = HEADER_SIZE + (long) tableSize * 4 + (long) maxPets * RECORD_SIZE;
+        if (maxPets < 0 || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A roster cannot hold " + maxPets + " pets");
+        }
+
+        FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(MAX_PETS_OFFSET, maxPets);
+            buffer.putInt(TABLE_SIZE_OFFSET, tableSize);
+            buffer.putInt(COUNT_OFFSET, 0);
+            return new OffHeapRoster(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps an existing roster file. Only the header is read; records are paged in as they are used.
+     *
+     * @param filePath The path of the roster file.
+     * @return The open roster.
+     * @throws IOException if the file cannot be opened or is not a roster file.
+     */
+    public static OffHeapRoster open(String filePath) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Pet roster file is too large to map");
+            }
+            return new OffHeapRoster(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Builds a roster file from a pets data file, with room for every pet in it. Rows that cannot be parsed
+     * are skipped; if a name appears twice, the first row is kept.
+     *
+     * @param csvPath    The path to the pets data file.
+     * @param rosterPath The path of the roster file to create.
+     * @return The open roster.
+     * @throws IOException if either file cannot be read or written.
+     */
+    public static OffHeapRoster importCsv(String csvPath, String rosterPath) throws IOException {
+        int rows = 0;
+        try (BufferedReader br = Files.newBufferedReader(Paths.get(csvPath), StandardCharsets.UTF_8)) {
+            while (br.readLine() != null) {
+                rows++;
+            }
+        }
+
+        OffHeapRoster roster = create(rosterPath, Math.max(0, rows - 1));
+        try (BufferedReader br = new BufferedReader(new FileReader(csvPath))) {
+            CsvTokenizer csv = new CsvTokenizer(br);
+            boolean isFirstRow = true;
+            while (csv.next()) {
+                if (isFirstRow) {
+                    isFirstRow = false;
+                    continue; // Skip the header row
+                }
+                if (csv.isBlank()) {
+                    continue; // Skip empty lines
+                }
+                try {
+                    Pet pet = Pet.fromCsv(csv);
+                    if (roster.slotOf(pet.getName()) < 0) {
+                        Inventory inventory = new Inventory();
+                        inventory.loadFromRow(csv.line());
+                        roster.add(pet, inventory);
+                    }
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    System.err.println("Skipping unreadable pet row: " + csv.line().trim());
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping pet that does not fit a record: " + e.getMessage());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            roster.close();
+            throw e;
+        }
+        roster.force();
+        return roster;
+    }
+
+    /**
+     * Retrieves the number of stored pets.
+     *
+     * @return The number of pets.
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Retrieves the number of pets the roster has room for.
+     *
+     * @return The maximum number of pets.
+     */
+    public int capacity() {
+        return maxPets;
+    }
+
+    /**
+     * Finds the slot of a pet through the name hash table.
+     *
+     * @param name The pet's name (case-insensitive).
+     * @return The pet's slot, or -1 if it is not stored.
+     */
+    public synchronized int slotOf(String name) {
+        String key = key(name);
+        int hash = key.hashCode();
+        int mask = tableSize - 1;
+        for (int entry = mix(hash) & mask; ; entry = (entry + 1) & mask) {
+            int stored = buffer.getInt(HEADER_SIZE + entry * 4);
+            if (stored == 0) {
+                return -1;
+            }
+            int slot = stored - 1;
+            if (buffer.getInt(record(slot) + HASH_OFFSET) == hash && key(readName(slot)).equals(key)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Adds a pet and its inventory to the roster.
+     *
+     * @param pet       The pet to add.
+     * @param inventory The pet's inventory, or {@code null} for an empty one.
+     * @return The slot of the added pet.
+     * @throws IllegalArgumentException if the pet is already stored, its name is longer than 31 bytes,
+     *                                  or a stat or item count does not fit its field.
+     * @throws IllegalStateException    if the roster is full.
+     */
+    public synchronized int add(Pet pet, Inventory inventory) {
+        String key = key(pet.getName());
+        byte[] name = pet.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > NAME_BYTES) {
+            throw new IllegalArgumentException("Pet name is too long for a roster record: " + pet.getName());
+        }
+        if (slotOf(pet.getName()) >= 0) {
+            throw new IllegalArgumentException("Pet already stored: " + pet.getName());
+        }
+        if (count == maxPets) {
+            throw new IllegalStateException("The roster is full");
+        }
+
+        int slot = count;
+        int record = record(slot);
+        writeStats(slot, pet);
+        writeItems(slot, inventory);
+        buffer.put(record, (byte) name.length);
+        buffer.put(record + 1, name);
+        buffer.putInt(record + HASH_OFFSET, key.hashCode());
+
+        int mask = tableSize - 1;
+        int entry = mix(key.hashCode()) & mask;
+        while (buffer.getInt(HEADER_SIZE + entry * 4) != 0) {
+            entry = (entry + 1) & mask;
+        }
+        buffer.putInt(HEADER_SIZE + entry * 4, slot + 1);
+        count++;
+        buffer.putInt(COUNT_OFFSET, count);
+        return slot;
+    }
+
+    /**
+     * Reads a pet as a new {@code Pet} object.
+     *
+     * @param slot The pet's slot.
+     * @return A copy of the stored pet.
+     */
+    public synchronized Pet readPet(int slot) {
+        checkSlot(slot);
+        Pet pet = new Pet(readName(slot), stat(slot, TYPE), stat(slot, SLEEP_EFFECTIVENESS), stat(slot, PLAY_EFFECTIVENESS));
+        pet.setPetScore(stat(slot, SCORE));
+        pet.setHealth(stat(slot, HEALTH));
+        pet.setSleep(stat(slot, SLEEP));
+        pet.setFullness(stat(slot, FULLNESS));
+        pet.setHappiness(stat(slot, HAPPINESS));
+        pet.setMaxHealth(stat(slot, MAX_HEALTH));
+        pet.setMaxSleep(stat(slot, MAX_SLEEP));
+        pet.setMaxFullness(stat(slot, MAX_FULLNESS));
+        pet.setMaxHappiness(stat(slot, MAX_HAPPINESS));
+        return pet;
+    }
+
+    /**
+     * Writes a pet's stats into its slot. The name is not changed.
+     *
+     * @param slot The pet's slot.
+     * @param pet  The pet whose stats to store.
+     * @throws IllegalArgumentException if a stat does not fit in one byte.
+     */
+    public synchronized void writePet(int slot, Pet pet) {
+        checkSlot(slot);
+        writeStats(slot, pet);
+    }
+
+    /**
+     * Reads a pet's inventory as a new {@code Inventory} object.
+     *
+     * @param slot The pet's slot.
+     * @return A copy of the stored inventory.
+     */
+    public synchronized Inventory readInventory(int slot) {
+        checkSlot(slot);
+        Inventory inventory = new Inventory();
+        for (int i = 0; i < Inventory.ITEM_NAMES.size(); i++) {
+            int quantity = buffer.getShort(record(slot) + ITEMS_OFFSET + i * 2);
+            if (quantity > 0) {
+                inventory.addItem(Inventory.catalogItem(Inventory.ITEM_NAMES.get(i)), quantity);
+            }
+        }
+        return inventory;
+    }
+
+    /**
+     * Writes a pet's inventory into its slot.
+     *
+     * @param slot      The pet's slot.
+     * @param inventory The inventory to store, or {@code null} for an empty one.
+     * @throws IllegalArgumentException if an item count does not fit in two bytes.
+     */
+    public synchronized void writeInventory(int slot, Inventory inventory) {
+        checkSlot(slot);
+        writeItems(slot, inventory);
+    }
+
+    /**
+     * Advances every stored pet by the given number of hours with the {@link DecayEngine} rules, in place.
+     *
+     * @param hours The number of elapsed hours; zero or less leaves the roster unchanged.
+     */
+    public synchronized void advanceAll(long hours) {
+        if (hours <= 0) {
+            return;
+        }
+        for (int slot = 0; slot < count; slot++) {
+            int stats = record(slot) + STATS_OFFSET;
+            int sleep = buffer.get(stats + SLEEP);
+            int fullness = buffer.get(stats + FULLNESS);
+            buffer.put(stats + HAPPINESS, (byte) DecayEngine.decayHappiness(buffer.get(stats + HAPPINESS), sleep, fullness, hours));
+            buffer.put(stats + HEALTH, (byte) DecayEngine.decayHealth(buffer.get(stats + HEALTH), sleep, fullness, hours));
+            buffer.put(stats + SLEEP, (byte) DecayEngine.decayLevel(sleep, hours));
+            buffer.put(stats + FULLNESS, (byte) DecayEngine.decayLevel(fullness, hours));
+        }
+    }
+
+    /**
+     * Flushes changes to the roster file.
+     */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    /**
+     * Flushes changes and closes the roster file. The roster must not be used afterwards.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void writeStats(int slot, Pet pet) {
+        int stats = record(slot) + STATS_OFFSET;
+        buffer.put(stats + TYPE, toByte(pet.getPetType()));
+        buffer.put(stats + SCORE, toByte(pet.getPetScore()));
+        buffer.put(stats + HEALTH, toByte(pet.getHealth()));
+        buffer.put(stats + SLEEP, toByte(pet.getSleep()));
+        buffer.put(stats + FULLNESS, toByte(pet.getFullness()));
+        buffer.put(stats + HAPPINESS, toByte(pet.getHappiness()));
+        buffer.put(stats + SLEEP_EFFECTIVENESS, toByte(pet.getSleepEffectiveness()));
+        buffer.put(stats + PLAY_EFFECTIVENESS, toByte(pet.getPlayEffectiveness()));
+        buffer.put(stats + MAX_HEALTH, toByte(pet.getMaxHealth()));
+        buffer.put(stats + MAX_SLEEP, toByte(pet.getMaxSleep()));
+        buffer.put(stats + MAX_FULLNESS, toByte(pet.getMaxFullness()));
+        buffer.put(stats + MAX_HAPPINESS, toByte(pet.getMaxHappiness()));
+    }
+
+    private void writeItems(int slot, Inventory inventory) {
+        int[] quantities = new int[Inventory.ITEM_NAMES.size()];
+        if (inventory != null) {
+            for (Item item : inventory.getItemsList()) {
+                int index = Inventory.ITEM_NAMES.indexOf(item.getName());
+                if (index >= 0) {
+                    quantities[index] += inventory.getItemCount(item);
+                }
+            }
+        }
+        for (int i = 0; i < quantities.length; i++) {
+            if (quantities[i] < 0 || quantities[i] > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Item count out of range: " + quantities[i]);
+            }
+            buffer.putShort(record(slot) + ITEMS_OFFSET + i * 2, (short) quantities[i]);
+        }
+    }
+
+    private int stat(int slot, int stat) {
+        return buffer.get(record(slot) + STATS_OFFSET + stat);
+    }
+
+    private String readName(int slot) {
+        int record = record(slot);
+        byte[] name = new byte[buffer.get(record)];
+        buffer.get(record + 1, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private int record(int slot) {
+        return recordsOffset + slot * RECORD_SIZE;
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= count) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " out of bounds for " + count + " pets");
+        }
+    }
+
+    private static byte toByte(int value) {
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Stat out of range: " + value);
+        }
+        return (byte) value;
+    }
+
+    /**
+     * Spreads the bits of a string hash so that names with similar hashes land in different table entries.
+     */
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    /**
+     * Builds a roster file from a pets data file from the command line.
+     *
+     * @param args The pets data file and the roster file to create, in that order.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: OffHeapRoster <pets_data.csv> <roster file>");
+            return;
+        }
+        long start = System.nanoTime();
+        try (OffHeapRoster roster = importCsv(args[0], args[1])) {
+            System.out.printf("Imported %d pets in %.1f ms%n", roster.size(), (System.nanoTime() - start) / 1_000_000.0);
+        } catch (IOException e) {
+            System.err.println("Roster import failed: " + e.getMessage());
+        }
+
+        start = System.nanoTime();
+        try (OffHeapRoster roster = open(args[1])) {
+            System.out.printf("Opened %d pets in %.1f ms%n", roster.size(), (System.nanoTime() - start) / 1_000_000.0);
+        } catch (IOException e) {
+            System.err.println("Roster open failed: " + e.getMessage());
+        }
+    }
+}
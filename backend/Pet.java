@@ -1,10 +1,5 @@
 package backend;
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -44,6 +39,10 @@ public class Pet {
     private int petType;
     
     private int petScore;
+    /** Journal that records every stat change, or {@code null} if changes are not journaled */
+    private MutationJournal journal;
+    /** Publisher told about every stat change, or {@code null} if changes are not published */
+    private StatePublisher publisher;
 
     private static final String FILE_PATH = "../data_handling/pets_data.csv"; // The pet data file path
 
@@ -75,69 +74,114 @@ public class Pet {
     /**
      * Saves the pet's data to a CSV file.
      * If the pet already exists in the file, its data is updated; otherwise, a new record is added.
+     * Stat changes journaled for a pet of this name are dropped first, so they are not replayed over this row.
      */
     public void saveToFile() {
+        MutationJournal.getInstance().discardPetRecords(List.of(name));
         saveToFile(FILE_PATH);
     }
+    /**
+     * Saves the pet's data to the given CSV file, keeping the pet's existing inventory column.
+     * Only the pet's own row is touched; see {@link PetsFileIndex}.
+     *
+     * @param filePath The path to the pets data file.
+     */
     public void saveToFile(String filePath) {
-        String fileName = filePath;
-        List<String> lines = new ArrayList<>();
-        boolean updated = false;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-            String line;
-
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) {
-                    continue; // Skip empty lines
-                }
-
-                String[] data = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
-
-                if (data[0].equalsIgnoreCase(name)) {
-                    // Update the line with new values, leaving the last column blank
-                    line = String.format("%s,%d,%d,%d,%d,%d,%d,%d,%d",
-                            name,
-                            petType,
-                            petScore,
-                            health,
-                            sleep,
-                            fullness,
-                            happiness,
-                            sleepEffectiveness,
-                            playEffectiveness);
-                    updated = true;
-                }
-
-                lines.add(line);
+        try {
+            PetsFileIndex index = PetsFileIndex.forFile(filePath);
+            String existing = index.readRow(name);
+            String inventory = "\"Treat: 1, Plushy: 1\""; // Inventory for a new pet
+
+            if (existing != null) {
+                CsvTokenizer csv = new CsvTokenizer().reset(existing);
+                inventory = csv.fieldCount() > 9 ? "\"" + csv.string(9) + "\"" : null;
             }
 
-            if (!updated) {
-                // Add new pet data with inventory
-                lines.add(String.format("%s,%d,%d,%d,%d,%d,%d,%d,%d,\"%s\"",
-                        name,
-                        petType,
-                        petScore,
-                        health,
-                        sleep,
-                        fullness,
-                        happiness,
-                        sleepEffectiveness,
-                        playEffectiveness,
-                        "Treat: 1, Plushy: 1")); // Add inventory for a new pet
-            }
+            index.writeRow(name, toCsvRow(inventory));
+            System.out.println("Pet data successfully saved to file: " + filePath);
         } catch (IOException e) {
-            System.err.println("Error reading the file: " + e.getMessage());
+            System.err.println("Error writing to the file: " + e.getMessage());
         }
+    }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
-            for (String line : lines) {
-                writer.write(line);
-                writer.newLine();
-            }
-            System.out.println("Pet data successfully saved to file: " + fileName);
-        } catch (IOException e) {
-            System.err.println("Error writing to the file: " + e.getMessage());
+    /**
+     * Builds the pet's row for the pets data file.
+     *
+     * @param inventory The already quoted inventory column, or {@code null} to leave it out.
+     * @return The CSV row for the pet.
+     */
+    String toCsvRow(String inventory) {
+        StringBuilder row = new StringBuilder(64 + (inventory == null ? 0 : inventory.length()))
+                .append(getName()).append(',')
+                .append(getPetType()).append(',')
+                .append(getPetScore()).append(',')
+                .append(getHealth()).append(',')
+                .append(getSleep()).append(',')
+                .append(getFullness()).append(',')
+                .append(getHappiness()).append(',')
+                .append(getSleepEffectiveness()).append(',')
+                .append(getPlayEffectiveness());
+        if (inventory != null) {
+            row.append(',').append(inventory);
+        }
+        return row.toString();
+    }
+
+    /**
+     * Creates a pet from its row in the pets data file.
+     *
+     * @param row The CSV row, optionally followed by the inventory column and slot padding.
+     * @return The pet described by the row.
+     * @throws NumberFormatException if a stat column is not a number.
+     */
+    static Pet fromCsvRow(String row) {
+        return fromCsv(new CsvTokenizer().reset(row));
+    }
+
+    /**
+     * Creates a pet from the current record of a tokenizer reading the pets data file.
+     *
+     * @param csv The tokenizer positioned on the pet's record.
+     * @return The pet described by the record.
+     * @throws NumberFormatException if a stat column is not a number.
+     */
+    static Pet fromCsv(CsvTokenizer csv) {
+        Pet pet = new Pet(csv.string(0), csv.intField(1), csv.intField(7), csv.intField(8));
+        pet.setPetScore(csv.intField(2));
+        pet.setHealth(csv.intField(3));
+        pet.setSleep(csv.intField(4));
+        pet.setFullness(csv.intField(5));
+        pet.setHappiness(csv.intField(6));
+        return pet;
+    }
+
+    /**
+     * Starts recording every stat change of this pet in the given journal.
+     *
+     * @param journal The journal to record into, or {@code null} to stop recording.
+     */
+    void attachJournal(MutationJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Starts announcing stat changes of this pet through the given publisher.
+     *
+     * @param publisher The publisher to announce through, or {@code null} to stop announcing.
+     */
+    void attachPublisher(StatePublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * Records a stat change if a journal is attached, and announces it if a publisher is attached.
+     */
+    private void journal(String field, int value) {
+        if (journal != null) {
+            journal.recordPet(name, field, value);
+        }
+        if (publisher != null) {
+            publisher.publish(StatePublisher.Source.PET, name);
         }
     }
 
@@ -147,38 +191,38 @@ public class Pet {
     public void setName(String name) { this.name = name; }
 
     /** @param health Sets the pet's health. */
-    public void setHealth(int health) { this.health = health; }
+    public void setHealth(int health) { this.health = health; journal("health", health); }
 
     /** @param maxHealth Sets the pet's maximum health. */
-    public void setMaxHealth(int maxHealth) { this.maxHealth = maxHealth; }
+    public void setMaxHealth(int maxHealth) { this.maxHealth = maxHealth; journal("maxHealth", maxHealth); }
 
     /** @param sleep Sets the pet's sleep level. */
-    public void setSleep(int sleep) { this.sleep = sleep; }
+    public void setSleep(int sleep) { this.sleep = sleep; journal("sleep", sleep); }
 
     /** @param maxSleep Sets the pet's maximum sleep level. */
-    public void setMaxSleep(int maxSleep) { this.maxSleep = maxSleep; }
+    public void setMaxSleep(int maxSleep) { this.maxSleep = maxSleep; journal("maxSleep", maxSleep); }
 
     /** @param fullness Sets the pet's fullness. */
-    public void setFullness(int fullness) { this.fullness = fullness; }
+    public void setFullness(int fullness) { this.fullness = fullness; journal("fullness", fullness); }
 
     /** @param maxFullness Sets the pet's maximum fullness. */
-    public void setMaxFullness(int maxFullness) { this.maxFullness = maxFullness; }
+    public void setMaxFullness(int maxFullness) { this.maxFullness = maxFullness; journal("maxFullness", maxFullness); }
 
     /** @param happiness Sets the pet's happiness. */
-    public void setHappiness(int happiness) { this.happiness = happiness; }
+    public void setHappiness(int happiness) { this.happiness = happiness; journal("happiness", happiness); }
 
     /** @param maxHappiness Sets the pet's maximum happiness. */
-    public void setMaxHappiness(int maxHappiness) { this.maxHappiness = maxHappiness; }
+    public void setMaxHappiness(int maxHappiness) { this.maxHappiness = maxHappiness; journal("maxHappiness", maxHappiness); }
 
     /** @param sleepEffectiveness Sets the effectiveness of sleep. */
-    public void setSleepEffectiveness(int sleepEffectiveness) { this.sleepEffectiveness = sleepEffectiveness; }
+    public void setSleepEffectiveness(int sleepEffectiveness) { this.sleepEffectiveness = sleepEffectiveness; journal("sleepEffectiveness", sleepEffectiveness); }
 
     /** @param playEffectiveness Sets the effectiveness of play. */
-    public void setPlayEffectiveness(int playEffectiveness) { this.playEffectiveness = playEffectiveness; }
+    public void setPlayEffectiveness(int playEffectiveness) { this.playEffectiveness = playEffectiveness; journal("playEffectiveness", playEffectiveness); }
 
     /** @param type the type of the pet
      */
-    public void setPetType(int type) { this.petType = type;}
+    public void setPetType(int type) { this.petType = type; journal("petType", type); }
 
     // Getter methods
     /** @return The pet's name. */
@@ -219,7 +263,7 @@ public class Pet {
 
     public int getPetScore() { return this.petScore; }
 
-    public int setPetScore(int score) { return this.petScore = score; }
+    public int setPetScore(int score) { this.petScore = score; journal("petScore", score); return score; }
     
     /**
      * Increases the pet's sleep level by the sleep effectiveness value.
@@ -276,13 +320,13 @@ public class Pet {
     @Override
     public String toString() {
         return "=== Pet Information ===\n" +
-            "Name: " + name + "\n" +
-            "Pet type: " + petType + "\n" +
-            "Health: " + health + "/" + maxHealth + "\n" +
-            "Sleep: " + sleep + "/" + maxSleep + "\n" +
-            "Fullness: " + fullness + "/" + maxFullness + "\n" +
-            "Happiness: " + happiness + "/" + maxHappiness + "\n" +
-            "Sleep Effectiveness: " + sleepEffectiveness + "\n" +
-            "Play Effectiveness: " + playEffectiveness + "\n";
+            "Name: " + getName() + "\n" +
+            "Pet type: " + getPetType() + "\n" +
+            "Health: " + getHealth() + "/" + maxHealth + "\n" +
+            "Sleep: " + getSleep() + "/" + maxSleep + "\n" +
+            "Fullness: " + getFullness() + "/" + maxFullness + "\n" +
+            "Happiness: " + getHappiness() + "/" + maxHappiness + "\n" +
+            "Sleep Effectiveness: " + getSleepEffectiveness() + "\n" +
+            "Play Effectiveness: " + getPlayEffectiveness() + "\n";
     }
 }
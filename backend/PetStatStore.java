@@ -0,0 +1,375 @@
+package backend;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code PetStatStore} class keeps the stats of a large roster in parallel primitive columns instead of one
+ * {@code Pet} object per pet. Every stat is between 0 and 100, so each column is a {@code byte[]}, which takes
+ * a few bytes per pet and keeps bulk passes such as decay and scoring in tight loops over contiguous memory.
+ *
+ * Each pet is a row. {@link #view(int)} returns a {@link Pet} that reads and writes the row directly, so code
+ * written against {@code Pet} can work on stored pets without copying them.
+ */
+public class PetStatStore {
+    private static final int DEFAULT_CAPACITY = 16; // Rows allocated for a new, empty store
+    private static final int MAX_SCORE = 100; // Highest possible pet score
+    private static final int SATURATING_HOURS = 256; // Beyond this many hours every stat has hit its floor
+
+    private String[] names; // Pet name of each row
+    private byte[] types; // Pet type of each row
+    private byte[] scores; // Score of each row
+    private byte[] health; // Health of each row
+    private byte[] sleep; // Sleep level of each row
+    private byte[] fullness; // Fullness of each row
+    private byte[] happiness; // Happiness of each row
+    private byte[] sleepEffectiveness; // Sleep effectiveness of each row
+    private byte[] playEffectiveness; // Play effectiveness of each row
+    private final Map<String, Integer> rows; // Lower-case pet name -> row
+    private int size; // Number of rows in use
+
+    /**
+     * Constructs an empty {@code PetStatStore}.
+     */
+    public PetStatStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty {@code PetStatStore} with room for the given number of pets.
+     *
+     * @param capacity The number of pets to allocate room for.
+     */
+    public PetStatStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        this.names = new String[capacity];
+        this.types = new byte[capacity];
+        this.scores = new byte[capacity];
+        this.health = new byte[capacity];
+        this.sleep = new byte[capacity];
+        this.fullness = new byte[capacity];
+        this.happiness = new byte[capacity];
+        this.sleepEffectiveness = new byte[capacity];
+        this.playEffectiveness = new byte[capacity];
+        this.rows = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Loads every pet of a pets data file straight into columns, without creating a {@code Pet} per row.
+     * Rows that cannot be parsed are skipped; if a name appears twice, the first row is kept.
+     *
+     * @param filePath The path to the pets data file.
+     * @return The loaded store.
+     * @throws IOException if the file cannot be read.
+     */
+    public static PetStatStore load(String filePath) throws IOException {
+        PetStatStore store = new PetStatStore();
+        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+            CsvTokenizer csv = new CsvTokenizer(br);
+            boolean isFirstRow = true;
+            while (csv.next()) {
+                if (isFirstRow) {
+                    isFirstRow = false;
+                    continue; // Skip the header row
+                }
+                if (csv.isBlank()) {
+                    continue; // Skip empty lines
+                }
+                try {
+                    String name = csv.string(0);
+                    if (store.rowOf(name) < 0) {
+                        store.add(name, csv.intField(1), csv.intField(2), csv.intField(3), csv.intField(4),
+                                csv.intField(5), csv.intField(6), csv.intField(7), csv.intField(8));
+                    }
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    System.err.println("Skipping unreadable pet row: " + csv.line().trim());
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping pet with out-of-range stats: " + csv.line().trim());
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Adds a copy of a pet's stats to the store.
+     *
+     * @param pet The pet to add.
+     * @return The row of the added pet.
+     * @throws IllegalArgumentException if a pet with that name is already stored or a stat is out of range.
+     */
+    public int add(Pet pet) {
+        return add(pet.getName(), pet.getPetType(), pet.getPetScore(), pet.getHealth(), pet.getSleep(),
+                pet.getFullness(), pet.getHappiness(), pet.getSleepEffectiveness(), pet.getPlayEffectiveness());
+    }
+
+    /**
+     * Adds a pet to the store.
+     *
+     * @return The row of the added pet.
+     * @throws IllegalArgumentException if a pet with that name is already stored or a stat is out of range.
+     */
+    public int add(String name, int type, int score, int health, int sleep, int fullness, int happiness,
+                   int sleepEffectiveness, int playEffectiveness) {
+        String key = key(name);
+        if (rows.containsKey(key)) {
+            throw new IllegalArgumentException("Pet already stored: " + name);
+        }
+        if (size == names.length) {
+            grow();
+        }
+        int row = size;
+        names[row] = name;
+        types[row] = toByte(type);
+        scores[row] = toByte(score);
+        this.health[row] = toByte(health);
+        this.sleep[row] = toByte(sleep);
+        this.fullness[row] = toByte(fullness);
+        this.happiness[row] = toByte(happiness);
+        this.sleepEffectiveness[row] = toByte(sleepEffectiveness);
+        this.playEffectiveness[row] = toByte(playEffectiveness);
+        rows.put(key, row);
+        size++;
+        return row;
+    }
+
+    /**
+     * Finds the row of a pet.
+     *
+     * @param name The pet's name (case-insensitive).
+     * @return The pet's row, or -1 if it is not stored.
+     */
+    public int rowOf(String name) {
+        Integer row = rows.get(key(name));
+        return row == null ? -1 : row;
+    }
+
+    /**
+     * Retrieves the number of stored pets.
+     *
+     * @return The number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a {@code Pet} backed by a row of the store. Reading or changing the view's name, type, score,
+     * health, sleep, fullness, happiness or effectiveness reads or changes the row itself.
+     *
+     * @param row The row to view.
+     * @return The view of the row.
+     * @throws IndexOutOfBoundsException if the row does not exist.
+     */
+    public Pet view(int row) {
+        checkRow(row);
+        return new PetView(row);
+    }
+
+    /**
+     * Returns a {@code Pet} backed by the row of the named pet.
+     *
+     * @param name The pet's name (case-insensitive).
+     * @return The view of the pet, or {@code null} if it is not stored.
+     */
+    public Pet view(String name) {
+        int row = rowOf(name);
+        return row < 0 ? null : new PetView(row);
+    }
+
+    /**
+     * Advances every stored pet by the given number of hours with the same rules as {@link DecayEngine}.
+     * The pass is a single loop over the columns without calls or data-dependent branches, which the JIT can
+     * compile to vector instructions.
+     *
+     * @param hours The number of elapsed hours; zero or less leaves the store unchanged.
+     */
+    public void advanceAll(long hours) {
+        if (hours <= 0) {
+            return;
+        }
+        // Every stat is at most 127, so past this many hours all counts saturate and the result no longer changes
+        int n = (int) Math.min(hours, SATURATING_HOURS);
+        int low = DecayEngine.LOW_THRESHOLD;
+        for (int i = 0; i < size; i++) {
+            int s = sleep[i];
+            int f = fullness[i];
+
+            int lowHours = Math.max(0, n - Math.max(0, s - low)) + Math.max(0, n - Math.max(0, f - low));
+            int emptyHours = (s < 0 ? n - 1 : Math.max(0, n - s)) + (f < 0 ? n - 1 : Math.max(0, n - f));
+
+            int h = happiness[i];
+            happiness[i] = (byte) (lowHours == 0 ? h : Math.max(0, h - lowHours));
+            int hp = health[i];
+            health[i] = (byte) (emptyHours == 0 ? hp : Math.max(0, hp - emptyHours));
+            sleep[i] = (byte) Math.max(0, s - n);
+            fullness[i] = (byte) Math.max(0, f - n);
+        }
+    }
+
+    /**
+     * Adds points to the score of every pet, capped at 100, in one pass over the score column.
+     *
+     * @param points The points to add to each pet.
+     */
+    public void addScoreAll(int points) {
+        for (int i = 0; i < size; i++) {
+            scores[i] = (byte) Math.max(0, Math.min(MAX_SCORE, scores[i] + points));
+        }
+    }
+
+    /**
+     * Counts how many stored pets have each score.
+     *
+     * @return An array where index {@code s} holds the number of pets with score {@code s}, for 0 to 100.
+     */
+    public int[] scoreHistogram() {
+        int[] histogram = new int[MAX_SCORE + 1];
+        for (int i = 0; i < size; i++) {
+            histogram[Math.max(0, Math.min(MAX_SCORE, scores[i]))]++;
+        }
+        return histogram;
+    }
+
+    /**
+     * Finds the highest-scoring pets with a counting sort over the score column, in time linear in the roster.
+     *
+     * @param count The number of rows to return.
+     * @return Up to {@code count} rows, highest score first; ties keep row order.
+     */
+    public int[] topByScore(int count) {
+        int[] histogram = scoreHistogram();
+        int needed = Math.min(Math.max(0, count), size);
+        int[] next = new int[MAX_SCORE + 1]; // First output position of each score
+        int position = 0;
+        int cutoff = MAX_SCORE + 1; // Lowest score that makes it into the result
+        for (int score = MAX_SCORE; score >= 0 && position < needed; score--) {
+            next[score] = position;
+            position += histogram[score];
+            cutoff = score;
+        }
+
+        int[] top = new int[needed];
+        for (int i = 0; i < size; i++) {
+            int score = Math.max(0, Math.min(MAX_SCORE, scores[i]));
+            if (score >= cutoff && next[score] < needed) {
+                top[next[score]++] = i;
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Computes the average happiness of the stored pets.
+     *
+     * @return The average happiness, or 0 if the store is empty.
+     */
+    public double averageHappiness() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += happiness[i];
+        }
+        return size == 0 ? 0 : (double) total / size;
+    }
+
+    private void grow() {
+        int capacity = names.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        types = Arrays.copyOf(types, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+        health = Arrays.copyOf(health, capacity);
+        sleep = Arrays.copyOf(sleep, capacity);
+        fullness = Arrays.copyOf(fullness, capacity);
+        happiness = Arrays.copyOf(happiness, capacity);
+        sleepEffectiveness = Arrays.copyOf(sleepEffectiveness, capacity);
+        playEffectiveness = Arrays.copyOf(playEffectiveness, capacity);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + size + " pets");
+        }
+    }
+
+    private static byte toByte(int value) {
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Stat out of range: " + value);
+        }
+        return (byte) value;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    /**
+     * A {@code Pet} whose stats live in a row of the store. Maximum stats are not stored and keep their defaults.
+     */
+    private class PetView extends Pet {
+        private final int row; // The row this view reads and writes
+
+        PetView(int row) {
+            super(names[row], types[row], sleepEffectiveness[row], playEffectiveness[row]);
+            this.row = row;
+        }
+
+        @Override
+        public String getName() { return names[row]; }
+
+        @Override
+        public void setName(String name) {
+            throw new UnsupportedOperationException("Stored pets cannot be renamed");
+        }
+
+        @Override
+        public int getPetType() { return types[row]; }
+
+        @Override
+        public void setPetType(int type) { types[row] = toByte(type); }
+
+        @Override
+        public int getPetScore() { return scores[row]; }
+
+        @Override
+        public int setPetScore(int score) { scores[row] = toByte(score); return score; }
+
+        @Override
+        public int getHealth() { return health[row]; }
+
+        @Override
+        public void setHealth(int value) { health[row] = toByte(value); }
+
+        @Override
+        public int getSleep() { return sleep[row]; }
+
+        @Override
+        public void setSleep(int value) { sleep[row] = toByte(value); }
+
+        @Override
+        public int getFullness() { return fullness[row]; }
+
+        @Override
+        public void setFullness(int value) { fullness[row] = toByte(value); }
+
+        @Override
+        public int getHappiness() { return happiness[row]; }
+
+        @Override
+        public void setHappiness(int value) { happiness[row] = toByte(value); }
+
+        @Override
+        public int getSleepEffectiveness() { return sleepEffectiveness[row]; }
+
+        @Override
+        public void setSleepEffectiveness(int value) { sleepEffectiveness[row] = toByte(value); }
+
+        @Override
+        public int getPlayEffectiveness() { return playEffectiveness[row]; }
+
+        @Override
+        public void setPlayEffectiveness(int value) { playEffectiveness[row] = toByte(value); }
+    }
+}
@@ -2,16 +2,27 @@ package backend;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The {@code PetsDictionary} class is responsible for loading and managing a collection of pets
  * from a CSV file. It provides functionality to retrieve pets by their name or access all pets as a map.
+ *
+ * Screens that only list or look up pets should use {@link #getShared()}, a process-wide dictionary that is
+ * loaded once and reloaded only when the file's modification time or size changes. Saves made through
+ * {@link PetsFileIndex} update the shared dictionary in place instead of forcing a reload.
  */
 public class PetsDictionary {
     private static final String FILE_NAME = "../data_handling/pets_data.csv";
+    private static final Map<Path, PetsDictionary> SHARED = new ConcurrentHashMap<>(); // Shared dictionary per file
     private Map<String, Pet> pets; // A map of pet names to their respective Pet objects.
+    private volatile long[] loadedStamp; // Modification time and size of the file this dictionary reflects
 
     /**
      * Constructs a {@code PetsDictionary} instance and loads pet data from a CSV file.
@@ -24,39 +35,25 @@ public class PetsDictionary {
 
     public PetsDictionary(String filePath) {
         String fileName = filePath;
-        this.pets = new HashMap<>();
+        this.pets = new ConcurrentHashMap<>();
+        this.loadedStamp = stamp(Paths.get(filePath));
 
         try (BufferedReader br = new BufferedReader(new FileReader(fileName))) {
-            String line;
+            CsvTokenizer csv = new CsvTokenizer(br);
             boolean isFirstRow = true;
 
-            while ((line = br.readLine()) != null) {
+            while (csv.next()) {
                 if (isFirstRow) {
                     isFirstRow = false;
                     continue; // Skip the header row
                 }
 
-                String[] values = line.split(",");
-
-                String name = values[0];
-                int petType = Integer.parseInt(values[1]);
-                int petScore = Integer.parseInt(values[2]);
-                int health = Integer.parseInt(values[3]);
-                int sleep = Integer.parseInt(values[4]);
-                int fullness = Integer.parseInt(values[5]);
-                int happiness = Integer.parseInt(values[6]);
-                int sleepEffectiveness = Integer.parseInt(values[7]);
-                int playEffectiveness = Integer.parseInt(values[8]);
-
-                Pet pet = new Pet(name, petType, sleepEffectiveness, playEffectiveness);
-                pet.setPetType(petType);
-                pet.setPetScore(petScore);
-                pet.setHealth(health);
-                pet.setSleep(sleep);
-                pet.setFullness(fullness);
-                pet.setHappiness(happiness);
-
-                pets.put(name, pet);
+                if (csv.isBlank()) {
+                    continue; // Skip empty lines
+                }
+
+                Pet pet = Pet.fromCsv(csv);
+                pets.put(pet.getName(), pet);
             }
         } catch (IOException e) {
             System.err.println("Error reading the CSV file: " + e.getMessage());
@@ -65,6 +62,115 @@ public class PetsDictionary {
         }
     }
 
+    /**
+     * Returns the shared dictionary of the default pets data file.
+     *
+     * @return The shared dictionary.
+     * @see #getShared(String)
+     */
+    public static PetsDictionary getShared() {
+        return getShared(FILE_NAME);
+    }
+
+    /**
+     * Returns the process-wide dictionary of the given pets data file, loading it on first use and reloading it
+     * if the file was changed by something other than {@link PetsFileIndex}. The returned pets are shared, so
+     * callers must not modify them; use {@link #loadPet(String)} to get a pet to play with.
+     *
+     * @param filePath The path to the pets data file.
+     * @return The shared dictionary.
+     */
+    public static PetsDictionary getShared(String filePath) {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        PetsDictionary cached = SHARED.get(path);
+        if (cached != null && cached.isCurrent(path)) {
+            return cached;
+        }
+        synchronized (SHARED) {
+            cached = SHARED.get(path);
+            if (cached == null || !cached.isCurrent(path)) {
+                cached = new PetsDictionary(filePath);
+                SHARED.put(path, cached);
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * Updates the shared dictionary of a file after {@link PetsFileIndex} wrote some of its rows. If the shared
+     * dictionary still reflected the file as it was before the write, the written pets are replaced in place;
+     * otherwise the dictionary is left to be reloaded on its next use.
+     *
+     * @param path        The absolute path to the pets data file.
+     * @param stampBefore The file's modification time and size before the write, see {@link #stamp(Path)}.
+     * @param rows        The rows that were written.
+     */
+    static void rowsWritten(Path path, long[] stampBefore, Collection<String> rows) {
+        synchronized (SHARED) {
+            PetsDictionary cached = SHARED.get(path);
+            if (cached == null || !Arrays.equals(cached.loadedStamp, stampBefore)) {
+                return;
+            }
+            try {
+                for (String row : rows) {
+                    Pet pet = Pet.fromCsvRow(row);
+                    cached.pets.put(pet.getName(), pet);
+                }
+                cached.loadedStamp = stamp(path);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                SHARED.remove(path); // Let the next use reload the whole file
+            }
+        }
+    }
+
+    /**
+     * Reads the modification time and size of a file.
+     *
+     * @param path The file to inspect.
+     * @return The file's modification time in milliseconds and its size, or {0, -1} if it does not exist.
+     */
+    static long[] stamp(Path path) {
+        try {
+            return new long[] {Files.getLastModifiedTime(path).toMillis(), Files.size(path)};
+        } catch (IOException e) {
+            return new long[] {0, -1};
+        }
+    }
+
+    private boolean isCurrent(Path path) {
+        return Arrays.equals(loadedStamp, stamp(path));
+    }
+
+    /**
+     * Loads a single pet from the default pets data file without reading the rest of the roster.
+     *
+     * @param name The name of the pet to load (case-insensitive).
+     * @return The pet, or {@code null} if it is not in the file.
+     */
+    public static Pet loadPet(String name) {
+        return loadPet(name, FILE_NAME);
+    }
+
+    /**
+     * Loads a single pet from the given pets data file. The pet's row is found through the file's
+     * {@link PetsFileIndex}, so the cost does not depend on the size of the roster.
+     *
+     * @param name     The name of the pet to load (case-insensitive).
+     * @param filePath The path to the pets data file.
+     * @return The pet, or {@code null} if it is not in the file or its row cannot be read.
+     */
+    public static Pet loadPet(String name, String filePath) {
+        try {
+            String row = PetsFileIndex.forFile(filePath).readRow(name);
+            return row == null ? null : Pet.fromCsvRow(row);
+        } catch (IOException e) {
+            System.err.println("Error reading the CSV file: " + e.getMessage());
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            System.err.println("Error parsing pet from CSV file: " + e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Retrieves the map of all pets.
      *
@@ -0,0 +1,451 @@
+package backend;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code PetsFileIndex} class keeps a row-offset index for the pets data file, mapping each pet name
+ * to the byte offset and slot length of its row. A save only touches the affected record: a row that still
+ * fits its slot is overwritten in place and padded with spaces, and a new pet is appended at the end.
+ * The whole file is rewritten (and compacted) only when a row grows past its slot.
+ *
+ * The index is persisted next to the data file (e.g. {@code pets_data.csv.idx}) so it survives restarts.
+ * It is rebuilt with a single scan whenever the data file length no longer matches the indexed length.
+ */
+public class PetsFileIndex {
+    private static final String INDEX_SUFFIX = ".idx"; // Suffix of the persisted index file
+    private static final int INDEX_MAGIC = 0x50494458; // "PIDX", marks a valid index file
+    private static final int ROW_SLACK = 16; // Spare bytes given to a rewritten row so it can grow in place
+    private static final String HEADER = "name,type,health,sleep,fullness,happiness,sleepEffectiveness,playEffectiveness,inventory";
+    private static final Map<Path, PetsFileIndex> OPEN_INDEXES = new ConcurrentHashMap<>(); // One index per data file
+
+    private final Path dataFile; // The indexed CSV file
+    private final Path indexFile; // The persisted index next to the data file
+    private Map<String, long[]> slots; // Lower-case pet name -> {offset, slot length} of its row
+    private String lineSeparator; // Line separator used by the data file
+    private long indexedLength; // Length of the data file when the index was last brought up to date
+
+    /**
+     * Returns the shared index for the given data file, loading it from disk or building it on first use.
+     *
+     * @param filePath The path to the pets data file.
+     * @return The index for the file.
+     * @throws IOException if the data file cannot be scanned.
+     */
+    public static PetsFileIndex forFile(String filePath) throws IOException {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        PetsFileIndex index = OPEN_INDEXES.computeIfAbsent(path, PetsFileIndex::new);
+        index.ensureCurrent();
+        return index;
+    }
+
+    private PetsFileIndex(Path dataFile) {
+        this.dataFile = dataFile;
+        this.indexFile = Paths.get(dataFile.toString() + INDEX_SUFFIX);
+        this.slots = new HashMap<>();
+        this.lineSeparator = System.lineSeparator();
+        this.indexedLength = -1;
+    }
+
+    /**
+     * Reads the row of the given pet, without its slot padding.
+     *
+     * @param name The pet's name (case-insensitive).
+     * @return The row, or {@code null} if the pet is not in the file.
+     * @throws IOException if the file cannot be read.
+     */
+    public synchronized String readRow(String name) throws IOException {
+        ensureCurrent();
+        String row = readSlot(name);
+        if (row == null && slots.containsKey(key(name))) {
+            // The slot no longer holds this pet, so the file was changed behind our back
+            rebuild();
+            row = readSlot(name);
+        }
+        return row;
+    }
+
+    /**
+     * Writes the row of the given pet. The row is overwritten in place if it fits its slot,
+     * appended if the pet is new, and otherwise the file is compacted and rewritten.
+     *
+     * @param name The pet's name (case-insensitive).
+     * @param row  The complete CSV row for the pet.
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized void writeRow(String name, String row) throws IOException {
+        Map<String, String> rows = new HashMap<>();
+        rows.put(name, row);
+        writeRows(rows);
+    }
+
+    /**
+     * Writes several pet rows at once. Rows that fit their slots are overwritten in place and new pets are
+     * appended; if any row outgrew its slot, all changes are applied in a single compacting rewrite instead.
+     *
+     * @param rows A map of pet names to their complete CSV rows.
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized void writeRows(Map<String, String> rows) throws IOException {
+        long[] stampBefore = PetsDictionary.stamp(dataFile);
+        writeRowsToFile(rows);
+        PetsDictionary.rowsWritten(dataFile, stampBefore, rows.values());
+    }
+
+    /**
+     * Replaces many pet rows in a single sequential rewrite of the file, without visiting each slot first.
+     * Bulk jobs that change most of the roster should use this instead of {@link #writeRows(Map)}.
+     *
+     * @param rows A map of pet names to their complete CSV rows.
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized void rewriteRows(Map<String, String> rows) throws IOException {
+        long[] stampBefore = PetsDictionary.stamp(dataFile);
+        ensureCurrent();
+        Map<String, String> byKey = new HashMap<>(rows.size() * 2);
+        for (Map.Entry<String, String> entry : rows.entrySet()) {
+            byKey.put(key(entry.getKey()), entry.getValue());
+        }
+        rewrite(byKey);
+        PetsDictionary.rowsWritten(dataFile, stampBefore, rows.values());
+    }
+
+    private void writeRowsToFile(Map<String, String> rows) throws IOException {
+        ensureCurrent();
+        Map<String, String> byKey = new HashMap<>();
+        for (Map.Entry<String, String> entry : rows.entrySet()) {
+            byKey.put(key(entry.getKey()), entry.getValue());
+        }
+
+        for (String name : byKey.keySet()) {
+            long[] slot = slots.get(name);
+            if (slot != null && (readSlot(name) == null || byKey.get(name).getBytes(StandardCharsets.UTF_8).length > slot[1])) {
+                rewrite(byKey);
+                return;
+            }
+        }
+
+        List<String> appended = new ArrayList<>();
+        try (RandomAccessFile file = new RandomAccessFile(dataFile.toFile(), "rw")) {
+            for (Map.Entry<String, String> entry : byKey.entrySet()) {
+                long[] slot = slots.get(entry.getKey());
+                if (slot == null) {
+                    appended.add(entry.getKey());
+                    continue;
+                }
+                file.seek(slot[0]);
+                file.write(pad(entry.getValue(), (int) slot[1]));
+            }
+
+            if (!appended.isEmpty()) {
+                long end = file.length();
+                StringBuilder tail = new StringBuilder();
+                if (end == 0) {
+                    tail.append(HEADER).append(lineSeparator);
+                } else if (!endsWithNewline(file)) {
+                    tail.append(lineSeparator);
+                }
+                long offset = end + tail.toString().getBytes(StandardCharsets.UTF_8).length;
+                for (String name : appended) {
+                    String row = byKey.get(name);
+                    int length = row.getBytes(StandardCharsets.UTF_8).length;
+                    slots.put(name, new long[] {offset, length});
+                    tail.append(row).append(lineSeparator);
+                    offset += length + lineSeparator.getBytes(StandardCharsets.UTF_8).length;
+                }
+                file.seek(end);
+                file.write(tail.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            indexedLength = file.length();
+        }
+
+        if (!appended.isEmpty()) {
+            persist();
+        }
+    }
+
+    /**
+     * Reloads the index if the data file length differs from the length it was built against.
+     */
+    private synchronized void ensureCurrent() throws IOException {
+        long length = Files.exists(dataFile) ? Files.size(dataFile) : 0;
+        if (length == indexedLength) {
+            return;
+        }
+        if (!load(length)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reads the slot of the given pet and checks that it still belongs to that pet.
+     *
+     * @return The unpadded row, or {@code null} if the pet has no slot or the slot holds another row.
+     */
+    private String readSlot(String name) throws IOException {
+        long[] slot = slots.get(key(name));
+        if (slot == null || slot[0] + slot[1] > indexedLength) {
+            return null;
+        }
+        byte[] bytes = new byte[(int) slot[1]];
+        int next;
+        try (RandomAccessFile file = new RandomAccessFile(dataFile.toFile(), "r")) {
+            file.seek(slot[0]);
+            file.readFully(bytes);
+            next = file.read();
+        }
+        if (next != -1 && next != '\r' && next != '\n') {
+            return null; // The slot no longer ends where its row ends
+        }
+        for (byte b : bytes) {
+            if (b == '\n') {
+                return null;
+            }
+        }
+        String row = stripPadding(new String(bytes, StandardCharsets.UTF_8));
+        int comma = row.indexOf(',');
+        String rowName = comma < 0 ? row : row.substring(0, comma);
+        return rowName.trim().equalsIgnoreCase(name.trim()) ? row : null;
+    }
+
+    /**
+     * Scans the data file once and records the offset and length of every row.
+     */
+    private void rebuild() throws IOException {
+        Map<String, long[]> scanned = new HashMap<>();
+        String separator = System.lineSeparator();
+        long length = 0;
+
+        if (Files.exists(dataFile)) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(dataFile))) {
+                ByteLine line = new ByteLine();
+                boolean isHeader = true;
+                long offset = 0;
+                while (line.read(in)) {
+                    if (line.crlf) {
+                        separator = "\r\n";
+                    } else if (line.terminated) {
+                        separator = "\n";
+                    }
+                    if (isHeader) {
+                        isHeader = false;
+                    } else {
+                        String name = line.firstField();
+                        if (!name.isEmpty() && !scanned.containsKey(key(name))) {
+                            scanned.put(key(name), new long[] {offset, line.length});
+                        }
+                    }
+                    offset += line.consumed;
+                }
+                length = offset;
+            }
+        }
+
+        this.slots = scanned;
+        this.lineSeparator = separator;
+        this.indexedLength = length;
+        persist();
+    }
+
+    /**
+     * Rewrites the whole data file with the given rows replaced, stripping slot padding from unchanged rows.
+     * The new file is written next to the old one and moved over it so readers never see a half-written file.
+     */
+    private void rewrite(Map<String, String> byKey) throws IOException {
+        List<String> lines = Files.exists(dataFile) ? Files.readAllLines(dataFile, StandardCharsets.UTF_8) : new ArrayList<>();
+        Map<String, String> pending = new HashMap<>(byKey);
+        Path temp = Paths.get(dataFile.toString() + ".tmp");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            boolean isHeader = true;
+            for (String line : lines) {
+                if (line.trim().isEmpty()) {
+                    continue; // Skip empty lines
+                }
+                String out = stripPadding(line);
+                if (!isHeader) {
+                    int comma = out.indexOf(',');
+                    String name = key(comma < 0 ? out : out.substring(0, comma));
+                    if (pending.containsKey(name)) {
+                        out = withSlack(pending.remove(name));
+                    }
+                }
+                isHeader = false;
+                writer.write(out);
+                writer.write(lineSeparator);
+            }
+            if (lines.isEmpty()) {
+                writer.write(HEADER);
+                writer.write(lineSeparator);
+            }
+            for (String row : pending.values()) {
+                writer.write(row);
+                writer.write(lineSeparator);
+            }
+        }
+
+        replace(temp, dataFile);
+        rebuild();
+    }
+
+    /**
+     * Loads the persisted index if it was written for a data file of the given length.
+     *
+     * @return {@code true} if the persisted index could be used.
+     */
+    private boolean load(long expectedLength) {
+        if (!Files.exists(indexFile)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readLong() != expectedLength) {
+                return false;
+            }
+            String separator = in.readUTF();
+            int count = in.readInt();
+            Map<String, long[]> loaded = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                loaded.put(name, new long[] {in.readLong(), in.readInt()});
+            }
+            this.slots = loaded;
+            this.lineSeparator = separator;
+            this.indexedLength = expectedLength;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable index file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes the index next to the data file.
+     */
+    private void persist() {
+        Path temp = Paths.get(indexFile.toString() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeLong(indexedLength);
+            out.writeUTF(lineSeparator);
+            out.writeInt(slots.size());
+            for (Map.Entry<String, long[]> entry : slots.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue()[0]);
+                out.writeInt((int) entry.getValue()[1]);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing the index file: " + e.getMessage());
+            return;
+        }
+        try {
+            replace(temp, indexFile);
+        } catch (IOException e) {
+            System.err.println("Error writing the index file: " + e.getMessage());
+        }
+    }
+
+    private boolean endsWithNewline(RandomAccessFile file) throws IOException {
+        file.seek(file.length() - 1);
+        int last = file.read();
+        return last == '\n' || last == '\r';
+    }
+
+    private static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static byte[] pad(String row, int slotLength) {
+        byte[] bytes = row.getBytes(StandardCharsets.UTF_8);
+        byte[] padded = new byte[slotLength];
+        System.arraycopy(bytes, 0, padded, 0, bytes.length);
+        for (int i = bytes.length; i < slotLength; i++) {
+            padded[i] = ' ';
+        }
+        return padded;
+    }
+
+    private static String withSlack(String row) {
+        StringBuilder sb = new StringBuilder(row);
+        for (int i = 0; i < ROW_SLACK; i++) {
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    private static String stripPadding(String row) {
+        int end = row.length();
+        while (end > 0 && row.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return row.substring(0, end);
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    /**
+     * A reusable line reader over raw bytes that keeps track of how many bytes each line occupies on disk.
+     */
+    private static class ByteLine {
+        private byte[] buffer = new byte[256];
+        private int length; // Bytes in the line, excluding the line separator
+        private long consumed; // Bytes in the line, including the line separator
+        private boolean terminated; // Whether the line ended with a separator
+        private boolean crlf; // Whether the separator was "\r\n"
+
+        boolean read(InputStream in) throws IOException {
+            length = 0;
+            consumed = 0;
+            terminated = false;
+            crlf = false;
+            int b;
+            while ((b = in.read()) != -1) {
+                consumed++;
+                if (b == '\n') {
+                    terminated = true;
+                    if (length > 0 && buffer[length - 1] == '\r') {
+                        length--;
+                        crlf = true;
+                    }
+                    return true;
+                }
+                if (length == buffer.length) {
+                    byte[] grown = new byte[buffer.length * 2];
+                    System.arraycopy(buffer, 0, grown, 0, length);
+                    buffer = grown;
+                }
+                buffer[length++] = (byte) b;
+            }
+            return consumed > 0;
+        }
+
+        String firstField() {
+            int end = 0;
+            while (end < length && buffer[end] != ',') {
+                end++;
+            }
+            return new String(buffer, 0, end, StandardCharsets.UTF_8).trim();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package backend;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code RosterDecayJob} class advances every pet in the pets data file to the current time, applying the
+ * hours since each pet's last logout with the {@link DecayEngine}. Pets are decayed in parallel, the pets file
+ * is rewritten once with all changed rows, and each decayed pet's last logout is moved forward by exactly the
+ * hours that were applied, so a later login or run does not decay the same hours twice. Last logouts are
+ * compared as epoch milliseconds; only rows still holding a text timestamp pay for parsing it.
+ *
+ * A job over the default data files first folds the {@link MutationJournal} into them, so it decays the
+ * latest stats, and drops the journaled stats of the pets it decays, so they are not replayed over the new rows.
+ *
+ * The job works on the files directly, so it should be run while no game is open.
+ */
+public class RosterDecayJob {
+    private static final String PETS_FILE_PATH = "../data_handling/pets_data.csv"; // The pet data file path
+    private static final String STATISTICS_FILE_PATH = "../data_handling/statistics_tracker.csv"; // The statistics file path
+    private static final long HOUR_MILLIS = Duration.ofHours(1).toMillis(); // Milliseconds in an hour
+    private static final ThreadLocal<CsvTokenizer> TOKENIZERS = ThreadLocal.withInitial(CsvTokenizer::new); // One tokenizer per worker
+
+    private final String petsFilePath; // The pets data file to decay
+    private final String statisticsFilePath; // The statistics file holding each pet's last logout
+    private final MutationJournal journal; // The journal of changes to these files, or null if they have none
+
+    /**
+     * Constructs a {@code RosterDecayJob} over the default data files.
+     */
+    public RosterDecayJob() {
+        this(PETS_FILE_PATH, STATISTICS_FILE_PATH, MutationJournal.getInstance());
+    }
+
+    /**
+     * Constructs a {@code RosterDecayJob} over the given data files.
+     *
+     * @param petsFilePath       The path to the pets data file.
+     * @param statisticsFilePath The path to the statistics file.
+     */
+    public RosterDecayJob(String petsFilePath, String statisticsFilePath) {
+        this(petsFilePath, statisticsFilePath, null);
+    }
+
+    /**
+     * Constructs a {@code RosterDecayJob} over the given data files and the journal of changes to them.
+     *
+     * @param petsFilePath       The path to the pets data file.
+     * @param statisticsFilePath The path to the statistics file.
+     * @param journal            The journal folded into these files, or {@code null} if they have none.
+     */
+    public RosterDecayJob(String petsFilePath, String statisticsFilePath, MutationJournal journal) {
+        this.petsFilePath = petsFilePath;
+        this.statisticsFilePath = statisticsFilePath;
+        this.journal = journal;
+    }
+
+    /**
+     * Advances every pet to the current time.
+     *
+     * @return The outcome of the run.
+     * @throws IOException if a data file cannot be read or written.
+     */
+    public Result run() throws IOException {
+        return run(LocalDateTime.now());
+    }
+
+    /**
+     * Advances every pet to the given time. Pets without statistics, or whose last logout is not at least an
+     * hour before that time, are left unchanged.
+     *
+     * @param now The time to advance the pets to.
+     * @return The outcome of the run.
+     * @throws IOException if a data file cannot be read or written.
+     */
+    public Result run(LocalDateTime now) throws IOException {
+        return run(now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), ZoneId.systemDefault());
+    }
+
+    /**
+     * Advances every pet to the given time.
+     *
+     * @param nowMillis The time to advance the pets to, in epoch milliseconds.
+     * @param zone      The time zone of last logouts still stored as text.
+     * @return The outcome of the run.
+     * @throws IOException if a data file cannot be read or written.
+     */
+    public Result run(long nowMillis, ZoneId zone) throws IOException {
+        long start = System.nanoTime();
+        if (journal != null && !journal.compact()) {
+            throw new IOException("The journal could not be folded into the data files");
+        }
+        List<String> statistics = Files.readAllLines(Paths.get(statisticsFilePath), StandardCharsets.UTF_8);
+        Map<String, Long> lastLogouts = readLastLogouts(statistics, zone);
+
+        List<String> rows = Files.readAllLines(Paths.get(petsFilePath), StandardCharsets.UTF_8);
+        List<String> petRows = rows.isEmpty() ? rows : rows.subList(1, rows.size()); // Skip the header row
+
+        int pets = 0;
+        for (String row : petRows) {
+            if (!row.trim().isEmpty()) {
+                pets++;
+            }
+        }
+
+        Map<String, String> decayedRows = new ConcurrentHashMap<>(pets * 2);
+        Map<String, Long> newLogouts = new ConcurrentHashMap<>(pets * 2);
+        petRows.parallelStream().forEach(row -> decay(row, lastLogouts, nowMillis, decayedRows, newLogouts));
+
+        if (!decayedRows.isEmpty()) {
+            if (journal != null) {
+                journal.discardPetRecords(decayedRows.keySet());
+            }
+            // The logouts are only moved forward once the decayed pets are safely on disk
+            PetsFileIndex.forFile(petsFilePath).rewriteRows(decayedRows);
+            writeLastLogouts(statistics, newLogouts);
+        }
+        return new Result(pets, decayedRows.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Decays one pet row and records its new row and last logout if any hours were applied.
+     */
+    private static void decay(String row, Map<String, Long> lastLogouts, long nowMillis,
+                              Map<String, String> decayedRows, Map<String, Long> newLogouts) {
+        CsvTokenizer csv = TOKENIZERS.get().reset(row);
+        if (csv.isBlank()) {
+            return;
+        }
+        try {
+            Pet pet = Pet.fromCsv(csv);
+            String key = pet.getName().toLowerCase();
+            Long lastLogout = lastLogouts.get(key);
+            if (lastLogout == null || lastLogout >= nowMillis) {
+                return;
+            }
+            long hours = (nowMillis - lastLogout) / HOUR_MILLIS;
+            if (hours <= 0) {
+                return;
+            }
+
+            String inventory = csv.fieldCount() > 9 ? "\"" + csv.string(9) + "\"" : null;
+            DecayEngine.advance(pet, hours);
+            decayedRows.putIfAbsent(pet.getName(), pet.toCsvRow(inventory));
+            newLogouts.putIfAbsent(key, lastLogout + hours * HOUR_MILLIS);
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            System.err.println("Skipping unreadable pet row: " + row.trim());
+        }
+    }
+
+    /**
+     * Reads the last logout of every pet in the statistics file.
+     *
+     * @return A map of lower-case pet names to their last logout in epoch milliseconds.
+     */
+    private static Map<String, Long> readLastLogouts(List<String> statistics, ZoneId zone) {
+        Map<String, Long> lastLogouts = new ConcurrentHashMap<>();
+        CsvTokenizer csv = new CsvTokenizer();
+        for (int i = 1; i < statistics.size(); i++) {
+            csv.reset(statistics.get(i));
+            if (csv.isBlank() || csv.fieldCount() < 3) {
+                continue;
+            }
+            try {
+                long lastLogout = StatisticsTracker.parseTimestamp(csv.string(2), zone);
+                if (lastLogout != StatisticsTracker.UNKNOWN_TIME) {
+                    lastLogouts.putIfAbsent(csv.string(0).toLowerCase(), lastLogout);
+                }
+            } catch (DateTimeParseException | NumberFormatException e) {
+                System.err.println("Skipping unreadable last logout for " + csv.string(0) + ": " + csv.string(2));
+            }
+        }
+        return lastLogouts;
+    }
+
+    /**
+     * Rewrites the statistics file with the last logout of every decayed pet moved forward.
+     */
+    private void writeLastLogouts(List<String> statistics, Map<String, Long> newLogouts) throws IOException {
+        List<String> lines = new ArrayList<>(statistics);
+        CsvTokenizer csv = new CsvTokenizer();
+        for (int i = 1; i < lines.size(); i++) {
+            csv.reset(lines.get(i));
+            if (csv.isBlank() || csv.fieldCount() < 6) {
+                continue;
+            }
+            Long lastLogout = newLogouts.get(csv.string(0).toLowerCase());
+            if (lastLogout != null) {
+                lines.set(i, csv.string(0) + "," + csv.string(1) + "," + lastLogout
+                        + "," + csv.string(3) + "," + csv.string(4) + "," + csv.string(5));
+            }
+        }
+        SaveBundle.writeLines(Paths.get(statisticsFilePath), lines);
+    }
+
+    /**
+     * The outcome of a {@code RosterDecayJob} run.
+     */
+    public static class Result {
+        private final int pets; // Number of pets in the roster
+        private final int decayedPets; // Number of pets that had hours applied
+        private final long elapsedNanos; // Wall-clock time of the run
+
+        Result(int pets, int decayedPets, long elapsedNanos) {
+            this.pets = pets;
+            this.decayedPets = decayedPets;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** @return The number of pets in the roster. */
+        public int getPets() { return pets; }
+
+        /** @return The number of pets that had hours applied. */
+        public int getDecayedPets() { return decayedPets; }
+
+        /** @return The wall-clock time of the run in nanoseconds. */
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        /**
+         * Computes the throughput of the run.
+         *
+         * @return The number of roster pets processed per second.
+         */
+        public double getPetsPerSecond() {
+            return elapsedNanos == 0 ? 0 : pets * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Decayed %d of %d pets in %.1f ms (%.0f pets/s)",
+                    decayedPets, pets, elapsedNanos / 1_000_000.0, getPetsPerSecond());
+        }
+    }
+
+    /**
+     * Runs the job from the command line.
+     *
+     * @param args Optionally the pets data file and the statistics file, in that order.
+     */
+    public static void main(String[] args) {
+        RosterDecayJob job = args.length >= 2 ? new RosterDecayJob(args[0], args[1]) : new RosterDecayJob();
+        try {
+            System.out.println(job.run());
+        } catch (IOException e) {
+            System.err.println("Roster decay failed: " + e.getMessage());
+        }
+    }
+}
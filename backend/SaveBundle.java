@@ -0,0 +1,268 @@
+package backend;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code SaveBundle} class gathers the pet, inventory, settings and statistics changes of a save
+ * and commits them with at most one write per file.
+ *
+ * A pet and its inventory share one row of the pets data file, so they are written together as a single
+ * row update through {@link PetsFileIndex}. The settings and statistics files are each rewritten once,
+ * into a temporary file that is then moved over the original, so a half-written file is never visible.
+ */
+public class SaveBundle {
+    private static final String PETS_FILE_PATH = "../data_handling/pets_data.csv"; // The pet data file path
+    private static final String SETTINGS_FILE_PATH = "../data_handling/game_settings.csv"; // The settings file path
+    private static final String STATISTICS_FILE_PATH = "../data_handling/statistics_tracker.csv"; // The statistics file path
+
+    private final Map<String, Map<String, String>> petRows; // Pets file path -> (pet name -> row)
+    private final Map<String, Map<String, String>> settingsRows; // Settings file path -> (lower-case pet name or "" -> row)
+    private final Map<String, Map<String, String>> statisticsRows; // Statistics file path -> (name -> row)
+
+    /**
+     * Constructs an empty {@code SaveBundle}.
+     */
+    public SaveBundle() {
+        this.petRows = new LinkedHashMap<>();
+        this.settingsRows = new LinkedHashMap<>();
+        this.statisticsRows = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds a pet and its inventory to the default pets data file.
+     *
+     * @param pet       The pet to save.
+     * @param inventory The pet's inventory.
+     * @return This bundle.
+     */
+    public SaveBundle pet(Pet pet, Inventory inventory) {
+        return pet(pet, inventory, PETS_FILE_PATH);
+    }
+
+    /**
+     * Adds a pet and its inventory to the given pets data file. The row is captured immediately,
+     * so later changes to the pet are not part of this bundle.
+     *
+     * @param pet       The pet to save.
+     * @param inventory The pet's inventory.
+     * @param filePath  The path to the pets data file.
+     * @return This bundle.
+     */
+    public SaveBundle pet(Pet pet, Inventory inventory, String filePath) {
+        petRows.computeIfAbsent(filePath, k -> new LinkedHashMap<>())
+                .put(pet.getName(), pet.toCsvRow("\"" + inventory + "\""));
+        return this;
+    }
+
+    /**
+     * Adds the settings to the default settings file.
+     *
+     * @param settings The settings to save.
+     * @return This bundle.
+     */
+    public SaveBundle settings(Settings settings) {
+        return settings(settings, SETTINGS_FILE_PATH);
+    }
+
+    /**
+     * Adds the settings to the given settings file.
+     *
+     * @param settings The settings to save.
+     * @param filePath The path to the settings file.
+     * @return This bundle.
+     */
+    public SaveBundle settings(Settings settings, String filePath) {
+        String pet = settings.getPetName() == null ? "" : settings.getPetName().toLowerCase();
+        settingsRows.computeIfAbsent(filePath, k -> new LinkedHashMap<>()).put(pet, settings.toCsvRow());
+        return this;
+    }
+
+    /**
+     * Adds the statistics to the default statistics file.
+     *
+     * @param tracker The statistics to save.
+     * @return This bundle.
+     */
+    public SaveBundle statistics(StatisticsTracker tracker) {
+        return statistics(tracker, STATISTICS_FILE_PATH);
+    }
+
+    /**
+     * Adds the statistics to the given statistics file.
+     *
+     * @param tracker  The statistics to save.
+     * @param filePath The path to the statistics file.
+     * @return This bundle.
+     */
+    public SaveBundle statistics(StatisticsTracker tracker, String filePath) {
+        statisticsRows.computeIfAbsent(filePath, k -> new LinkedHashMap<>())
+                .put(tracker.getName(), tracker.toCsvRow());
+        return this;
+    }
+
+    /**
+     * Merges another bundle into this one. Where both bundles hold a row for the same pet, settings file or
+     * statistics entry, the row from the other bundle wins, so repeated saves of one entity collapse into one write.
+     *
+     * @param other The newer bundle to merge in.
+     * @return This bundle.
+     */
+    public SaveBundle merge(SaveBundle other) {
+        for (Map.Entry<String, Map<String, String>> entry : other.petRows.entrySet()) {
+            petRows.computeIfAbsent(entry.getKey(), k -> new LinkedHashMap<>()).putAll(entry.getValue());
+        }
+        for (Map.Entry<String, Map<String, String>> entry : other.settingsRows.entrySet()) {
+            settingsRows.computeIfAbsent(entry.getKey(), k -> new LinkedHashMap<>()).putAll(entry.getValue());
+        }
+        for (Map.Entry<String, Map<String, String>> entry : other.statisticsRows.entrySet()) {
+            statisticsRows.computeIfAbsent(entry.getKey(), k -> new LinkedHashMap<>()).putAll(entry.getValue());
+        }
+        return this;
+    }
+
+    /**
+     * Checks whether anything has been added to this bundle.
+     *
+     * @return {@code true} if there is nothing to save.
+     */
+    public boolean isEmpty() {
+        return petRows.isEmpty() && settingsRows.isEmpty() && statisticsRows.isEmpty();
+    }
+
+    /**
+     * Writes every gathered change, touching each file once.
+     *
+     * @return {@code true} if all files were written successfully.
+     */
+    public boolean commit() {
+        boolean success = true;
+
+        for (Map.Entry<String, Map<String, String>> entry : petRows.entrySet()) {
+            try {
+                PetsFileIndex.forFile(entry.getKey()).writeRows(entry.getValue());
+                System.out.println("Pet data successfully saved to file: " + entry.getKey());
+            } catch (IOException e) {
+                System.err.println("Error writing to the file: " + e.getMessage());
+                success = false;
+            }
+        }
+
+        for (Map.Entry<String, Map<String, String>> entry : settingsRows.entrySet()) {
+            success &= commitSettings(entry.getKey(), entry.getValue());
+        }
+
+        for (Map.Entry<String, Map<String, String>> entry : statisticsRows.entrySet()) {
+            success &= commitStatistics(entry.getKey(), entry.getValue());
+        }
+
+        return success;
+    }
+
+    /**
+     * Replaces the default row or the rows of the given pets in the settings file, keeping its header.
+     * Pets without a row yet get one appended.
+     */
+    private boolean commitSettings(String filePath, Map<String, String> rows) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(filePath), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Error reading the CSV file: " + e.getMessage());
+            return false;
+        }
+
+        Map<String, String> remaining = new LinkedHashMap<>(rows);
+        CsvTokenizer csv = new CsvTokenizer();
+        for (int i = 0; i < lines.size(); i++) {
+            if (csv.reset(lines.get(i)).field(0).length() != 1) {
+                continue; // The header or a blank line
+            }
+            String pet = csv.fieldCount() > 3 ? csv.string(3).toLowerCase() : "";
+            String row = remaining.remove(pet);
+            if (row != null) {
+                lines.set(i, row);
+            }
+        }
+        lines.addAll(remaining.values());
+
+        try {
+            writeLines(Paths.get(filePath), lines);
+            System.out.println("Settings successfully saved");
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing to the file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the rows of the given names in the statistics file.
+     */
+    private boolean commitStatistics(String filePath, Map<String, String> rows) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(filePath), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Error reading the file: " + e.getMessage());
+            return false;
+        }
+
+        int updated = 0;
+        CsvTokenizer csv = new CsvTokenizer();
+        for (int i = 0; i < lines.size(); i++) {
+            csv.reset(lines.get(i));
+            for (Map.Entry<String, String> row : rows.entrySet()) {
+                if (csv.fieldEqualsIgnoreCase(0, row.getKey())) {
+                    lines.set(i, row.getValue());
+                    updated++;
+                }
+            }
+        }
+
+        // If none of the names were found in the file, print an error
+        if (updated == 0) {
+            System.err.println("Name not found in the file: " + rows.keySet());
+            return false;
+        }
+
+        try {
+            writeLines(Paths.get(filePath), lines);
+            System.out.println("Data successfully updated in file: " + filePath);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing to the file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes the lines to a temporary file next to the target and moves it over the target.
+     *
+     * @param target The file to replace.
+     * @param lines  The lines to write.
+     * @throws IOException if the file cannot be written.
+     */
+    static void writeLines(Path target, List<String> lines) throws IOException {
+        Path temp = Paths.get(target.toString() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package backend;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code SaveQueue} class is a write-behind layer for saves. Callers hand over a {@link SaveBundle}
+ * and return immediately; the bundle is merged with anything still waiting, so repeated saves of the same
+ * pet, inventory, settings or statistics collapse into one write. Pending changes are written on a
+ * background thread once the flush interval has passed since the first unsaved change, on {@link #flush()},
+ * or when the JVM shuts down.
+ */
+public class SaveQueue {
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 2000; // Longest a change waits before being written
+    private static SaveQueue instance;
+
+    private final long flushIntervalMillis; // Delay between the first pending change and its write
+    private final ScheduledExecutorService executor; // Runs the background flushes
+    private final Object commitLock = new Object(); // Keeps commits from different threads in order
+    private SaveBundle pending; // Changes waiting to be written, guarded by this
+    private ScheduledFuture<?> scheduledFlush; // The background flush for the pending changes, guarded by this
+
+    /**
+     * Returns the shared save queue, creating it on first use. The shared queue is flushed when the JVM shuts down.
+     *
+     * @return The shared save queue.
+     */
+    public static synchronized SaveQueue getInstance() {
+        if (instance == null) {
+            instance = new SaveQueue(DEFAULT_FLUSH_INTERVAL_MILLIS);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::flush, "save-queue-shutdown"));
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a {@code SaveQueue} with its own background thread.
+     *
+     * @param flushIntervalMillis The longest time, in milliseconds, a change waits before being written.
+     */
+    public SaveQueue(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "save-queue");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a pet and its inventory for saving.
+     *
+     * @param pet       The pet to save.
+     * @param inventory The pet's inventory.
+     */
+    public void savePet(Pet pet, Inventory inventory) {
+        submit(new SaveBundle().pet(pet, inventory));
+    }
+
+    /**
+     * Queues the settings for saving.
+     *
+     * @param settings The settings to save.
+     */
+    public void saveSettings(Settings settings) {
+        submit(new SaveBundle().settings(settings));
+    }
+
+    /**
+     * Queues the statistics for saving.
+     *
+     * @param tracker The statistics to save.
+     */
+    public void saveStatistics(StatisticsTracker tracker) {
+        submit(new SaveBundle().statistics(tracker));
+    }
+
+    /**
+     * Queues a bundle for saving, merging it into the changes that are still waiting.
+     *
+     * @param bundle The changes to save.
+     */
+    public synchronized void submit(SaveBundle bundle) {
+        if (pending == null) {
+            pending = new SaveBundle();
+        }
+        pending.merge(bundle);
+        if (scheduledFlush == null) {
+            scheduledFlush = executor.schedule(this::flush, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes all pending changes on the calling thread.
+     *
+     * @return {@code true} if there was nothing to write or everything was written successfully.
+     */
+    public boolean flush() {
+        synchronized (commitLock) {
+            SaveBundle bundle;
+            synchronized (this) {
+                bundle = pending;
+                pending = null;
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+            }
+            return bundle == null || bundle.isEmpty() || bundle.commit();
+        }
+    }
+
+    /**
+     * Checks whether any changes are waiting to be written.
+     *
+     * @return {@code true} if there are pending changes.
+     */
+    public synchronized boolean hasPendingChanges() {
+        return pending != null && !pending.isEmpty();
+    }
+
+    /**
+     * Writes all pending changes and stops the background thread.
+     */
+    public void shutdown() {
+        flush();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,298 @@
+package backend;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code SessionCheckpoint} class keeps study sessions from being lost when the application dies. While
+ * a session runs, its progress is appended to a small checkpoint file every few seconds, and a final record
+ * is appended once its study time has been credited. On the next start, a session with checkpoints but no
+ * final record can be resumed or credited, without {@code statistics_tracker.csv} having been rewritten.
+ *
+ * Records are tab-separated lines: {@code C}, pet name, session key, minutes studied, remaining milliseconds,
+ * break milliseconds and save time for a checkpoint, and {@code E}, pet name and session key once finished.
+ */
+public class SessionCheckpoint {
+    private static final String FILE_PATH = "../data_handling/study_sessions.checkpoint"; // The checkpoint file path
+    private static final char SEPARATOR = '\t'; // Separates the columns of a record
+    /** How often a running session is checkpointed */
+    public static final Duration INTERVAL = Duration.ofSeconds(10);
+    private static SessionCheckpoint instance;
+
+    private final Path file; // Records are appended here
+    private FileChannel channel; // Open checkpoint file, or null if it could not be opened
+
+    /**
+     * The last saved progress of a study session.
+     */
+    public static final class Checkpoint {
+        private final String petName; // The pet the session is for
+        private final String key; // Identifies the session across restarts
+        private final int studiedMinutes; // The study time to credit so far
+        private final Duration remaining; // The study time left
+        private final Duration breakLength; // The break following the study time
+        private final Instant savedAt; // When the checkpoint was saved
+
+        /**
+         * Constructs a {@code Checkpoint}.
+         *
+         * @param petName        The pet the session is for.
+         * @param key            Identifies the session, e.g. its start time.
+         * @param studiedMinutes The study time to credit so far, in minutes.
+         * @param remaining      The study time left.
+         * @param breakLength    The break following the study time.
+         * @param savedAt        When the checkpoint was saved.
+         */
+        public Checkpoint(String petName, String key, int studiedMinutes, Duration remaining, Duration breakLength,
+                          Instant savedAt) {
+            this.petName = petName;
+            this.key = key;
+            this.studiedMinutes = studiedMinutes;
+            this.remaining = remaining;
+            this.breakLength = breakLength;
+            this.savedAt = savedAt;
+        }
+
+        /**
+         * Retrieves the pet the session is for.
+         *
+         * @return The pet's name.
+         */
+        public String getPetName() {
+            return petName;
+        }
+
+        /**
+         * Retrieves the key identifying the session.
+         *
+         * @return The session's key.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Retrieves the study time to credit so far.
+         *
+         * @return The minutes studied.
+         */
+        public int getStudiedMinutes() {
+            return studiedMinutes;
+        }
+
+        /**
+         * Retrieves the study time left when the checkpoint was saved.
+         *
+         * @return The remaining study time.
+         */
+        public Duration getRemaining() {
+            return remaining;
+        }
+
+        /**
+         * Retrieves the break following the study time.
+         *
+         * @return The length of the break.
+         */
+        public Duration getBreakLength() {
+            return breakLength;
+        }
+
+        /**
+         * Retrieves when the checkpoint was saved.
+         *
+         * @return The save time.
+         */
+        public Instant getSavedAt() {
+            return savedAt;
+        }
+
+        private String toRecord() {
+            return "C" + SEPARATOR + petName + SEPARATOR + key + SEPARATOR + studiedMinutes + SEPARATOR
+                    + remaining.toMillis() + SEPARATOR + breakLength.toMillis() + SEPARATOR + savedAt.toEpochMilli();
+        }
+
+        private static Checkpoint fromRecord(String[] record) {
+            return new Checkpoint(record[1], record[2], Integer.parseInt(record[3]),
+                    Duration.ofMillis(Long.parseLong(record[4])), Duration.ofMillis(Long.parseLong(record[5])),
+                    Instant.ofEpochMilli(Long.parseLong(record[6])));
+        }
+
+        @Override
+        public String toString() {
+            return studiedMinutes + " minutes studied with " + petName + ", " + remaining.toMinutes()
+                    + " minutes left";
+        }
+    }
+
+    /**
+     * Returns the shared checkpoint file, creating it on first use and dropping sessions that already finished.
+     *
+     * @return The shared session checkpoint.
+     */
+    public static synchronized SessionCheckpoint getInstance() {
+        if (instance == null) {
+            instance = new SessionCheckpoint(FILE_PATH);
+            instance.compact();
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "checkpoint-shutdown"));
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a {@code SessionCheckpoint} and opens its file for appending.
+     *
+     * @param filePath The path to the checkpoint file.
+     */
+    public SessionCheckpoint(String filePath) {
+        this.file = Paths.get(filePath);
+        openChannel();
+    }
+
+    /**
+     * Appends the current progress of a session.
+     *
+     * @param checkpoint The progress to save.
+     */
+    public void save(Checkpoint checkpoint) {
+        append(checkpoint.toRecord());
+    }
+
+    /**
+     * Records that a session's study time has been credited, so it is not offered again.
+     *
+     * @param petName The pet the session is for.
+     * @param key     The session's key.
+     */
+    public void finish(String petName, String key) {
+        append("E" + SEPARATOR + petName + SEPARATOR + key);
+    }
+
+    /**
+     * Finds the most recently saved session of a pet that never finished.
+     *
+     * @param petName The pet's name.
+     * @return The last checkpoint of that session, or {@code null} if every session of the pet finished.
+     */
+    public Checkpoint findUnfinished(String petName) {
+        Checkpoint latest = null;
+        for (Checkpoint checkpoint : unfinished().values()) {
+            if (checkpoint.getPetName().equalsIgnoreCase(petName)
+                    && (latest == null || checkpoint.getSavedAt().isAfter(latest.getSavedAt()))) {
+                latest = checkpoint;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Rewrites the file with only the last checkpoint of each unfinished session.
+     *
+     * @return {@code true} if the file was rewritten or there was nothing to rewrite.
+     */
+    public synchronized boolean compact() {
+        if (!Files.exists(file)) {
+            return true;
+        }
+        try {
+            List<String> records = new ArrayList<>();
+            for (Checkpoint checkpoint : unfinished().values()) {
+                records.add(checkpoint.toRecord());
+            }
+            Path temp = Paths.get(file + ".tmp");
+            Files.write(temp, records, StandardCharsets.UTF_8);
+            if (channel != null) {
+                channel.close();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error compacting the session checkpoints: " + e.getMessage());
+            return false;
+        } finally {
+            if (channel != null && !channel.isOpen()) {
+                openChannel();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Closes the checkpoint file.
+     */
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing the session checkpoints: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Reads the last checkpoint of every session that has no finish record, keyed by pet and session key.
+     */
+    private synchronized Map<String, Checkpoint> unfinished() {
+        Map<String, Checkpoint> sessions = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return sessions;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] record = line.split(String.valueOf(SEPARATOR));
+                try {
+                    if (record[0].equals("C") && record.length >= 7) {
+                        sessions.put(record[1].toLowerCase() + SEPARATOR + record[2], Checkpoint.fromRecord(record));
+                    } else if (record[0].equals("E") && record.length >= 3) {
+                        sessions.remove(record[1].toLowerCase() + SEPARATOR + record[2]);
+                    }
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid session checkpoint: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading the session checkpoints: " + e.getMessage());
+        }
+        return sessions;
+    }
+
+    /**
+     * Appends one record to the end of the file.
+     */
+    private synchronized void append(String record) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap((record + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing a session checkpoint: " + e.getMessage());
+        }
+    }
+
+    private synchronized void openChannel() {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Session checkpoints disabled, could not open " + file + ": " + e.getMessage());
+            channel = null;
+        }
+    }
+}
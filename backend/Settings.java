@@ -1,16 +1,16 @@
 package backend;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * The {@code Settings} class manages the game settings associated with a specific pet.
  * Settings include study time, break time, target study time, background music, and parent mode.
  * The class provides functionality to load settings from and save settings to a CSV file.
+ *
+ * The file's first data row holds the default settings. A pet whose settings have been saved has a row of its
+ * own, with its name in a fourth column, so each game context keeps independent settings; a pet without one
+ * starts from the defaults.
  */
 public class Settings {
     private static Settings instance;
@@ -18,6 +18,7 @@ public class Settings {
     private int studyTime; // The study time in minutes
     private int breakTime; // The break time in minutes
     private boolean backgroundMusic; // Indicates if background music is enabled
+    private String petName; // The pet these settings belong to, or null for the default settings
 
     private static final String FILE_PATH = "../data_handling/game_settings.csv"; // The settings file path
 
@@ -30,7 +31,39 @@ public class Settings {
         loadSettings(filePath);
     }
 
+    /**
+     * Constructs the settings of one pet from the given file: the pet's own row if it has one, and the
+     * default row otherwise.
+     *
+     * @param filePath The path to the settings file.
+     * @param petName  The name of the pet.
+     */
+    public Settings(String filePath, String petName) {
+        this.petName = petName;
+        loadSettings(filePath);
+    }
+
+    /**
+     * Loads the settings of one pet from the default settings file.
+     *
+     * @param petName The name of the pet.
+     * @return The pet's settings, or the default settings if it has none of its own.
+     */
+    public static Settings forPet(String petName) {
+        return new Settings(FILE_PATH, petName);
+    }
+
+    /**
+     * Retrieves the settings of the game the desktop application is playing, from the current context of the
+     * {@link GameSessionRegistry}. Before a game has been chosen, one shared instance is loaded instead.
+     *
+     * @return The current settings.
+     */
     public static Settings getInstance() {
+        GameManager current = GameSessionRegistry.getInstance().getCurrent();
+        if (current != null) {
+            return current.getCurrentSettings();
+        }
         if (instance == null) {
             instance = new Settings();
         }
@@ -43,21 +76,27 @@ public class Settings {
 
     private void loadSettings(String filePath) {
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
+            CsvTokenizer csv = new CsvTokenizer(br);
             boolean isFirstRow = true;
+            boolean defaultsRead = false;
 
-            while ((line = br.readLine()) != null) {
+            while (csv.next()) {
                 if (isFirstRow) {
                     isFirstRow = false;
                     continue; // Skip the header row
                 }
 
-                String[] values = line.split(",");
-
-                this.backgroundMusic = parseBoolean(values[0]);
-                this.studyTime = Integer.parseInt(values[1]);
-                this.breakTime = Integer.parseInt(values[2]);
-                break;
+                boolean ownRow = petName != null && csv.fieldCount() > 3 && csv.fieldEqualsIgnoreCase(3, petName);
+                boolean defaultRow = csv.fieldCount() <= 3 && !defaultsRead;
+                if (ownRow || defaultRow) {
+                    this.backgroundMusic = parseBoolean(csv.field(0));
+                    this.studyTime = csv.intField(1);
+                    this.breakTime = csv.intField(2);
+                    defaultsRead = true;
+                }
+                if (ownRow || (defaultRow && petName == null)) {
+                    break;
+                }
             }
         } catch (IOException e) {
             System.err.println("Error reading the CSV file: " + e.getMessage());
@@ -66,49 +105,36 @@ public class Settings {
 
     /**
      * Saves the current settings for the pet to the CSV file.
-     * If the pet's settings exist, they are updated; otherwise, an exception is thrown.
+     * The pet's row is updated, or added if the pet had none; the default settings update the default row.
      */
 
     public void saveToFile() {
         saveToFile(this.FILE_PATH); 
     }
     public void saveToFile(String filePath) {
-        List<String> lines = new ArrayList<>();
-        boolean isFirstRow = true;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-
-            while ((line = reader.readLine()) != null) {
-
-                String[] values = line.split(",", -1);
-
-                if (values[0].length() == 1){
-                    
-                    line = String.format("%d,%d,%d",
-                    this.backgroundMusic ? 1 : 0,
-                    this.studyTime,
-                    this.breakTime);
-
-                }
-
-                lines.add(line);
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading the CSV file: " + e.getMessage());
-            return;
-        }
+        new SaveBundle().settings(this, filePath).commit();
+    }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (String updatedLine : lines) {
-                writer.write(updatedLine);
-                writer.newLine();
-            }
+    /**
+     * Builds the settings row for the settings file.
+     *
+     * @return The CSV row for the settings.
+     */
+    String toCsvRow() {
+        String row = String.format("%d,%d,%d",
+                this.backgroundMusic ? 1 : 0,
+                this.studyTime,
+                this.breakTime);
+        return petName == null ? row : row + "," + petName;
+    }
 
-            System.out.println("Settings successfully saved");
-        } catch (IOException e) {
-            System.err.println("Error writing to the file: " + e.getMessage());
-        }
+    /**
+     * Retrieves the pet these settings belong to.
+     *
+     * @return The pet's name, or {@code null} for the default settings.
+     */
+    public String getPetName() {
+        return petName;
     }
 
     /**
@@ -117,8 +143,8 @@ public class Settings {
      * @param value The string value to parse (1 = true, 0 = false).
      * @return The parsed boolean value.
      */
-    private boolean parseBoolean(String value) {
-        return "1".equals(value);
+    private boolean parseBoolean(CharSequence value) {
+        return value.length() == 1 && value.charAt(0) == '1';
     }
 
     // Getter and Setter Methods
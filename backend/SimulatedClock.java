@@ -0,0 +1,94 @@
+package backend;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The {@code SimulatedClock} class is a {@link Clock} that only moves when it is told to. Passing one to the
+ * {@link GameManager} or {@link StatisticsTracker} lets tests and simulations decide what "now" is, and jump
+ * hours or months ahead instantly instead of waiting for wall time to pass.
+ *
+ * The clock can be advanced from any thread.
+ */
+public class SimulatedClock extends Clock {
+    private final AtomicReference<Instant> instant; // The current simulated time
+    private final ZoneId zone; // The time zone used to turn the instant into local times
+
+    /**
+     * Constructs a {@code SimulatedClock} set to the given local time in the system time zone.
+     *
+     * @param start The simulated time to start at.
+     */
+    public SimulatedClock(LocalDateTime start) {
+        this(start.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+    }
+
+    /**
+     * Constructs a {@code SimulatedClock} set to the given instant.
+     *
+     * @param start The simulated time to start at.
+     * @param zone  The time zone of the clock.
+     */
+    public SimulatedClock(Instant start, ZoneId zone) {
+        this(new AtomicReference<>(start), zone);
+    }
+
+    private SimulatedClock(AtomicReference<Instant> instant, ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param duration How far to move the clock; must not be negative.
+     * @return The new simulated time.
+     * @throws IllegalArgumentException if the duration is negative.
+     */
+    public Instant advance(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("A simulated clock cannot go backwards: " + duration);
+        }
+        return instant.updateAndGet(current -> current.plus(duration));
+    }
+
+    /**
+     * Sets the clock to the given instant.
+     *
+     * @param newInstant The new simulated time.
+     */
+    public void set(Instant newInstant) {
+        instant.set(newInstant);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Returns a clock in another time zone that shares this clock's time, so advancing either moves both.
+     */
+    @Override
+    public Clock withZone(ZoneId newZone) {
+        return newZone.equals(zone) ? this : new SimulatedClock(instant, newZone);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant.get();
+    }
+
+    @Override
+    public long millis() {
+        return instant.get().toEpochMilli();
+    }
+
+    @Override
+    public String toString() {
+        return "SimulatedClock[" + instant.get() + "," + zone + "]";
+    }
+}
@@ -0,0 +1,266 @@
+package backend;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The {@code StatePublisher} class announces changes to a game's pet, inventory and statistics as a
+ * {@link Flow.Publisher}. An event only says what changed; subscribers read the current state themselves, so
+ * any number of changes to the same thing waiting for a subscriber collapse into one event.
+ *
+ * Each subscriber is sent events only as it requests them, on the publisher's executor. Changes it has not
+ * taken yet wait in a set holding at most one event per source and pet, so publishing never blocks and a slow
+ * subscriber neither stalls the game nor makes events pile up.
+ */
+public class StatePublisher implements Flow.Publisher<StatePublisher.Change> {
+    /** What part of a game changed */
+    public enum Source {
+        /** The pet's stats */
+        PET,
+        /** The items in the inventory */
+        INVENTORY,
+        /** The study statistics */
+        STATISTICS
+    }
+
+    /**
+     * A change to part of a pet's game. Equal changes are coalesced while they wait for a subscriber.
+     */
+    public static final class Change {
+        private final Source source; // What changed
+        private final String petName; // Whose game changed
+
+        /**
+         * Constructs a {@code Change}.
+         *
+         * @param source  What changed.
+         * @param petName The name of the pet whose game changed.
+         */
+        public Change(Source source, String petName) {
+            this.source = source;
+            this.petName = petName;
+        }
+
+        /** @return What changed. */
+        public Source getSource() { return source; }
+
+        /** @return The name of the pet whose game changed. */
+        public String getPetName() { return petName; }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Change)) {
+                return false;
+            }
+            Change change = (Change) other;
+            return source == change.source && Objects.equals(petName, change.petName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(source) * 31 + Objects.hashCode(petName);
+        }
+
+        @Override
+        public String toString() {
+            return source + " of " + petName;
+        }
+    }
+
+    private final Executor executor; // Sends events to subscribers
+    private final CopyOnWriteArrayList<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<>(); // Current subscribers
+    private volatile boolean closed; // Whether the publisher has completed
+
+    /**
+     * One subscriber's subscription, holding the changes it has not been sent yet.
+     */
+    private final class ChangeSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Change> subscriber; // Receives the events
+        private final LinkedHashSet<Change> pending = new LinkedHashSet<>(); // Changes not sent yet, oldest first
+        private long requested; // Events the subscriber asked for and has not been sent
+        private boolean draining; // Whether a task is sending events
+        private boolean completing; // Whether onComplete is due once nothing is pending
+        private boolean done; // Whether no more signals are sent
+        private Throwable error; // A request error to signal, or null
+
+        ChangeSubscription(Flow.Subscriber<? super Change> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Requested " + n + " events, must be positive");
+                } else {
+                    requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                done = true;
+                pending.clear();
+            }
+            subscriptions.remove(this);
+        }
+
+        void offer(Change change) {
+            synchronized (this) {
+                if (done || !pending.add(change) || requested == 0) {
+                    return;
+                }
+            }
+            drain();
+        }
+
+        void complete() {
+            synchronized (this) {
+                completing = true;
+            }
+            drain();
+        }
+
+        /**
+         * Starts a task sending what is pending and requested, unless one is already running.
+         */
+        void drain() {
+            synchronized (this) {
+                if (draining || done) {
+                    return;
+                }
+                draining = true;
+            }
+            executor.execute(this::run);
+        }
+
+        /**
+         * Sends events one at a time, never holding the lock while the subscriber runs.
+         */
+        private void run() {
+            while (true) {
+                Change next = null;
+                Throwable failure = null;
+                boolean finish = false;
+                synchronized (this) {
+                    if (done) {
+                        draining = false;
+                        return;
+                    }
+                    if (error != null) {
+                        failure = error;
+                        done = true;
+                    } else if (requested > 0 && !pending.isEmpty()) {
+                        Iterator<Change> oldest = pending.iterator();
+                        next = oldest.next();
+                        oldest.remove();
+                        requested--;
+                    } else if (completing && pending.isEmpty()) {
+                        finish = true;
+                        done = true;
+                    } else {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (failure != null) {
+                        subscriptions.remove(this);
+                        subscriber.onError(failure);
+                        return;
+                    }
+                    if (finish) {
+                        subscriptions.remove(this);
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(next);
+                } catch (RuntimeException e) {
+                    System.err.println("State subscriber failed, cancelling it: " + e);
+                    cancel();
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructs a {@code StatePublisher} that sends events on the common fork-join pool.
+     */
+    public StatePublisher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a {@code StatePublisher} that sends events on the given executor.
+     *
+     * @param executor Runs the tasks sending events to subscribers.
+     */
+    public StatePublisher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribes to changes. The subscriber is sent events from the next change on, as it requests them.
+     *
+     * @param subscriber The subscriber.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Change> subscriber) {
+        ChangeSubscription subscription = new ChangeSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.complete();
+        } else {
+            subscriptions.add(subscription);
+        }
+    }
+
+    /**
+     * Announces a change to every subscriber. Returns at once, whatever the subscribers are doing.
+     *
+     * @param source  What changed.
+     * @param petName The name of the pet whose game changed.
+     */
+    public void publish(Source source, String petName) {
+        if (closed || subscriptions.isEmpty()) {
+            return;
+        }
+        Change change = new Change(source, petName);
+        for (ChangeSubscription subscription : subscriptions) {
+            subscription.offer(change);
+        }
+    }
+
+    /**
+     * Retrieves the number of current subscribers.
+     *
+     * @return The number of subscribers.
+     */
+    public int subscribers() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Completes every subscription once its pending changes have been sent. Later changes are not announced.
+     */
+    public void close() {
+        closed = true;
+        for (ChangeSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+}
@@ -1,33 +1,51 @@
 package backend;
 
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Locale;
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List; 
 
 /**
  * The {@code StatisticsTracker} class is responsible for managing study statistics
  * for a specific entity (e.g., a pet). It handles loading and saving data to a CSV file,
  * and tracks details such as the last study session, daily start and end times, and total study time.
+ * Timestamps are kept and written as epoch milliseconds; the "yyyy-MM-dd hh:mm AM" text form is only used
+ * to display them and to read rows written before they were stored as milliseconds.
  */
 public class StatisticsTracker {
     private static StatisticsTracker instance; // Singleton instance
     private String name; // The name of the entity (e.g., pet or user)
-    private String lastStudySession; // The timestamp of the last study session
-    private String lastLogout; // The timestamp of the last logout
-    private String dayStart; // The start time for the current day
-    private String dayEnd; // The end time for the current day
+    private long lastStudySession; // The timestamp of the last study session, in epoch milliseconds
+    private long lastLogout; // The timestamp of the last logout, in epoch milliseconds
+    private long dayStart; // The start time for the current day, in epoch milliseconds
+    private long dayEnd; // The end time for the current day, in epoch milliseconds
+    private ZoneId zone; // The time zone timestamps are displayed in
     private int totalStudyTime; // The total study time in minutes
+    private MutationJournal journal; // Journal that records study time changes, or null if they are not journaled
+    private StatePublisher publisher; // Publisher told about study changes, or null if they are not published
+    private String petName; // The pet the published changes belong to
     private static final String FILE_PATH = "../data_handling/statistics_tracker.csv"; // The statistics file path
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm a", Locale.ENGLISH); // Displays and imports "AM"/"PM" timestamps
+    /** Stands for a timestamp that is missing or could not be read */
+    public static final long UNKNOWN_TIME = Long.MIN_VALUE;
     /**
-     * Constructs a {@code StatisticsTracker} instance and loads statistics for the specified name.
+     * Retrieves the statistics of a pet. A pet with a game context in the {@link GameSessionRegistry} gets
+     * that context's statistics; otherwise one shared instance is loaded for the specified name.
      *
-     * @param dogName The name of the entity whose statistics are being tracked.
+     * @param name The name of the entity whose statistics are being tracked.
+     * @return The statistics tracker.
      */
-
-     public static StatisticsTracker getInstance(String name) {
+    public static StatisticsTracker getInstance(String name) {
+        GameManager session = GameSessionRegistry.getInstance().get(name);
+        if (session != null) {
+            return session.getCurrentStatisticsTracker();
+        }
         if (instance == null) {
             instance = new StatisticsTracker(name);
         }
@@ -48,24 +66,47 @@ public class StatisticsTracker {
     }
     
     public StatisticsTracker(String dogName, String filePath) {
+        this(dogName, filePath, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a {@code StatisticsTracker} for the default statistics file that takes the current time
+     * from the given clock.
+     *
+     * @param dogName The name of the entity whose statistics are being tracked.
+     * @param clock   The source of the current time.
+     */
+    public StatisticsTracker(String dogName, Clock clock) {
+        this(dogName, FILE_PATH, clock);
+    }
+
+    /**
+     * Constructs a {@code StatisticsTracker} that takes the current time from the given clock,
+     * so new entries can be created at simulated times.
+     *
+     * @param dogName  The name of the entity whose statistics are being tracked.
+     * @param filePath The path to the statistics file.
+     * @param clock    The source of the current time.
+     */
+    public StatisticsTracker(String dogName, String filePath, Clock clock) {
+        this.zone = clock.getZone();
         boolean found = false;
-        List<String> lines = new ArrayList<>();
+        boolean isEmpty = true;
 
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-
-            // Read all lines to handle file manipulation later
-            while ((line = br.readLine()) != null) {
-                lines.add(line);
-                String[] data = line.split(","); // Split by comma
-
-                if (!line.equals(lines.get(0)) && data[0].equalsIgnoreCase(dogName)) {
-                    this.name = data[0];
-                    this.lastStudySession = data[1];
-                    this.lastLogout = data[2];
-                    this.dayStart = data[3];
-                    this.dayEnd = data[4];
-                    this.totalStudyTime = Integer.parseInt(data[5]);
+            CsvTokenizer csv = new CsvTokenizer(br);
+
+            while (csv.next()) {
+                boolean isHeader = isEmpty;
+                isEmpty = false;
+
+                if (!isHeader && csv.fieldEqualsIgnoreCase(0, dogName)) {
+                    this.name = csv.string(0);
+                    this.lastStudySession = readTimestamp(csv.string(1));
+                    this.lastLogout = readTimestamp(csv.string(2));
+                    this.dayStart = readTimestamp(csv.string(3));
+                    this.dayEnd = readTimestamp(csv.string(4));
+                    this.totalStudyTime = csv.intField(5);
                     found = true;
                 }
             }
@@ -82,21 +123,21 @@ public class StatisticsTracker {
 
             // Default values for the new dog
             this.name = dogName;
-            this.lastStudySession = StatisticsTracker.formatLocalDateTime(LocalDateTime.now());
-            this.lastLogout = StatisticsTracker.formatLocalDateTime(LocalDateTime.now());;
-            this.dayStart = StatisticsTracker.formatLocalDateTime(LocalDateTime.now());;
-            this.dayEnd = StatisticsTracker.formatLocalDateTime(LocalDateTime.now().plusDays(1));
+            LocalDateTime now = LocalDateTime.now(clock);
+            this.lastStudySession = toMillis(now);
+            this.lastLogout = toMillis(now);
+            this.dayStart = toMillis(now);
+            this.dayEnd = toMillis(now.plusDays(1));
             this.totalStudyTime = 0;
 
             // Append the new dog entry to the file
             try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath, true))) {
-                if (lines.isEmpty()) {
+                if (isEmpty) {
                     // Add header if file is empty
                     bw.write("Name,LastStudySession,LastLogout,DayStart,DayEnd,TotalStudyTime");
                     bw.newLine();
                 }
-                bw.write(this.name + "," + this.lastStudySession + "," + this.lastLogout + "," +
-                        this.dayStart + "," + this.dayEnd + "," + this.totalStudyTime);
+                bw.write(toCsvRow());
                 bw.newLine();
                 System.out.println("Added new dog to the file: " + this.name);
             } catch (IOException e) {
@@ -109,54 +150,7 @@ public class StatisticsTracker {
      * Saves the current statistics to the CSV file. Updates the corresponding entry if it exists.
      */
     public void saveToFile() {
-        String fileName = "../data_handling/statistics_tracker.csv";
-        List<String> lines = new ArrayList<>();
-        boolean updated = false;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-            String line;
-
-            // Read each line of the file
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-
-                // Check if the line corresponds to the current name
-                if (data[0].equalsIgnoreCase(name)) {
-                    // Update the row with new values
-                    line = String.format("%s,%s,%s,%s,%s,%d",
-                            name,
-                            lastStudySession,
-                            lastLogout,
-                            dayStart,
-                            dayEnd,
-                            totalStudyTime);
-                    updated = true;
-                }
-
-                lines.add(line); // Add the line to the list
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading the file: " + e.getMessage());
-            return;
-        }
-
-        // If the name was not found in the file, print an error
-        if (!updated) {
-            System.err.println("Name not found in the file: " + name);
-            return;
-        }
-
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
-            // Write back all lines to the file
-            for (String line : lines) {
-                writer.write(line);
-                writer.newLine();
-            }
-
-            System.out.println("Data successfully updated in file: " + fileName);
-        } catch (IOException e) {
-            System.err.println("Error writing to the file: " + e.getMessage());
-        }
+        saveToFile(FILE_PATH);
     }
     
     /**
@@ -164,53 +158,17 @@ public class StatisticsTracker {
      * @param fileName name of file.
      */
     public void saveToFile(String fileName) {
-        List<String> lines = new ArrayList<>();
-        boolean updated = false;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-            String line;
-
-            // Read each line of the file
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-
-                // Check if the line corresponds to the current name
-                if (data[0].equalsIgnoreCase(name)) {
-                    // Update the row with new values
-                    line = String.format("%s,%s,%s,%s,%s,%d",
-                            name,
-                            lastStudySession,
-                            lastLogout,
-                            dayStart,
-                            dayEnd,
-                            totalStudyTime);
-                    updated = true;
-                }
-
-                lines.add(line); // Add the line to the list
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading the file: " + e.getMessage());
-            return;
-        }
-
-        // If the name was not found in the file, print an error
-        if (!updated) {
-            System.err.println("Name not found in the file: " + name);
-            return;
-        }
-
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
-            // Write back all lines to the file
-            for (String line : lines) {
-                writer.write(line);
-                writer.newLine();
-            }
+        new SaveBundle().statistics(this, fileName).commit();
+    }
 
-            System.out.println("Data successfully updated in file: " + fileName);
-        } catch (IOException e) {
-            System.err.println("Error writing to the file: " + e.getMessage());
-        }
+    /**
+     * Builds the statistics row for the statistics file. Final because the constructor calls it.
+     *
+     * @return The CSV row for the statistics.
+     */
+    final String toCsvRow() {
+        return name + "," + writeTimestamp(lastStudySession) + "," + writeTimestamp(lastLogout) + ","
+                + writeTimestamp(dayStart) + "," + writeTimestamp(dayEnd) + "," + totalStudyTime;
     }
 
     // Getters and Setters
@@ -236,57 +194,111 @@ public class StatisticsTracker {
     /**
      * Retrieves the timestamp of the last study session.
      *
-     * @return The last study session timestamp.
+     * @return The last study session timestamp, formatted for display.
      */
     public String getLastStudySession() {
+        return displayTimestamp(lastStudySession);
+    }
+
+    /**
+     * Retrieves the timestamp of the last study session.
+     *
+     * @return The last study session timestamp in epoch milliseconds, or {@link #UNKNOWN_TIME}.
+     */
+    public long getLastStudySessionMillis() {
         return lastStudySession;
     }
 
     /**
      * Sets the timestamp of the last study session.
      *
-     * @param lastStudySession The new timestamp to set.
+     * @param lastStudySession The new timestamp to set, in any form {@link #parseTimestamp} accepts.
      */
     public void setLastStudySession(String lastStudySession) {
-        this.lastStudySession = lastStudySession;
+        this.lastStudySession = readTimestamp(lastStudySession);
+        publish();
+    }
+
+    /**
+     * Sets the timestamp of the last study session.
+     *
+     * @param lastStudySession The new timestamp to set.
+     */
+    public void setLastStudySession(Instant lastStudySession) {
+        this.lastStudySession = lastStudySession.toEpochMilli();
+        publish();
     }
 
     /**
      * Retrieves the start time for the current day.
      *
-     * @return The start time for the day.
+     * @return The start time for the day, formatted for display.
      */
     public String getDayStart() {
+        return displayTimestamp(dayStart);
+    }
+
+    /**
+     * Retrieves the start time for the current day.
+     *
+     * @return The start time for the day in epoch milliseconds, or {@link #UNKNOWN_TIME}.
+     */
+    public long getDayStartMillis() {
         return dayStart;
     }
 
     /**
      * Sets the start time for the current day.
      *
-     * @param dayStart The new start time to set.
+     * @param dayStart The new start time to set, in any form {@link #parseTimestamp} accepts.
      */
     public void setDayStart(String dayStart) {
-        this.dayStart = dayStart;
+        this.dayStart = readTimestamp(dayStart);
     }
 
     /**
      * Retrieves the end time for the current day.
      *
-     * @return The end time for the day.
+     * @return The end time for the day, formatted for display.
      */
     public String getDayEnd() {
+        return displayTimestamp(dayEnd);
+    }
+
+    /**
+     * Retrieves the end time for the current day.
+     *
+     * @return The end time for the day in epoch milliseconds, or {@link #UNKNOWN_TIME}.
+     */
+    public long getDayEndMillis() {
         return dayEnd;
     }
 
-    public String getLastLogout() {return this.lastLogout;}
+    /**
+     * Retrieves the timestamp of the last logout.
+     *
+     * @return The last logout, formatted for display.
+     */
+    public String getLastLogout() {
+        return displayTimestamp(lastLogout);
+    }
+
+    /**
+     * Retrieves the timestamp of the last logout.
+     *
+     * @return The last logout in epoch milliseconds, or {@link #UNKNOWN_TIME}.
+     */
+    public long getLastLogoutMillis() {
+        return lastLogout;
+    }
 
     /**
      * Sets the end time for the current day.
      *
-     * @param dayEnd The new end time to set.
+     * @param dayEnd The new end time to set, in any form {@link #parseTimestamp} accepts.
      */
     public void setDayEnd(String dayEnd) {
-        this.dayEnd = dayEnd;
+        this.dayEnd = readTimestamp(dayEnd);
     }
 
     /**
@@ -305,38 +317,173 @@ public class StatisticsTracker {
      */
     public void setTotalStudyTime(int totalStudyTime) {
         this.totalStudyTime = totalStudyTime;
+        if (journal != null) {
+            journal.recordStatistics(name, "totalStudyTime", totalStudyTime);
+        }
+        publish();
+    }
+
+    /**
+     * Starts recording study time changes in the given journal.
+     *
+     * @param journal The journal to record into, or {@code null} to stop recording.
+     */
+    void attachJournal(MutationJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Starts announcing study changes through the given publisher.
+     *
+     * @param publisher The publisher to announce through, or {@code null} to stop announcing.
+     * @param petName   The name of the pet whose statistics these are.
+     */
+    void attachPublisher(StatePublisher publisher, String petName) {
+        this.publisher = publisher;
+        this.petName = petName;
+    }
+
+    /**
+     * Announces a study change if a publisher is attached.
+     */
+    private void publish() {
+        if (publisher != null) {
+            publisher.publish(StatePublisher.Source.STATISTICS, petName);
+        }
     }
 
     /**
      * Formats a {@code LocalDateTime} object into a human-readable string.
      *
      * @param dateTime The {@code LocalDateTime} object to format.
-     * @return A formatted date-time string in "yyyy-MM-dd hh:mm a" format.
+     * @return A formatted date-time string in "yyyy-MM-dd hh:mm a" format, with "AM" or "PM".
      * @throws IllegalArgumentException if the {@code dateTime} is null.
      */
     public static String formatLocalDateTime(LocalDateTime dateTime) {
         if (dateTime == null) {
             throw new IllegalArgumentException("The LocalDateTime object cannot be null");
         }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm a");
-        String formatted = dateTime.format(formatter);
-        formatted = formatted.replace("a.m.", "AM").replace("p.m.", "PM");
+        return dateTime.format(TIMESTAMP_FORMATTER);
+    }
 
-        return formatted;
+    /**
+     * Reads a timestamp from the statistics file. Epoch milliseconds are read directly; older rows hold
+     * "yyyy-MM-dd hh:mm AM" text or ISO date-times, which are read as local times in the given zone.
+     *
+     * @param timestamp The stored timestamp.
+     * @param zone      The time zone of text timestamps.
+     * @return The timestamp in epoch milliseconds, or {@link #UNKNOWN_TIME} if it is empty.
+     * @throws DateTimeParseException if the timestamp is in none of those forms.
+     */
+    public static long parseTimestamp(String timestamp, ZoneId zone) {
+        String text = timestamp.trim();
+        if (text.isEmpty()) {
+            return UNKNOWN_TIME;
+        }
+        if (isEpochMillis(text)) {
+            return Long.parseLong(text);
+        }
+        LocalDateTime dateTime = text.indexOf('T') > 0 ? LocalDateTime.parse(text) : parseDateTime(text);
+        return dateTime.atZone(zone).toInstant().toEpochMilli();
     }
 
-    public static LocalDateTime formatStringToLocalDateTime(String dateTime) {
+    private static boolean isEpochMillis(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if ((ch < '0' || ch > '9') && !(i == 0 && ch == '-' && text.length() > 1)) {
+                return false;
+            }
+        }
+        return text.length() <= 19;
+    }
+
+    /**
+     * Reads a stored timestamp in this tracker's zone, logging and forgetting it if it cannot be read.
+     */
+    private long readTimestamp(String timestamp) {
+        try {
+            return parseTimestamp(timestamp, zone);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            System.err.println("Unreadable timestamp for " + name + ": " + timestamp);
+            return UNKNOWN_TIME;
+        }
+    }
+
+    private static String writeTimestamp(long millis) {
+        return millis == UNKNOWN_TIME ? "" : Long.toString(millis);
+    }
+
+    private String displayTimestamp(long millis) {
+        return millis == UNKNOWN_TIME ? "" : formatLocalDateTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone));
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Parses a timestamp written by {@link #formatLocalDateTime(LocalDateTime)} without logging it.
+     * Both the "AM"/"PM" and "a.m."/"p.m." spellings are accepted, whatever the default locale.
+     *
+     * @param dateTime The timestamp to parse.
+     * @return The parsed date and time.
+     * @throws DateTimeParseException if the timestamp is not in "yyyy-MM-dd hh:mm a" format.
+     */
+    static LocalDateTime parseDateTime(String dateTime) {
+        String normalized = dateTime.trim().replace("a.m.", "AM").replace("p.m.", "PM");
+        LocalDateTime parsed = parseFixedWidth(normalized);
+        return parsed != null ? parsed : LocalDateTime.parse(normalized, TIMESTAMP_FORMATTER);
+    }
+
+    /**
+     * Parses the common "yyyy-MM-dd hh:mm AM" layout field by field, which is much cheaper than the formatter
+     * when whole files of timestamps are read.
+     *
+     * @return The parsed date and time, or {@code null} if the text does not have exactly that layout.
+     */
+    private static LocalDateTime parseFixedWidth(String text) {
+        if (text.length() != 19 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != ' '
+                || text.charAt(13) != ':' || text.charAt(16) != ' ' || text.charAt(18) != 'M') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        char half = text.charAt(17);
+        if (year < 0 || month < 0 || day < 0 || hour < 1 || hour > 12 || minute < 0 || (half != 'A' && half != 'P')) {
+            return null;
+        }
         try {
-            // Normalize the input string to match the expected format
-            dateTime = dateTime.replace("AM", "a.m.");
-            dateTime = dateTime.replace("PM", "p.m.");
-            System.out.println(dateTime);
-            // Define the formatter for the normalized string
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm a");
+            return LocalDateTime.of(year, month, day, hour % 12 + (half == 'P' ? 12 : 0), minute);
+        } catch (DateTimeException e) {
+            return null; // Let the formatter report the invalid date
+        }
+    }
 
-            // Parse the normalized string into a LocalDateTime
-            return LocalDateTime.parse(dateTime, formatter);
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char ch = text.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            value = value * 10 + (ch - '0');
+        }
+        return value;
+    }
 
+    /**
+     * Parses a timestamp in "yyyy-MM-dd hh:mm a" format, whatever the default locale.
+     *
+     * @param dateTime The timestamp to parse.
+     * @return The parsed date and time.
+     * @throws DateTimeParseException if the timestamp is not in that format.
+     */
+    public static LocalDateTime formatStringToLocalDateTime(String dateTime) {
+        try {
+            return parseDateTime(dateTime);
         } catch (DateTimeParseException e) {
             // Print the error message and rethrow the exception
             System.err.println("Error parsing date-time string: " + e.getMessage());
@@ -353,9 +500,9 @@ public class StatisticsTracker {
     public String toString() {
         return "Statistics Tracker Information:\n" +
                "Name: " + name + "\n" +
-               "Last Study Session: " + lastStudySession + "\n" +
-               "Day Start: " + dayStart + "\n" +
-               "Day End: " + dayEnd + "\n" +
+               "Last Study Session: " + getLastStudySession() + "\n" +
+               "Day Start: " + getDayStart() + "\n" +
+               "Day End: " + getDayEnd() + "\n" +
                "Total Study Time: " + totalStudyTime + " minutes";
     }
 
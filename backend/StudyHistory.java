@@ -0,0 +1,418 @@
+package backend;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code StudyHistory} class keeps the history of a pet's study sessions in an append-only log, one file
+ * per pet. Each credited session is appended with its start, end, minutes and whether it was interrupted, and
+ * is added at once to per-day, per-week and per-month totals kept in memory. Reports read those totals, so
+ * their cost depends on the number of days, weeks or months shown, not on the number of sessions.
+ *
+ * Sessions older than a retention period can be compacted into per-day total records. Weekly and monthly
+ * totals are rebuilt from the daily ones, so compaction loses only the details of individual old sessions.
+ */
+public class StudyHistory {
+    private static final String DIRECTORY = "../data_handling/"; // Where the history files are kept
+    private static final String FILE_PREFIX = "study_history_"; // Start of each history file name
+    private static final String FILE_SUFFIX = ".log"; // End of each history file name
+    private static final int RAW_RETENTION_DAYS = 90; // How long individual sessions are kept before compaction
+    private static final char SEPARATOR = '\t'; // Separates the columns of a record
+    private static final Map<String, StudyHistory> histories = new ConcurrentHashMap<>(); // Shared histories by pet
+
+    /** The lengths of period the history totals up */
+    public enum Period {
+        /** Calendar days */
+        DAY,
+        /** Weeks starting on Monday */
+        WEEK,
+        /** Calendar months */
+        MONTH
+    }
+
+    /**
+     * The study totals of one day, week or month.
+     */
+    public static final class Bucket {
+        private final LocalDate start; // The first day of the period
+        private int minutes; // Minutes studied
+        private int sessions; // Sessions credited
+        private int interruptedSessions; // Sessions ended early
+
+        private Bucket(LocalDate start) {
+            this.start = start;
+        }
+
+        /**
+         * Retrieves the first day of the period.
+         *
+         * @return The start of the period.
+         */
+        public LocalDate getStart() {
+            return start;
+        }
+
+        /**
+         * Retrieves the minutes studied in the period.
+         *
+         * @return The minutes studied.
+         */
+        public int getMinutes() {
+            return minutes;
+        }
+
+        /**
+         * Retrieves the number of sessions credited in the period.
+         *
+         * @return The number of sessions.
+         */
+        public int getSessions() {
+            return sessions;
+        }
+
+        /**
+         * Retrieves the number of sessions in the period that were ended early.
+         *
+         * @return The number of interrupted sessions.
+         */
+        public int getInterruptedSessions() {
+            return interruptedSessions;
+        }
+
+        private void add(int addedMinutes, int addedSessions, int addedInterrupted) {
+            minutes += addedMinutes;
+            sessions += addedSessions;
+            interruptedSessions += addedInterrupted;
+        }
+
+        @Override
+        public String toString() {
+            return start + ": " + minutes + " minutes in " + sessions + " sessions";
+        }
+    }
+
+    /**
+     * One credited study session.
+     */
+    public static final class Entry {
+        private final Instant start; // When the session started
+        private final Instant end; // When the session's study time was credited
+        private final int minutes; // Minutes credited
+        private final boolean interrupted; // Whether the session was ended early
+
+        private Entry(Instant start, Instant end, int minutes, boolean interrupted) {
+            this.start = start;
+            this.end = end;
+            this.minutes = minutes;
+            this.interrupted = interrupted;
+        }
+
+        /**
+         * Retrieves when the session started.
+         *
+         * @return The start of the session.
+         */
+        public Instant getStart() {
+            return start;
+        }
+
+        /**
+         * Retrieves when the session's study time was credited.
+         *
+         * @return The end of the session.
+         */
+        public Instant getEnd() {
+            return end;
+        }
+
+        /**
+         * Retrieves the minutes credited for the session.
+         *
+         * @return The minutes studied.
+         */
+        public int getMinutes() {
+            return minutes;
+        }
+
+        /**
+         * Checks whether the session was ended early.
+         *
+         * @return {@code true} if the session was interrupted.
+         */
+        public boolean isInterrupted() {
+            return interrupted;
+        }
+    }
+
+    private final Path file; // The pet's history log
+    private final ZoneId zone; // The time zone days are counted in
+    private final NavigableMap<LocalDate, Bucket> days = new TreeMap<>(); // Totals per day
+    private final NavigableMap<LocalDate, Bucket> weeks = new TreeMap<>(); // Totals per week, keyed by Monday
+    private final NavigableMap<LocalDate, Bucket> months = new TreeMap<>(); // Totals per month, keyed by the 1st
+    private final List<Entry> entries = new ArrayList<>(); // Sessions not yet compacted, oldest first
+    private FileChannel channel; // Open history log, or null if it could not be opened
+
+    /**
+     * Returns the shared history of a pet, loading it and compacting sessions past the retention period on
+     * first use.
+     *
+     * @param petName The pet's name.
+     * @return The pet's study history.
+     */
+    public static StudyHistory forPet(String petName) {
+        return histories.computeIfAbsent(petName.toLowerCase(), name -> {
+            StudyHistory history = new StudyHistory(DIRECTORY + fileName(name), ZoneId.systemDefault());
+            history.compact(LocalDate.now().minusDays(RAW_RETENTION_DAYS));
+            return history;
+        });
+    }
+
+    /**
+     * Builds the name of a pet's history file. Lower-case letters, digits, '_' and '-' are kept and every
+     * other byte of the name is written as '%' and two hex digits, so no name can reach outside the data
+     * directory or fail to open, and different names never share a file.
+     *
+     * @param petName The pet's name, in any case.
+     * @return The file name, without a directory.
+     */
+    public static String fileName(String petName) {
+        StringBuilder name = new StringBuilder(FILE_PREFIX);
+        for (byte b : petName.toLowerCase().getBytes(StandardCharsets.UTF_8)) {
+            if ((b >= 'a' && b <= 'z') || (b >= '0' && b <= '9') || b == '_' || b == '-') {
+                name.append((char) b);
+            } else {
+                name.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return name.append(FILE_SUFFIX).toString();
+    }
+
+    /**
+     * Constructs a {@code StudyHistory}, loading its log and opening it for appending.
+     *
+     * @param filePath The path to the history log.
+     * @param zone     The time zone days are counted in.
+     */
+    public StudyHistory(String filePath, ZoneId zone) {
+        this.file = Paths.get(filePath);
+        this.zone = zone;
+        load();
+        openChannel();
+    }
+
+    /**
+     * Appends a credited session to the log and adds it to the day, week and month it started in.
+     *
+     * @param start       When the session started.
+     * @param end         When the session's study time was credited.
+     * @param minutes     The minutes credited.
+     * @param interrupted Whether the session was ended early.
+     */
+    public synchronized void record(Instant start, Instant end, int minutes, boolean interrupted) {
+        Entry entry = new Entry(start, end, minutes, interrupted);
+        entries.add(entry);
+        addToTotals(start.atZone(zone).toLocalDate(), minutes, 1, interrupted ? 1 : 0);
+        append(entryRecord(entry));
+    }
+
+    /**
+     * Retrieves the totals of every period between two dates that has any study time, oldest first.
+     *
+     * @param period The length of the periods.
+     * @param from   The first day to include.
+     * @param to     The last day to include.
+     * @return The totals of the periods starting in that range; periods without sessions are left out.
+     */
+    public synchronized List<Bucket> getTotals(Period period, LocalDate from, LocalDate to) {
+        return new ArrayList<>(totals(period).subMap(periodStart(period, from), true, to, true).values());
+    }
+
+    /**
+     * Retrieves the totals of the period containing a date.
+     *
+     * @param period The length of the period.
+     * @param date   A day in the period.
+     * @return The period's totals, which are all zero if nothing was studied in it.
+     */
+    public synchronized Bucket getTotal(Period period, LocalDate date) {
+        LocalDate start = periodStart(period, date);
+        Bucket bucket = totals(period).get(start);
+        return bucket != null ? bucket : new Bucket(start);
+    }
+
+    /**
+     * Retrieves the sessions that have not been compacted yet.
+     *
+     * @return The sessions, oldest first.
+     */
+    public synchronized List<Entry> getEntries() {
+        return Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    /**
+     * Folds the sessions that started before a date into per-day totals, rewriting the log.
+     *
+     * @param before Sessions on days before this date are compacted.
+     * @return {@code true} if the log was rewritten or there was nothing to compact.
+     */
+    public synchronized boolean compact(LocalDate before) {
+        boolean anyOld = false;
+        for (Entry entry : entries) {
+            anyOld |= entry.getStart().atZone(zone).toLocalDate().isBefore(before);
+        }
+        if (!anyOld) {
+            return true; // Nothing old enough yet
+        }
+        List<String> records = new ArrayList<>();
+        for (Bucket day : days.headMap(before, false).values()) {
+            records.add("D" + SEPARATOR + day.getStart().toEpochDay() + SEPARATOR + day.getMinutes() + SEPARATOR
+                    + day.getSessions() + SEPARATOR + day.getInterruptedSessions());
+        }
+        List<Entry> kept = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (!entry.getStart().atZone(zone).toLocalDate().isBefore(before)) {
+                kept.add(entry);
+                records.add(entryRecord(entry));
+            }
+        }
+        try {
+            Path temp = Paths.get(file + ".tmp");
+            Files.write(temp, records, StandardCharsets.UTF_8);
+            close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error compacting the study history: " + e.getMessage());
+            return false;
+        } finally {
+            if (channel == null) {
+                openChannel();
+            }
+        }
+        entries.clear();
+        entries.addAll(kept);
+        return true;
+    }
+
+    /**
+     * Closes the history log.
+     */
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing the study history: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    private NavigableMap<LocalDate, Bucket> totals(Period period) {
+        switch (period) {
+            case WEEK:
+                return weeks;
+            case MONTH:
+                return months;
+            default:
+                return days;
+        }
+    }
+
+    private static LocalDate periodStart(Period period, LocalDate date) {
+        switch (period) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+
+    private void addToTotals(LocalDate day, int minutes, int sessions, int interrupted) {
+        for (Period period : Period.values()) {
+            totals(period).computeIfAbsent(periodStart(period, day), Bucket::new).add(minutes, sessions, interrupted);
+        }
+    }
+
+    private static String entryRecord(Entry entry) {
+        return "R" + SEPARATOR + entry.getStart().toEpochMilli() + SEPARATOR + entry.getEnd().toEpochMilli()
+                + SEPARATOR + entry.getMinutes() + SEPARATOR + (entry.isInterrupted() ? 1 : 0);
+    }
+
+    /**
+     * Replays the log into the totals and the list of sessions.
+     */
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] record = line.split(String.valueOf(SEPARATOR));
+                try {
+                    if (record[0].equals("R") && record.length >= 5) {
+                        Entry entry = new Entry(Instant.ofEpochMilli(Long.parseLong(record[1])),
+                                Instant.ofEpochMilli(Long.parseLong(record[2])), Integer.parseInt(record[3]),
+                                record[4].equals("1"));
+                        entries.add(entry);
+                        addToTotals(entry.getStart().atZone(zone).toLocalDate(), entry.getMinutes(), 1,
+                                entry.isInterrupted() ? 1 : 0);
+                    } else if (record[0].equals("D") && record.length >= 5) {
+                        addToTotals(LocalDate.ofEpochDay(Long.parseLong(record[1])), Integer.parseInt(record[2]),
+                                Integer.parseInt(record[3]), Integer.parseInt(record[4]));
+                    }
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid study history record: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading the study history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Appends one record to the end of the log.
+     */
+    private void append(String record) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap((record + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing to the study history: " + e.getMessage());
+        }
+    }
+
+    private void openChannel() {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Study history not saved, could not open " + file + ": " + e.getMessage());
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package backend;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code StudySessionEngine} class runs study sessions without blocking any thread. A session is a study
+ * phase followed by a break, and each phase is a single timer on a {@link TimingWheel}, so thousands of
+ * sessions can run at once on the wheel's driver thread. Callers read a session's phase and remaining time
+ * whenever they like, and end it early with {@link StudySession#interrupt()}.
+ *
+ * A listener is told about every phase change. It is called on the wheel's driver thread when a phase runs
+ * out, or on the interrupting thread, and should return quickly.
+ */
+public class StudySessionEngine {
+    /** The phases of a study session */
+    public enum Phase {
+        /** The player is studying */
+        STUDY,
+        /** The study phase is over and the player is on a break */
+        BREAK,
+        /** The break ran out, so the whole session was completed */
+        COMPLETED,
+        /** The session was ended early during the study phase or the break */
+        INTERRUPTED
+    }
+
+    /** Receives the phase changes of a session */
+    public interface Listener {
+        /**
+         * Called after a session moved to a new phase.
+         *
+         * @param session  The session.
+         * @param previous The phase the session left.
+         * @param phase    The phase the session is now in.
+         */
+        void phaseChanged(StudySession session, Phase previous, Phase phase);
+    }
+
+    private static StudySessionEngine instance;
+
+    private final TimingWheel wheel; // Holds the timer of each running phase
+    private final Clock clock; // The source of the current time
+    private final Map<Long, StudySession> sessions = new ConcurrentHashMap<>(); // The sessions still running
+    private final AtomicLong nextId = new AtomicLong(1); // The id of the next session
+
+    /**
+     * A running or finished study session.
+     */
+    public static final class StudySession {
+        private final StudySessionEngine engine; // The engine running the session
+        private final long id; // The id of the session
+        private final Duration studyLength; // How long the study phase lasts
+        private final Duration breakLength; // How long the break lasts
+        private final Listener listener; // Told about phase changes, may be null
+        private final Instant studyStart; // When the study phase started
+        private final CountDownLatch finished = new CountDownLatch(1); // Released once the session has ended
+        private Phase phase = Phase.STUDY; // The current phase
+        private Instant phaseEnd; // When the current phase runs out
+        private Duration studied; // How long was studied, set when the study phase ends
+        private TimingWheel.Timeout timer; // The timer ending the current phase
+
+        private StudySession(StudySessionEngine engine, long id, Duration studyLength, Duration breakLength,
+                             Listener listener, Instant studyStart) {
+            this.engine = engine;
+            this.id = id;
+            this.studyLength = studyLength;
+            this.breakLength = breakLength;
+            this.listener = listener;
+            this.studyStart = studyStart;
+        }
+
+        /**
+         * Retrieves the id of the session.
+         *
+         * @return The session's id.
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Retrieves when the session started.
+         *
+         * @return The start of the study phase.
+         */
+        public Instant getStartTime() {
+            return studyStart;
+        }
+
+        /**
+         * Retrieves the current phase of the session.
+         *
+         * @return The session's phase.
+         */
+        public synchronized Phase getPhase() {
+            return phase;
+        }
+
+        /**
+         * Retrieves the time left in the current phase.
+         *
+         * @return The remaining time, or zero once the session has ended.
+         */
+        public synchronized Duration getRemaining() {
+            if (phaseEnd == null) {
+                return Duration.ZERO;
+            }
+            Duration remaining = Duration.between(engine.clock.instant(), phaseEnd);
+            return remaining.isNegative() ? Duration.ZERO : remaining;
+        }
+
+        /**
+         * Retrieves the length of the current phase.
+         *
+         * @return The length of the study phase or the break, or zero once the session has ended.
+         */
+        public synchronized Duration getPhaseLength() {
+            switch (phase) {
+                case STUDY:
+                    return studyLength;
+                case BREAK:
+                    return breakLength;
+                default:
+                    return Duration.ZERO;
+            }
+        }
+
+        /**
+         * Retrieves how long has been studied so far.
+         *
+         * @return The time studied, which stops growing when the study phase ends.
+         */
+        public synchronized Duration getStudied() {
+            if (studied != null) {
+                return studied;
+            }
+            Duration elapsed = Duration.between(studyStart, engine.clock.instant());
+            return elapsed.compareTo(studyLength) > 0 ? studyLength : elapsed;
+        }
+
+        /**
+         * Checks whether the session was ended early.
+         *
+         * @return {@code true} if the session was interrupted.
+         */
+        public synchronized boolean isInterrupted() {
+            return phase == Phase.INTERRUPTED;
+        }
+
+        /**
+         * Checks whether the session has ended, either completed or interrupted.
+         *
+         * @return {@code true} if the session has ended.
+         */
+        public synchronized boolean isFinished() {
+            return phase == Phase.COMPLETED || phase == Phase.INTERRUPTED;
+        }
+
+        /**
+         * Ends the session early. Time studied so far still counts.
+         *
+         * @return {@code true} if the session was running, {@code false} if it had already ended.
+         */
+        public boolean interrupt() {
+            Phase previous;
+            synchronized (this) {
+                if (phase == Phase.COMPLETED || phase == Phase.INTERRUPTED) {
+                    return false;
+                }
+                previous = phase;
+                if (phase == Phase.STUDY) {
+                    studied = getStudied();
+                }
+                timer.cancel();
+                finish(Phase.INTERRUPTED);
+            }
+            notifyListener(previous, Phase.INTERRUPTED);
+            return true;
+        }
+
+        /**
+         * Waits for the session to end, and for its listener to have been told.
+         *
+         * @param timeout The longest time to wait.
+         * @return {@code true} if the session has ended, {@code false} if the wait timed out.
+         * @throws InterruptedException if the waiting thread is interrupted.
+         */
+        public boolean awaitFinish(Duration timeout) throws InterruptedException {
+            return finished.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Moves on from the phase a timer was set for. Ignores timers of phases that have already been left.
+         */
+        private void phaseRanOut(Phase expected) {
+            Phase next;
+            synchronized (this) {
+                if (phase != expected) {
+                    return;
+                }
+                if (phase == Phase.STUDY) {
+                    studied = studyLength;
+                    phase = Phase.BREAK;
+                    schedulePhaseEnd(phaseEnd.plus(breakLength));
+                } else {
+                    finish(Phase.COMPLETED);
+                }
+                next = phase;
+            }
+            notifyListener(expected, next);
+        }
+
+        /**
+         * Sets the timer for the end of the current phase. Must be called while holding the session's lock.
+         */
+        private void schedulePhaseEnd(Instant end) {
+            Phase expected = phase;
+            phaseEnd = end;
+            timer = engine.wheel.scheduleAt(() -> phaseRanOut(expected), end);
+        }
+
+        /**
+         * Ends the session. Must be called while holding the session's lock.
+         */
+        private void finish(Phase last) {
+            phase = last;
+            phaseEnd = null;
+            timer = null;
+            engine.sessions.remove(id);
+        }
+
+        private void notifyListener(Phase previous, Phase next) {
+            try {
+                if (listener != null) {
+                    listener.phaseChanged(this, previous, next);
+                }
+            } finally {
+                if (next == Phase.COMPLETED || next == Phase.INTERRUPTED) {
+                    finished.countDown();
+                }
+            }
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "Study session " + id + ": " + phase + ", " + getRemaining().toSeconds() + "s remaining";
+        }
+    }
+
+    /**
+     * Constructs a {@code StudySessionEngine} whose sessions run on the given timing wheel.
+     *
+     * @param wheel The timing wheel; its clock measures the sessions.
+     */
+    public StudySessionEngine(TimingWheel wheel) {
+        this.wheel = wheel;
+        this.clock = wheel.getClock();
+    }
+
+    /**
+     * Retrieves the shared engine of the application, running on the shared {@link TimingWheel}.
+     *
+     * @return The shared study session engine.
+     */
+    public static synchronized StudySessionEngine getInstance() {
+        if (instance == null) {
+            instance = new StudySessionEngine(TimingWheel.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Starts a study session. The call returns at once; the session runs on the timing wheel.
+     *
+     * @param studyLength How long the study phase lasts.
+     * @param breakLength How long the break lasts.
+     * @param listener    Told about every phase change, or {@code null}.
+     * @return The running session.
+     */
+    public StudySession start(Duration studyLength, Duration breakLength, Listener listener) {
+        Instant now = clock.instant();
+        StudySession session = new StudySession(this, nextId.getAndIncrement(), studyLength, breakLength,
+                listener, now);
+        sessions.put(session.getId(), session);
+        synchronized (session) {
+            session.schedulePhaseEnd(now.plus(studyLength));
+        }
+        return session;
+    }
+
+    /**
+     * Looks up a running session.
+     *
+     * @param id The id of the session.
+     * @return The session, or {@code null} if it has ended or never existed.
+     */
+    public StudySession getSession(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Retrieves the number of sessions that have not ended yet.
+     *
+     * @return The number of running sessions.
+     */
+    public int activeSessions() {
+        return sessions.size();
+    }
+}
@@ -0,0 +1,185 @@
+package backend;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code SyncClient} class connects a desktop game to a {@link SyncServer}. {@link #push(Pet)} sends only the
+ * stats of a pet that changed since it was last synced, and a background thread applies the changes other
+ * clients make, keeping a local copy of every pet in the classroom.
+ *
+ * The copies belong to the client; a game's own pet is never changed by the background thread. Changes made
+ * by other clients are handed to the {@link Listener}, which applies them to the game's pet the way the game
+ * changes it, holding its lock.
+ */
+public class SyncClient implements AutoCloseable {
+    /** Told about pets changed by other clients */
+    public interface Listener {
+        /**
+         * Called on the client's reader thread after a pet was updated from the hub. To bring a game's own pet
+         * up to date, apply the frame to it with {@link SyncProtocol.Frame#applyTo}, which keeps its changes
+         * not pushed yet, then push it so they are sent.
+         *
+         * @param pet   The client's updated copy of the pet, only to be read during this call.
+         * @param frame The change that was applied to the copy.
+         */
+        void petChanged(Pet pet, SyncProtocol.Frame frame);
+    }
+
+    private final SocketChannel channel; // The connection to the hub
+    private final SyncProtocol.Tracker tracker = new SyncProtocol.Tracker(); // The last synced stats of each pet
+    private final Map<String, Pet> pets = new ConcurrentHashMap<>(); // The client's copy of every pet synced, by lower-case name
+    private final Listener listener; // Told about remote changes, may be null
+    private Thread reader; // Applies the frames the hub sends, or null until started
+
+    /**
+     * Connects to a hub. Nothing sent by the hub is applied until {@link #start()} is called.
+     *
+     * @param host     The hub's host name.
+     * @param port     The hub's port.
+     * @param listener Told about pets changed by other clients, or {@code null}.
+     * @throws IOException if the hub cannot be reached.
+     */
+    public SyncClient(String host, int port, Listener listener) throws IOException {
+        this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+        this.listener = listener;
+    }
+
+    /**
+     * Connects to a hub and starts applying the changes it sends.
+     *
+     * @param host     The hub's host name.
+     * @param port     The hub's port.
+     * @param listener Told about pets changed by other clients, or {@code null}.
+     * @return The started client.
+     * @throws IOException if the hub cannot be reached.
+     */
+    public static SyncClient connect(String host, int port, Listener listener) throws IOException {
+        SyncClient client = new SyncClient(host, port, listener);
+        client.start();
+        return client;
+    }
+
+    /**
+     * Starts the background thread applying the changes the hub sends. Does nothing if it is already running.
+     */
+    public synchronized void start() {
+        if (reader != null) {
+            return;
+        }
+        reader = new Thread(this::readLoop, "sync-client");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Sends the stats of a pet that changed since it was last synced. The first push of a pet sends all of them.
+     * The pet is only read, so call this holding whatever lock guards it; the client's copy of the pet is
+     * brought up to date with it.
+     *
+     * @param pet The pet.
+     * @return {@code true} if anything was sent.
+     * @throws IOException if the hub cannot be written to.
+     */
+    public boolean push(Pet pet) throws IOException {
+        ByteBuffer frame;
+        synchronized (this) {
+            String name = pet.getName().toLowerCase();
+            Pet copy = pets.get(name);
+            if (copy == null) {
+                copy = new Pet(pet.getName(), pet.getPetType(), pet.getSleepEffectiveness(), pet.getPlayEffectiveness());
+                pets.put(name, copy);
+            }
+            copy.setPetType(pet.getPetType());
+            for (SyncProtocol.Field field : SyncProtocol.Field.values()) {
+                field.set(copy, field.get(pet));
+            }
+            frame = tracker.encodeChanges(pet);
+            if (frame == null) {
+                return false;
+            }
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the client's copy of a pet. It is changed by the background thread, so treat it as read-only.
+     *
+     * @param name The pet's name, in any case.
+     * @return The pet, or {@code null} if it has not been synced.
+     */
+    public Pet getPet(String name) {
+        return pets.get(name.toLowerCase());
+    }
+
+    /**
+     * Checks whether the connection to the hub is still open.
+     *
+     * @return {@code true} if connected.
+     */
+    public boolean isConnected() {
+        return channel.isOpen();
+    }
+
+    /**
+     * Disconnects from the hub.
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing the sync connection: " + e.getMessage());
+        }
+    }
+
+    private void readLoop() {
+        ByteBuffer in = ByteBuffer.allocate(2 * SyncProtocol.MAX_PAYLOAD);
+        try {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                int length;
+                while ((length = SyncProtocol.completeFrameLength(in)) > 0) {
+                    int limit = in.limit();
+                    in.limit(in.position() + length);
+                    apply(SyncProtocol.decode(in));
+                    in.limit(limit);
+                }
+                in.compact();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            if (channel.isOpen()) {
+                System.err.println("Sync connection lost: " + e.getMessage());
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Applies a frame from the hub to the client's copy of the pet, records the result as synced so it is not
+     * pushed back, and hands the change to the listener.
+     */
+    private void apply(SyncProtocol.Frame frame) {
+        Pet pet;
+        synchronized (this) {
+            String name = frame.getPetName().toLowerCase();
+            pet = frame.applyTo(pets.get(name));
+            if (pet == null) {
+                return;
+            }
+            pets.put(name, pet);
+            tracker.received(frame);
+        }
+        if (listener != null) {
+            listener.petChanged(pet, frame);
+        }
+    }
+}
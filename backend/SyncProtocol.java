@@ -0,0 +1,376 @@
+package backend;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * The {@code SyncProtocol} class defines the binary frames a {@link SyncClient} and a {@link SyncServer} use to
+ * keep pets in sync. A frame is its payload length as a varint followed by the payload: a frame type byte, the
+ * pet's name as a varint length and UTF-8 bytes, and then
+ * <ul>
+ *     <li>for a {@link #SNAPSHOT}, the pet type and the value of every {@link Field}, each as a zigzag varint;</li>
+ *     <li>for a {@link #DELTA}, a varint bit mask of the fields that changed, and the change of each of them,
+ *     in field order, as a zigzag varint.</li>
+ * </ul>
+ * A typical delta of one stat is a handful of bytes, the name included.
+ */
+public final class SyncProtocol {
+    /** Frame type of a pet's full state */
+    public static final byte SNAPSHOT = 1;
+    /** Frame type of the changes to a pet's state */
+    public static final byte DELTA = 2;
+    /** The largest payload accepted, so a broken peer cannot make the other side buffer without limit */
+    public static final int MAX_PAYLOAD = 4096;
+
+    /** The synced stats of a pet, in the order they are written */
+    public enum Field {
+        HEALTH(Pet::getHealth, Pet::setHealth),
+        SLEEP(Pet::getSleep, Pet::setSleep),
+        FULLNESS(Pet::getFullness, Pet::setFullness),
+        HAPPINESS(Pet::getHappiness, Pet::setHappiness),
+        SCORE(Pet::getPetScore, Pet::setPetScore),
+        SLEEP_EFFECTIVENESS(Pet::getSleepEffectiveness, Pet::setSleepEffectiveness),
+        PLAY_EFFECTIVENESS(Pet::getPlayEffectiveness, Pet::setPlayEffectiveness);
+
+        private final ToIntFunction<Pet> getter; // Reads the stat
+        private final ObjIntConsumer<Pet> setter; // Writes the stat
+
+        Field(ToIntFunction<Pet> getter, ObjIntConsumer<Pet> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        /**
+         * Reads this stat of a pet.
+         *
+         * @param pet The pet.
+         * @return The stat's value.
+         */
+        public int get(Pet pet) {
+            return getter.applyAsInt(pet);
+        }
+
+        /**
+         * Writes this stat of a pet.
+         *
+         * @param pet   The pet.
+         * @param value The stat's new value.
+         */
+        public void set(Pet pet, int value) {
+            setter.accept(pet, value);
+        }
+    }
+
+    private static final Field[] FIELDS = Field.values();
+
+    /**
+     * Remembers the last synced values of each pet, so only changed fields are sent.
+     * Not thread-safe; each client uses one from a single thread at a time.
+     */
+    public static final class Tracker {
+        private final Map<String, int[]> synced = new HashMap<>(); // The last synced stats by lower-case pet name
+
+        /**
+         * Builds the frame bringing the other side up to date with a pet, and remembers its values as synced.
+         *
+         * @param pet The pet.
+         * @return A snapshot frame for a pet not synced yet, a delta frame of its changed fields, or
+         * {@code null} if nothing changed.
+         */
+        public ByteBuffer encodeChanges(Pet pet) {
+            int[] last = synced.get(pet.getName().toLowerCase());
+            if (last == null) {
+                remember(pet);
+                return encodeSnapshot(pet);
+            }
+            int mask = 0;
+            int[] deltas = new int[FIELDS.length];
+            for (Field field : FIELDS) {
+                int value = field.get(pet);
+                deltas[field.ordinal()] = value - last[field.ordinal()];
+                if (deltas[field.ordinal()] != 0) {
+                    mask |= 1 << field.ordinal();
+                    last[field.ordinal()] = value;
+                }
+            }
+            return mask == 0 ? null : encodeDelta(pet.getName(), mask, deltas);
+        }
+
+        /**
+         * Records a frame received from the other side as synced, so it is not sent back. Local changes not
+         * sent yet are kept, since a delta only moves the synced values by the same amounts as the pet.
+         *
+         * @param frame The frame that was applied to the pet.
+         */
+        public void received(Frame frame) {
+            String name = frame.getPetName().toLowerCase();
+            int[] last = synced.get(name);
+            if (frame.getType() == SNAPSHOT || last == null) {
+                synced.put(name, frame.values.clone());
+                return;
+            }
+            for (Field field : FIELDS) {
+                if (frame.has(field)) {
+                    last[field.ordinal()] += frame.get(field);
+                }
+            }
+        }
+
+        private void remember(Pet pet) {
+            int[] values = new int[FIELDS.length];
+            for (Field field : FIELDS) {
+                values[field.ordinal()] = field.get(pet);
+            }
+            synced.put(pet.getName().toLowerCase(), values);
+        }
+    }
+
+    /**
+     * A decoded frame.
+     */
+    public static final class Frame {
+        private final byte type; // SNAPSHOT or DELTA
+        private final String petName; // The pet the frame is about
+        private final int petType; // The pet's type, for snapshots
+        private final int mask; // The fields present
+        private final int[] values; // Absolute values for snapshots, changes for deltas, indexed by field
+
+        private Frame(byte type, String petName, int petType, int mask, int[] values) {
+            this.type = type;
+            this.petName = petName;
+            this.petType = petType;
+            this.mask = mask;
+            this.values = values;
+        }
+
+        /** @return {@link #SNAPSHOT} or {@link #DELTA}. */
+        public byte getType() { return type; }
+
+        /** @return The name of the pet the frame is about. */
+        public String getPetName() { return petName; }
+
+        /**
+         * Checks whether the frame carries a field.
+         *
+         * @param field The field.
+         * @return {@code true} if the field is set by a snapshot or changed by a delta.
+         */
+        public boolean has(Field field) {
+            return (mask & (1 << field.ordinal())) != 0;
+        }
+
+        /**
+         * Retrieves a field's value in a snapshot, or its change in a delta.
+         *
+         * @param field The field.
+         * @return The value or change, 0 if the frame does not carry the field.
+         */
+        public int get(Field field) {
+            return values[field.ordinal()];
+        }
+
+        /**
+         * Applies the frame to a pet.
+         *
+         * @param pet The pet, or {@code null} to create it from a snapshot.
+         * @return The updated pet, or {@code null} if a delta arrived for a pet that is not known.
+         */
+        public Pet applyTo(Pet pet) {
+            if (type == SNAPSHOT) {
+                if (pet == null) {
+                    pet = new Pet(petName, petType, 0, 0);
+                }
+                pet.setPetType(petType);
+                for (Field field : FIELDS) {
+                    field.set(pet, values[field.ordinal()]);
+                }
+                return pet;
+            }
+            if (pet == null) {
+                return null;
+            }
+            for (Field field : FIELDS) {
+                if (has(field)) {
+                    field.set(pet, field.get(pet) + values[field.ordinal()]);
+                }
+            }
+            return pet;
+        }
+    }
+
+    private SyncProtocol() {
+    }
+
+    /**
+     * Encodes a pet's full state as a snapshot frame.
+     *
+     * @param pet The pet.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeSnapshot(Pet pet) {
+        ByteBuffer payload = ByteBuffer.allocate(MAX_PAYLOAD);
+        payload.put(SNAPSHOT);
+        putName(payload, pet.getName());
+        putVarint(payload, zigzag(pet.getPetType()));
+        for (Field field : FIELDS) {
+            putVarint(payload, zigzag(field.get(pet)));
+        }
+        return frame(payload);
+    }
+
+    /**
+     * Encodes the changes to a pet as a delta frame.
+     *
+     * @param petName The pet's name.
+     * @param mask    The bit mask of the changed fields, bit {@code n} standing for the field with ordinal {@code n}.
+     * @param deltas  The change of each field, indexed by ordinal; only those in the mask are written.
+     * @return The frame, ready to be written.
+     */
+    public static ByteBuffer encodeDelta(String petName, int mask, int[] deltas) {
+        ByteBuffer payload = ByteBuffer.allocate(MAX_PAYLOAD);
+        payload.put(DELTA);
+        putName(payload, petName);
+        putVarint(payload, mask);
+        for (Field field : FIELDS) {
+            if ((mask & (1 << field.ordinal())) != 0) {
+                putVarint(payload, zigzag(deltas[field.ordinal()]));
+            }
+        }
+        return frame(payload);
+    }
+
+    /**
+     * Finds the next complete frame in a buffer being read into.
+     *
+     * @param buffer A buffer in read mode, positioned at the start of a frame.
+     * @return The frame's length, prefix included, or -1 if the buffer does not hold all of it yet.
+     * @throws IllegalArgumentException if the frame is larger than {@link #MAX_PAYLOAD}.
+     */
+    public static int completeFrameLength(ByteBuffer buffer) {
+        int start = buffer.position();
+        try {
+            int payload = getVarint(buffer);
+            if (payload < 0 || payload > MAX_PAYLOAD) {
+                throw new IllegalArgumentException("Frame too large: " + payload + " bytes");
+            }
+            int prefix = buffer.position() - start;
+            return buffer.remaining() >= payload ? prefix + payload : -1;
+        } catch (BufferUnderflowException e) {
+            return -1;
+        } finally {
+            buffer.position(start);
+        }
+    }
+
+    /**
+     * Decodes one complete frame.
+     *
+     * @param frame A buffer holding exactly one frame, length prefix included.
+     * @return The decoded frame.
+     * @throws IllegalArgumentException if the frame is malformed.
+     */
+    public static Frame decode(ByteBuffer frame) {
+        try {
+            getVarint(frame); // The length prefix
+            byte type = frame.get();
+            byte[] name = new byte[getVarint(frame)];
+            frame.get(name);
+            String petName = new String(name, StandardCharsets.UTF_8);
+            int[] values = new int[FIELDS.length];
+            if (type == SNAPSHOT) {
+                int petType = unzigzag(getVarint(frame));
+                for (Field field : FIELDS) {
+                    values[field.ordinal()] = unzigzag(getVarint(frame));
+                }
+                return new Frame(type, petName, petType, (1 << FIELDS.length) - 1, values);
+            }
+            if (type == DELTA) {
+                int mask = getVarint(frame);
+                for (Field field : FIELDS) {
+                    if ((mask & (1 << field.ordinal())) != 0) {
+                        values[field.ordinal()] = unzigzag(getVarint(frame));
+                    }
+                }
+                return new Frame(type, petName, 0, mask, values);
+            }
+            throw new IllegalArgumentException("Unknown frame type: " + type);
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("Truncated frame", e);
+        }
+    }
+
+    /**
+     * Writes an unsigned varint: seven bits per byte, low bits first, the high bit set on all but the last byte.
+     *
+     * @param buffer The buffer to write to.
+     * @param value  The value, read as unsigned.
+     */
+    public static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint written by {@link #putVarint}.
+     *
+     * @param buffer The buffer to read from.
+     * @return The value.
+     * @throws IllegalArgumentException if the varint is longer than five bytes.
+     */
+    public static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    /**
+     * Maps a signed value to an unsigned one so small changes of either sign stay small: 0, -1, 1, -2, ...
+     * become 0, 1, 2, 3, ...
+     *
+     * @param value The signed value.
+     * @return The zigzag encoding.
+     */
+    public static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Reverses {@link #zigzag}.
+     *
+     * @param value The zigzag encoding.
+     * @return The signed value.
+     */
+    public static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putName(ByteBuffer payload, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        putVarint(payload, bytes.length);
+        payload.put(bytes);
+    }
+
+    /**
+     * Prefixes a payload with its length.
+     */
+    private static ByteBuffer frame(ByteBuffer payload) {
+        payload.flip();
+        ByteBuffer frame = ByteBuffer.allocate(5 + payload.remaining());
+        putVarint(frame, payload.remaining());
+        frame.put(payload);
+        return frame.flip();
+    }
+}
@@ -0,0 +1,269 @@
+package backend;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code SyncServer} class is the hub that desktop clients in a classroom sync their pets through. One thread
+ * serves every connection with a non-blocking {@link Selector}. Each {@link SyncProtocol} frame a client sends is
+ * applied to the hub's copy of the pet and forwarded to every other client; the frame's bytes are copied once,
+ * and each recipient writes from its own {@link ByteBuffer#duplicate()} of them. A client that connects is first
+ * sent a snapshot of every pet the hub knows.
+ *
+ * A client that falls more than {@link #MAX_PENDING_BYTES} behind is disconnected instead of buffering for it
+ * without limit.
+ */
+public class SyncServer {
+    /** The most bytes buffered for one client before it is disconnected */
+    public static final int MAX_PENDING_BYTES = 1 << 20;
+    private static final int READ_BUFFER_SIZE = 16 * 1024; // Bytes read from a client at a time
+
+    private final ServerSocketChannel serverChannel; // Accepts clients
+    private final Selector selector; // Waits for any connection to be ready
+    private final Map<String, Pet> pets = new ConcurrentHashMap<>(); // The hub's copy of every pet by lower-case name
+    private Thread thread; // Runs the selector loop
+    private volatile boolean running; // Whether the selector loop should go on
+
+    /**
+     * One client connection. Only touched by the selector thread.
+     */
+    private static final class Connection {
+        private final SocketChannel channel; // The client's socket
+        private final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_SIZE); // Bytes read but not yet framed
+        private final ArrayDeque<ByteBuffer> out = new ArrayDeque<>(); // Frames waiting to be written
+        private int pendingBytes; // Bytes waiting in out
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Constructs a {@code SyncServer} listening on the given port. The server is not started yet.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException if the port cannot be bound.
+     */
+    public SyncServer(int port) throws IOException {
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Starts serving clients on a background thread.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "sync-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops serving, closing every connection.
+     */
+    public synchronized void stop() {
+        running = false;
+        selector.wakeup();
+        if (thread != null) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Error closing the sync server: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the port the server listens on.
+     *
+     * @return The bound port.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Retrieves the hub's copy of a pet. It is updated by the server's thread as frames arrive.
+     *
+     * @param name The pet's name, in any case.
+     * @return The pet, or {@code null} if no client has synced it.
+     */
+    public Pet getPet(String name) {
+        return pets.get(name.toLowerCase());
+    }
+
+    /**
+     * Retrieves the number of connected clients.
+     *
+     * @return The number of connections.
+     */
+    public int connections() {
+        try {
+            return selector.keys().size() - 1; // Less the accepting key
+        } catch (ClosedSelectorException e) {
+            return 0;
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isReadable()) {
+                            read(key, connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(key, connection);
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+            } catch (IOException | ClosedSelectorException e) {
+                if (running) {
+                    System.err.println("Sync server error: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ, connection);
+        for (Pet pet : pets.values()) {
+            enqueue(key, connection, SyncProtocol.encodeSnapshot(pet));
+        }
+    }
+
+    /**
+     * Reads what a client sent, and applies and forwards every complete frame.
+     */
+    private void read(SelectionKey key, Connection connection) {
+        try {
+            if (connection.channel.read(connection.in) < 0) {
+                close(key);
+                return;
+            }
+            connection.in.flip();
+            int length;
+            while ((length = SyncProtocol.completeFrameLength(connection.in)) > 0) {
+                // Copy the frame out of the reused read buffer once; every recipient shares these bytes
+                ByteBuffer frame = ByteBuffer.allocate(length);
+                int limit = connection.in.limit();
+                connection.in.limit(connection.in.position() + length);
+                frame.put(connection.in).flip();
+                connection.in.limit(limit);
+
+                if (apply(frame.duplicate())) {
+                    broadcast(key, frame.asReadOnlyBuffer());
+                }
+            }
+            connection.in.compact();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Dropping sync client: " + e.getMessage());
+            close(key);
+        }
+    }
+
+    /**
+     * Applies a frame to the hub's copy of its pet.
+     *
+     * @return {@code true} if the frame should be forwarded.
+     */
+    private boolean apply(ByteBuffer frame) {
+        SyncProtocol.Frame decoded = SyncProtocol.decode(frame);
+        String name = decoded.getPetName().toLowerCase();
+        Pet pet = decoded.applyTo(pets.get(name));
+        if (pet == null) {
+            System.err.println("Ignoring changes to unknown pet " + decoded.getPetName());
+            return false;
+        }
+        pets.put(name, pet);
+        return true;
+    }
+
+    private void broadcast(SelectionKey sender, ByteBuffer frame) {
+        for (SelectionKey key : selector.keys()) {
+            if (key != sender && key.isValid() && key.attachment() instanceof Connection) {
+                enqueue(key, (Connection) key.attachment(), frame.duplicate());
+            }
+        }
+    }
+
+    private void enqueue(SelectionKey key, Connection connection, ByteBuffer frame) {
+        connection.pendingBytes += frame.remaining();
+        if (connection.pendingBytes > MAX_PENDING_BYTES) {
+            System.err.println("Dropping sync client that fell behind");
+            close(key);
+            return;
+        }
+        connection.out.add(frame);
+        write(key, connection);
+    }
+
+    /**
+     * Writes as many waiting frames as the socket takes, and waits for it to be writable if some are left.
+     */
+    private void write(SelectionKey key, Connection connection) {
+        try {
+            while (!connection.out.isEmpty()) {
+                ByteBuffer frame = connection.out.peek();
+                connection.pendingBytes -= connection.channel.write(frame);
+                if (frame.hasRemaining()) {
+                    break;
+                }
+                connection.out.poll();
+            }
+            key.interestOps(connection.out.isEmpty()
+                    ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            close(key);
+        }
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            System.err.println("Error closing a sync client: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package backend;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The {@code ThresholdScheduler} class decays tracked pets without polling. For each pet it works out when
+ * sleep or fullness will next reach 25 or 0, the levels at which happiness and health start to drop, and keeps
+ * a single timer on a {@link TimingWheel} for that moment. Hourly decay in between is applied lazily with the {@link DecayEngine}:
+ * when the timer fires, or whenever {@link #catchUp(Pet)} is called before the pet is shown or changed.
+ *
+ * Listeners are told about every threshold a pet crosses. They are called on the thread that applied the
+ * decay, which is the wheel's driver thread when a timer fires.
+ */
+public class ThresholdScheduler {
+    /** The levels whose crossing changes how a pet decays */
+    public enum Threshold {
+        /** Sleep dropped to 25 or below, so happiness starts to fall */
+        SLEEP_LOW,
+        /** Sleep reached 0, so health starts to fall */
+        SLEEP_EMPTY,
+        /** Fullness dropped to 25 or below, so happiness starts to fall */
+        FULLNESS_LOW,
+        /** Fullness reached 0, so health starts to fall */
+        FULLNESS_EMPTY
+    }
+
+    /** Receives the thresholds pets cross */
+    public interface Listener {
+        /**
+         * Called after a pet crossed a threshold.
+         *
+         * @param pet       The pet, already decayed up to the current hour.
+         * @param threshold The threshold it crossed.
+         */
+        void thresholdCrossed(Pet pet, Threshold threshold);
+    }
+
+    private final Clock clock; // The source of the current time
+    private final TimingWheel wheel; // Holds the timers
+    private final boolean ownsWheel; // Whether the wheel was created for this scheduler alone
+    private volatile boolean shutdown; // Whether the scheduler has been shut down
+    private final Map<Pet, Tracked> tracked = new ConcurrentHashMap<>(); // Tracked pets and their timers
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>(); // Listeners for threshold crossings
+
+    /**
+     * The decay state of one tracked pet.
+     */
+    private static class Tracked {
+        private LocalDateTime appliedUntil; // Hour up to which decay has been applied
+        private TimingWheel.Timeout timer; // The timer for the next threshold, or null if none is pending
+    }
+
+    /**
+     * Constructs a {@code ThresholdScheduler} with its own timing wheel of one-second ticks.
+     *
+     * @param clock The source of the current time.
+     */
+    public ThresholdScheduler(Clock clock) {
+        this(new TimingWheel(clock, Duration.ofSeconds(1)), true);
+        wheel.start();
+    }
+
+    /**
+     * Constructs a {@code ThresholdScheduler} that keeps its timers on a shared timing wheel, so any number of
+     * pets and other deadlines share one driver thread.
+     *
+     * @param wheel The timing wheel to use; its clock is the scheduler's source of the current time.
+     */
+    public ThresholdScheduler(TimingWheel wheel) {
+        this(wheel, false);
+    }
+
+    private ThresholdScheduler(TimingWheel wheel, boolean ownsWheel) {
+        this.clock = wheel.getClock();
+        this.wheel = wheel;
+        this.ownsWheel = ownsWheel;
+    }
+
+    /**
+     * Starts decaying a pet from the current hour on.
+     *
+     * @param pet The pet to track.
+     */
+    public void track(Pet pet) {
+        Tracked state = new Tracked();
+        state.appliedUntil = currentHour();
+        Tracked previous = tracked.put(pet, state);
+        if (previous != null) {
+            cancel(previous);
+        }
+        synchronized (state) {
+            schedule(pet, state);
+        }
+    }
+
+    /**
+     * Stops decaying a pet. Decay that is due is not applied; call {@link #catchUp(Pet)} first to keep it.
+     *
+     * @param pet The pet to stop tracking.
+     */
+    public void untrack(Pet pet) {
+        Tracked state = tracked.remove(pet);
+        if (state != null) {
+            cancel(state);
+        }
+    }
+
+    /**
+     * Registers a listener for threshold crossings.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener for threshold crossings.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Applies the decay of every hour boundary passed since the pet was last brought up to date, tells the
+     * listeners about any thresholds crossed, and sets the timer for the next one.
+     *
+     * @param pet The tracked pet.
+     * @return The number of hours of decay applied, or 0 if the pet is not tracked.
+     */
+    public long catchUp(Pet pet) {
+        return update(pet, null);
+    }
+
+    /**
+     * Changes a tracked pet under the lock its decay is applied with: the decay it is due is applied first,
+     * then the change, and then the timer for its next threshold is recomputed. A timer coming due meanwhile
+     * waits for the change, so it cannot read the old stats and write them back over it. An untracked pet is
+     * just changed.
+     *
+     * @param pet    The pet.
+     * @param change The change to the pet's stats, or {@code null} to only bring the pet up to date.
+     * @return The number of hours of decay applied before the change.
+     */
+    public long update(Pet pet, Runnable change) {
+        Tracked state = tracked.get(pet);
+        if (state == null) {
+            if (change != null) {
+                change.run();
+            }
+            return 0;
+        }
+        long hours;
+        int sleepBefore;
+        int fullnessBefore;
+        int sleepAfter;
+        int fullnessAfter;
+        synchronized (state) {
+            LocalDateTime now = currentHour();
+            hours = Math.max(0, Duration.between(state.appliedUntil, now).toHours());
+            sleepBefore = pet.getSleep();
+            fullnessBefore = pet.getFullness();
+            DecayEngine.advance(pet, hours);
+            state.appliedUntil = state.appliedUntil.plusHours(hours);
+            sleepAfter = pet.getSleep();
+            fullnessAfter = pet.getFullness();
+            if (change != null) {
+                change.run();
+            }
+            schedule(pet, state);
+        }
+        if (hours > 0) {
+            notifyCrossings(pet, sleepBefore, sleepAfter, Threshold.SLEEP_LOW, Threshold.SLEEP_EMPTY);
+            notifyCrossings(pet, fullnessBefore, fullnessAfter, Threshold.FULLNESS_LOW, Threshold.FULLNESS_EMPTY);
+        }
+        return hours;
+    }
+
+    /**
+     * Recomputes the timer of a pet after its stats were changed, e.g. after it was fed. Call
+     * {@link #catchUp(Pet)} before changing the pet so past hours decay from the old stats.
+     *
+     * @param pet The tracked pet.
+     */
+    public void reschedule(Pet pet) {
+        Tracked state = tracked.get(pet);
+        if (state != null) {
+            synchronized (state) {
+                schedule(pet, state);
+            }
+        }
+    }
+
+    /**
+     * Computes when a tracked pet will next cross a threshold.
+     *
+     * @param pet The tracked pet.
+     * @return The start of the hour in which the next threshold is crossed, or {@code null} if the pet is not
+     *         tracked or has already reached every threshold.
+     */
+    public LocalDateTime nextThresholdTime(Pet pet) {
+        Tracked state = tracked.get(pet);
+        if (state == null) {
+            return null;
+        }
+        synchronized (state) {
+            long hours = hoursUntilNextThreshold(pet.getSleep(), pet.getFullness());
+            return hours < 0 ? null : state.appliedUntil.plusHours(hours);
+        }
+    }
+
+    /**
+     * Computes how many hourly ticks it takes for sleep or fullness to reach 25 or 0.
+     *
+     * @param sleep    The current sleep level.
+     * @param fullness The current fullness.
+     * @return The number of ticks until the next threshold is reached, or -1 if both are already at 0.
+     */
+    public static long hoursUntilNextThreshold(int sleep, int fullness) {
+        long next = Math.min(hoursUntil(sleep), hoursUntil(fullness));
+        return next == Long.MAX_VALUE ? -1 : next;
+    }
+
+    /**
+     * Stops all timers, and the wheel's driver thread if the wheel is not shared.
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (Tracked state : tracked.values()) {
+            cancel(state);
+        }
+        tracked.clear();
+        if (ownsWheel) {
+            wheel.shutdown();
+        }
+    }
+
+    private static long hoursUntil(int level) {
+        if (level > DecayEngine.LOW_THRESHOLD) {
+            return level - DecayEngine.LOW_THRESHOLD;
+        }
+        if (level > DecayEngine.EMPTY_THRESHOLD) {
+            return level - DecayEngine.EMPTY_THRESHOLD;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Replaces the pet's timer with one for its next threshold. Must be called while holding the state's lock.
+     */
+    private void schedule(Pet pet, Tracked state) {
+        if (state.timer != null) {
+            state.timer.cancel();
+            state.timer = null;
+        }
+        long hours = hoursUntilNextThreshold(pet.getSleep(), pet.getFullness());
+        if (hours < 0 || shutdown) {
+            return; // Nothing left to cross
+        }
+        LocalDateTime due = state.appliedUntil.plusHours(hours);
+        state.timer = wheel.scheduleAt(() -> catchUp(pet), due.atZone(clock.getZone()).toInstant());
+    }
+
+    private void cancel(Tracked state) {
+        synchronized (state) {
+            if (state.timer != null) {
+                state.timer.cancel();
+                state.timer = null;
+            }
+        }
+    }
+
+    private void notifyCrossings(Pet pet, int before, int after, Threshold low, Threshold empty) {
+        if (before > DecayEngine.LOW_THRESHOLD && after <= DecayEngine.LOW_THRESHOLD) {
+            notifyListeners(pet, low);
+        }
+        if (before > DecayEngine.EMPTY_THRESHOLD && after <= DecayEngine.EMPTY_THRESHOLD) {
+            notifyListeners(pet, empty);
+        }
+    }
+
+    private void notifyListeners(Pet pet, Threshold threshold) {
+        for (Listener listener : listeners) {
+            listener.thresholdCrossed(pet, threshold);
+        }
+    }
+
+    private LocalDateTime currentHour() {
+        return LocalDateTime.now(clock).truncatedTo(ChronoUnit.HOURS);
+    }
+}
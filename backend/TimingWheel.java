@@ -0,0 +1,358 @@
+package backend;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code TimingWheel} class is a timer service for very many pending deadlines, such as the ends of study
+ * sessions and breaks or the next decay threshold of every pet on a server. Time is cut into ticks, and timers
+ * are kept in a hierarchy of wheels of 64 buckets: the first wheel holds the timers due within 64 ticks, the
+ * next one those due within 64 * 64 ticks, and so on. Timers move down a wheel when their turn comes around.
+ *
+ * Scheduling and cancelling a timer take constant time no matter how many are pending. Due timers run on a
+ * single driver thread, so their tasks should be short and hand longer work to another thread. Without the
+ * driver thread, {@link #advance()} runs the due timers on the caller's thread, which suits simulated clocks.
+ */
+public class TimingWheel {
+    private static final int WHEEL_BITS = 6; // Each wheel has 2^6 buckets
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS; // The number of buckets per wheel
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1; // Picks a bucket index out of a tick
+    private static final int LEVELS = (Long.SIZE + WHEEL_BITS - 1) / WHEEL_BITS; // Enough wheels for any long tick
+
+    private static TimingWheel instance;
+
+    private final Clock clock; // The source of the current time
+    private final long tickMillis; // The length of one tick
+    private final long originMillis; // The time of tick 0
+    private final Timeout[][] wheels = new Timeout[LEVELS][]; // The bucket heads of each wheel, created on first use
+    private final int[] counts = new int[LEVELS]; // The number of timers in each wheel
+    private long currentTick; // The last tick whose timers have been run
+    private int pending; // The number of timers in all wheels
+    private Thread driver; // The thread running due timers, or null if not started
+    private volatile boolean running; // Whether the driver thread should keep going
+
+    /**
+     * A pending timer. Cancelling it before it is due stops its task from running.
+     */
+    public static final class Timeout {
+        private final TimingWheel wheel; // The wheel holding the timer
+        private final Runnable task; // What to run when the timer is due
+        private final long deadlineTick; // The tick at which the timer is due
+        private final Instant deadline; // The time at which the timer is due
+        private Timeout previous; // The previous timer in the bucket
+        private Timeout next; // The next timer in the bucket
+        private int level = -1; // The wheel holding the timer, or -1 if it is in none
+        private int bucket; // The bucket holding the timer
+        private volatile int state; // 0 while pending, 1 once expired, 2 once cancelled
+
+        private Timeout(TimingWheel wheel, Runnable task, long deadlineTick, Instant deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timer.
+         *
+         * @return {@code true} if the timer was pending, {@code false} if it had already run or been cancelled.
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        /**
+         * Checks whether the timer has been cancelled.
+         *
+         * @return {@code true} if the timer was cancelled before it was due.
+         */
+        public boolean isCancelled() {
+            return state == 2;
+        }
+
+        /**
+         * Checks whether the timer has come due.
+         *
+         * @return {@code true} if the timer's task has been run or is running.
+         */
+        public boolean isExpired() {
+            return state == 1;
+        }
+
+        /**
+         * Retrieves the time the timer is due.
+         *
+         * @return The deadline of the timer.
+         */
+        public Instant getDeadline() {
+            return deadline;
+        }
+    }
+
+    /**
+     * Constructs a {@code TimingWheel} that measures time with the given clock. Call {@link #start()} to run
+     * due timers on a driver thread, or call {@link #advance()} to run them yourself.
+     *
+     * @param clock The source of the current time.
+     * @param tick  The length of one tick; timers run up to one tick late, never early.
+     */
+    public TimingWheel(Clock clock, Duration tick) {
+        if (tick.toMillis() <= 0) {
+            throw new IllegalArgumentException("A tick must last at least one millisecond: " + tick);
+        }
+        this.clock = clock;
+        this.tickMillis = tick.toMillis();
+        this.originMillis = clock.millis();
+    }
+
+    /**
+     * Retrieves the shared timing wheel of the application, with 10 ms ticks and its driver thread started.
+     *
+     * @return The shared timing wheel.
+     */
+    public static synchronized TimingWheel getInstance() {
+        if (instance == null) {
+            instance = new TimingWheel(Clock.systemDefaultZone(), Duration.ofMillis(10));
+            instance.start();
+        }
+        return instance;
+    }
+
+    /**
+     * Retrieves the clock the wheel measures time with.
+     *
+     * @return The wheel's clock.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Schedules a task to run after a delay.
+     *
+     * @param task  The task to run.
+     * @param delay How long to wait; zero or negative delays run on the next tick.
+     * @return The pending timer.
+     */
+    public Timeout schedule(Runnable task, Duration delay) {
+        return scheduleAt(task, clock.instant().plus(delay));
+    }
+
+    /**
+     * Schedules a task to run at a given time.
+     *
+     * @param task     The task to run.
+     * @param deadline When to run it; times in the past run on the next tick.
+     * @return The pending timer.
+     */
+    public Timeout scheduleAt(Runnable task, Instant deadline) {
+        long sinceOrigin = deadline.toEpochMilli() - originMillis;
+        long deadlineTick = Math.max(0, Math.floorDiv(sinceOrigin + tickMillis - 1, tickMillis));
+        Timeout timeout = new Timeout(this, task, deadlineTick, deadline);
+        Thread idleDriver;
+        synchronized (this) {
+            if (pending == 0) {
+                // Nothing can be due in between, so catch up with the clock without walking the wheels
+                currentTick = Math.max(currentTick, Math.floorDiv(clock.millis() - originMillis, tickMillis));
+            }
+            insert(timeout, currentTick + 1);
+            idleDriver = pending == 1 ? driver : null;
+        }
+        if (idleDriver != null) {
+            LockSupport.unpark(idleDriver);
+        }
+        return timeout;
+    }
+
+    /**
+     * Retrieves the number of timers that are neither due nor cancelled.
+     *
+     * @return The number of pending timers.
+     */
+    public synchronized int pending() {
+        return pending;
+    }
+
+    /**
+     * Runs every timer that is due by the clock's current time, on the calling thread.
+     *
+     * @return The number of timers run.
+     */
+    public int advance() {
+        long targetTick = Math.floorDiv(clock.millis() - originMillis, tickMillis);
+        List<Timeout> due = new ArrayList<>();
+        synchronized (this) {
+            while (currentTick < targetTick) {
+                int level = lowestOccupiedLevel();
+                if (level < 0) {
+                    currentTick = targetTick; // Nothing pending, nothing to move down
+                } else if (level == 0) {
+                    tick(due);
+                } else {
+                    // Skip the empty ticks up to the next time a bucket of that wheel moves down
+                    long boundary = ((currentTick >>> (WHEEL_BITS * level)) + 1) << (WHEEL_BITS * level);
+                    currentTick = Math.min(boundary - 1, targetTick);
+                    if (currentTick < targetTick) {
+                        tick(due);
+                    }
+                }
+            }
+        }
+        for (Timeout timeout : due) {
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Timer task failed: " + e);
+            }
+        }
+        return due.size();
+    }
+
+    /**
+     * Starts the driver thread that runs due timers. Does nothing if it is already running.
+     */
+    public synchronized void start() {
+        if (driver != null) {
+            return;
+        }
+        running = true;
+        driver = new Thread(this::drive, "timing-wheel");
+        driver.setDaemon(true);
+        driver.start();
+    }
+
+    /**
+     * Stops the driver thread. Pending timers stay pending.
+     */
+    public void shutdown() {
+        Thread stopped;
+        synchronized (this) {
+            running = false;
+            stopped = driver;
+            driver = null;
+        }
+        if (stopped != null) {
+            LockSupport.unpark(stopped);
+        }
+    }
+
+    private void drive() {
+        while (running) {
+            advance();
+            if (pending() == 0) {
+                LockSupport.park(this); // Woken up by the next schedule
+            } else {
+                long untilNextTick = tickMillis - Math.floorMod(clock.millis() - originMillis, tickMillis);
+                LockSupport.parkNanos(this, untilNextTick * 1_000_000L);
+            }
+        }
+    }
+
+    /**
+     * Moves to the next tick, moves timers down from the wheels whose turn has come, and collects the due ones.
+     */
+    private void tick(List<Timeout> due) {
+        currentTick++;
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+                break; // The lower wheel has not completed a turn
+            }
+            cascade(level, (int) (currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        }
+        if (wheels[0] == null) {
+            return;
+        }
+        int bucket = (int) currentTick & WHEEL_MASK;
+        Timeout timeout = wheels[0][bucket];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            unlink(timeout);
+            timeout.state = 1;
+            due.add(timeout);
+            timeout = next;
+        }
+    }
+
+    /**
+     * Reinserts the timers of a bucket relative to the current tick, which puts them in lower wheels.
+     */
+    private void cascade(int level, int bucket) {
+        if (wheels[level] == null) {
+            return;
+        }
+        Timeout timeout = wheels[level][bucket];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            unlink(timeout);
+            insert(timeout, currentTick);
+            timeout = next;
+        }
+    }
+
+    /**
+     * Puts a timer in the bucket of its deadline, or of the earliest tick allowed if the deadline has passed.
+     */
+    private void insert(Timeout timeout, long earliestTick) {
+        long deadlineTick = Math.max(timeout.deadlineTick, earliestTick);
+        long delta = deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        int bucket = (int) (deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+        if (wheels[level] == null) {
+            wheels[level] = new Timeout[WHEEL_SIZE];
+        }
+        Timeout head = wheels[level][bucket];
+        timeout.previous = null;
+        timeout.next = head;
+        if (head != null) {
+            head.previous = timeout;
+        }
+        wheels[level][bucket] = timeout;
+        timeout.level = level;
+        timeout.bucket = bucket;
+        counts[level]++;
+        pending++;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            wheels[timeout.level][timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        counts[timeout.level]--;
+        pending--;
+        timeout.level = -1;
+    }
+
+    private synchronized boolean cancel(Timeout timeout) {
+        if (timeout.state != 0) {
+            return false;
+        }
+        timeout.state = 2;
+        unlink(timeout);
+        return true;
+    }
+
+    private int lowestOccupiedLevel() {
+        if (pending == 0) {
+            return -1;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (counts[level] > 0) {
+                return level;
+            }
+        }
+        return -1;
+    }
+}
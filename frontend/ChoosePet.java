@@ -221,15 +221,17 @@ public class ChoosePet extends JPanel {
 
             String input = e.getActionCommand().trim();
             System.out.println(input);
+            // Save and close a game still open for a pet of this name before its row is replaced
+            GameSessionRegistry registry = GameSessionRegistry.getInstance();
+            if (registry.remove(input) != null) {
+                SaveQueue.getInstance().flush();
+            }
             Pet pet = new Pet(input,petType,0,0);
             pet.saveToFile();
-            GameManager gameManager = new GameManager(input, petType);
-            StatisticsTracker.setInstance(new StatisticsTracker(input));
+            GameManager gameManager = registry.getOrCreate(input, petType);
             GameManager.setInstance(gameManager);
 
-            GameScreen gameScreen = new GameScreen(cardLayout, mainPanel);
-            mainPanel.add(gameScreen, "Game");
-            cardLayout.show(mainPanel, "Game");
+            GameScreen.open(cardLayout, mainPanel);
 
             // Fade out the current music
             Music.getInstance().fadeOut(3000);
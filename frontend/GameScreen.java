@@ -8,6 +8,9 @@ import java.awt.image.BufferedImage;
 import javax.imageio.ImageIO;
 import java.io.IOException;
 import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Flow;
 import javax.swing.event.AncestorEvent;
 
 /**
@@ -24,6 +27,7 @@ public class GameScreen extends JPanel {
     private JButton startButton;
     private JLabel countdownLabel;
     private Timer countdownTimer;
+    private static final int COUNTDOWN_RENDER_MILLIS = 100; // How often the countdown label is checked
     private BufferedImage[] petFrames;
     private Timer animationTimer;
     private int currentFrame = 0;
@@ -38,6 +42,8 @@ public class GameScreen extends JPanel {
     private JProgressBar hungerBar;
     private JProgressBar happinessBar;
     private JLabel scoreLabel;
+    private StatusBarSubscriber statusBarSubscriber; // Refreshes the bars on changes, cancelled by dispose()
+    private Autosaver autosaver; // Saves the game on changes, stopped by dispose()
 
     /**
      * Constructs the GameScreen panel, initializing game elements and UI components.
@@ -81,6 +87,15 @@ public class GameScreen extends JPanel {
 
         initializeStatusBars();
 
+        // Decay the pet live while its game is open, so the bars fall as the hours pass instead of only when
+        // the pet is loaded; the decay keeps running with the game context after this screen is disposed
+        gameManager.getThresholdScheduler();
+
+        // Refresh the bars whenever the game changes, and save the changes, until this screen is disposed
+        statusBarSubscriber = new StatusBarSubscriber();
+        gameManager.getStatePublisher().subscribe(statusBarSubscriber);
+        autosaver = Autosaver.start(gameManager, SwingUtilities::invokeLater);
+
         // Update positions when the panel is resized
         addComponentListener(new java.awt.event.ComponentAdapter() {
             @Override
@@ -93,11 +108,49 @@ public class GameScreen extends JPanel {
         addAncestorListener(new AncestorListenerAdapter() {
             @Override
             public void ancestorAdded(AncestorEvent event) {
+                gameManager.catchUpDecay();
+                updateStatusBars();
                 startFadeIn();
+                offerUnfinishedSession();
             }
         });
     }
 
+    /**
+     * Shows a new game screen for the current game, replacing the one already in the main panel.
+     * The screen it replaces is disposed and removed, so it stops following its game.
+     *
+     * @param cardLayout The CardLayout used for navigating between different screens.
+     * @param mainPanel  The main panel containing all the different screens.
+     * @return The new game screen.
+     */
+    public static GameScreen open(CardLayout cardLayout, JPanel mainPanel) {
+        for (Component component : mainPanel.getComponents()) {
+            if (component instanceof GameScreen) {
+                ((GameScreen) component).dispose();
+                mainPanel.remove(component);
+            }
+        }
+        GameScreen gameScreen = new GameScreen(cardLayout, mainPanel);
+        mainPanel.add(gameScreen, "Game");
+        cardLayout.show(mainPanel, "Game");
+        return gameScreen;
+    }
+
+    /**
+     * Stops the screen's timers and its subscriptions to the game's changes. Call this before the screen is
+     * replaced; the game itself keeps running in its context.
+     */
+    public void dispose() {
+        statusBarSubscriber.cancel();
+        autosaver.stop();
+        for (Timer timer : new Timer[] {fadeTimer, countdownTimer, animationTimer}) {
+            if (timer != null) {
+                timer.stop();
+            }
+        }
+    }
+
     /**
      * Initializes the start button and its properties.
      */
@@ -126,11 +179,7 @@ public class GameScreen extends JPanel {
 
             startButton.setVisible(false);
 
-            int studyTime = settings.getStudyTime();
-            int hours = studyTime / 60;
-            int minutes = studyTime % 60;
-
-            initializeCountdown(hours, minutes);
+            initializeCountdown(Duration.ofMinutes(settings.getStudyTime()));
             revalidate();
             repaint();
         });
@@ -142,37 +191,77 @@ public class GameScreen extends JPanel {
 
     /**
      * Initializes a countdown timer for the game.
+     * The time left is measured against a fixed deadline, and the label only changes when the shown second does.
+     * When the countdown runs out, the measured study time is credited.
+     * Progress is checkpointed every {@link SessionCheckpoint#INTERVAL} in case the application dies.
      *
-     * @param hours   The number of hours for the countdown.
-     * @param minutes The number of minutes for the countdown.
+     * @param length The length of the countdown.
      */
-    private void initializeCountdown(int hours, int minutes) {
-        countdownLabel = new JLabel(formatTime(hours, minutes, 0), SwingConstants.CENTER);
+    private void initializeCountdown(Duration length) {
+        countdownLabel = new JLabel(formatTime((int) length.toHours(), length.toMinutesPart(), length.toSecondsPart()),
+                SwingConstants.CENTER);
         countdownLabel.setFont(new Font(Font.MONOSPACED, Font.BOLD, 48));
         countdownLabel.setForeground(Color.RED);
         countdownLabel.setBounds(755, 492, 300, 100);
 
         add(countdownLabel);
 
-        int[] remainingTime = {hours * 3600 + minutes * 60};
-        countdownTimer = new Timer(1000, e -> {
-            remainingTime[0]--;
-            if (remainingTime[0] > 0) {
-                int h = remainingTime[0] / 3600;
-                int m = (remainingTime[0] % 3600) / 60;
-                int s = remainingTime[0] % 60;
-                countdownLabel.setText(formatTime(h, m, s));
+        MonotonicCountdown countdown = new MonotonicCountdown(length);
+        long[] shownSeconds = {countdown.getDisplayedSeconds()};
+        Instant sessionStart = gameManager.getClock().instant();
+        String sessionKey = String.valueOf(sessionStart.toEpochMilli());
+        Duration breakLength = Duration.ofMinutes(settings.getBreakTime());
+        Duration[] nextCheckpoint = {SessionCheckpoint.INTERVAL};
+        countdownTimer = new Timer(COUNTDOWN_RENDER_MILLIS, e -> {
+            long remaining = countdown.getDisplayedSeconds();
+            if (remaining > 0) {
+                if (countdown.getElapsed().compareTo(nextCheckpoint[0]) >= 0) {
+                    nextCheckpoint[0] = countdown.getElapsed().plus(SessionCheckpoint.INTERVAL);
+                    gameManager.saveStudyCheckpoint(sessionKey, (int) countdown.getElapsed().toMinutes(),
+                            countdown.getRemaining(), breakLength);
+                }
+                if (remaining != shownSeconds[0]) {
+                    shownSeconds[0] = remaining;
+                    int h = (int) (remaining / 3600);
+                    int m = (int) ((remaining % 3600) / 60);
+                    int s = (int) (remaining % 60);
+                    countdownLabel.setText(formatTime(h, m, s));
+                }
             } else {
                 countdownTimer.stop();
                 remove(countdownLabel);
                 revalidate();
                 repaint();
                 System.out.println("Countdown finished!");
+                gameManager.creditStudy((int) countdown.getElapsed().toMinutes(), sessionStart, false);
+                gameManager.finishStudyCheckpoint(sessionKey);
             }
         });
         countdownTimer.start();
     }
 
+    /**
+     * Offers to resume or credit a study session that was cut short by the application dying.
+     */
+    private void offerUnfinishedSession() {
+        SessionCheckpoint.Checkpoint unfinished = gameManager.getUnfinishedStudySession();
+        if (unfinished == null || (countdownTimer != null && countdownTimer.isRunning())) {
+            return;
+        }
+        Object[] options = {"Resume", "Credit"};
+        int choice = JOptionPane.showOptionDialog(this,
+                "A study session was interrupted: " + unfinished + ".\nResume it, or credit the time studied?",
+                "Unfinished Study Session", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE,
+                null, options, options[0]);
+        gameManager.creditUnfinishedStudySession(unfinished);
+        if (choice == 0 && !unfinished.getRemaining().isZero()) {
+            startButton.setVisible(false);
+            initializeCountdown(unfinished.getRemaining());
+            revalidate();
+            repaint();
+        }
+    }
+
     /**
      * Formats the given time into a string.
      *
@@ -296,6 +385,44 @@ public class GameScreen extends JPanel {
         updateStatusBars();
     }
 
+    /**
+     * Refreshes the status bars on the event dispatch thread when the game changes. It takes one change at a
+     * time, so changes made while the bars are being refreshed are shown by a single further refresh.
+     */
+    private class StatusBarSubscriber implements Flow.Subscriber<StatePublisher.Change> {
+        private Flow.Subscription subscription; // The subscription to the game's changes
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(StatePublisher.Change change) {
+            SwingUtilities.invokeLater(() -> {
+                updateStatusBars();
+                subscription.request(1);
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            System.err.println("Status bars stopped updating: " + throwable.getMessage());
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        /**
+         * Stops refreshing the bars.
+         */
+        void cancel() {
+            subscription.cancel();
+        }
+    }
+
     /**
      * Updates the values of the status bars based on the pet's current status.
      */
@@ -334,7 +461,6 @@ public class GameScreen extends JPanel {
         inventoryButton.addActionListener(e -> {
             System.out.println("Inventory button clicked!");
             cardLayout.show(mainPanel, "Inventory");
-            updateStatusBars();
             revalidate();
             repaint();
         });
@@ -367,7 +493,6 @@ public class GameScreen extends JPanel {
         sleepButton.addActionListener(e -> {
             gameManager.sleepPet();
             System.out.println("Sleep button clicked!");
-            updateStatusBars();
             revalidate();
             repaint();
         });
@@ -400,7 +525,6 @@ public class GameScreen extends JPanel {
         vetButton.addActionListener(e -> {
             gameManager.visitVet();
             System.out.println("Vet button clicked!");
-            updateStatusBars();
             revalidate();
             repaint();
         });
@@ -433,7 +557,6 @@ public class GameScreen extends JPanel {
         exerciseButton.addActionListener(e -> {
             gameManager.exercisePet();
             System.out.println("Exercise button clicked!");
-            updateStatusBars();
             revalidate();
             repaint();
         });
@@ -0,0 +1,97 @@
+package frontend;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The HeadlessLoadTest class drives a {@link HeadlessServer} with many concurrent clients and reports the
+ * throughput and latency it reached. Each client plays its own pet: it loads the pet once, then cycles through
+ * the sleep, exercise, vet and state endpoints.
+ */
+public class HeadlessLoadTest {
+
+    private static final String[] ACTIONS = {"sleep", "exercise", "vet", ""}; // The endpoints each client cycles through
+
+    /**
+     * Runs the load test.
+     *
+     * @param args The server's base URL, the number of clients and the number of requests per client.
+     * @throws Exception if the test is interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:" + HeadlessServer.DEFAULT_PORT;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int requestsPerClient = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        ExecutorService httpExecutor = HeadlessServer.newThreadPerTaskExecutor();
+        HttpClient http = HttpClient.newBuilder().executor(httpExecutor).build();
+        long[] latencies = new long[clients * requestsPerClient];
+        AtomicInteger failures = new AtomicInteger();
+
+        System.out.println("Loading " + clients + " pets...");
+        ExecutorService loaders = HeadlessServer.newThreadPerTaskExecutor();
+        for (int c = 0; c < clients; c++) {
+            String pet = baseUrl + "/pets/LoadPet" + c;
+            loaders.submit(() -> send(http, HttpRequest.newBuilder(URI.create(pet + "?type=0"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), failures));
+        }
+        awaitAll(loaders);
+
+        System.out.println("Sending " + latencies.length + " requests from " + clients + " clients...");
+        long start = System.nanoTime();
+        ExecutorService pool = HeadlessServer.newThreadPerTaskExecutor();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            pool.submit(() -> {
+                String pet = baseUrl + "/pets/LoadPet" + client;
+                for (int r = 0; r < requestsPerClient; r++) {
+                    String action = ACTIONS[r % ACTIONS.length];
+                    HttpRequest.Builder request = HttpRequest.newBuilder(
+                            URI.create(action.isEmpty() ? pet : pet + "/" + action));
+                    request = action.isEmpty() ? request.GET() : request.POST(HttpRequest.BodyPublishers.noBody());
+                    long sent = System.nanoTime();
+                    send(http, request.build(), failures);
+                    latencies[client * requestsPerClient + r] = System.nanoTime() - sent;
+                }
+            });
+        }
+        awaitAll(pool);
+        long elapsed = System.nanoTime() - start;
+        httpExecutor.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("Requests: %d, failures: %d, time: %.2f s%n", latencies.length, failures.get(), elapsed / 1e9);
+        System.out.printf("Throughput: %.0f requests/s%n", latencies.length / (elapsed / 1e9));
+        System.out.printf("Latency p50: %.2f ms, p99: %.2f ms, max: %.2f ms%n", percentile(latencies, 0.50),
+                percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+    }
+
+    /**
+     * Waits for every task submitted to an executor, then shuts it down.
+     */
+    private static void awaitAll(ExecutorService pool) throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    private static void send(HttpClient http, HttpRequest request, AtomicInteger failures) {
+        try {
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                failures.incrementAndGet();
+            }
+        } catch (Exception e) {
+            failures.incrementAndGet();
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1e6;
+    }
+}
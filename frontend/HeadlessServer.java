@@ -0,0 +1,426 @@
+package frontend;
+
+import backend.*;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * The HeadlessServer class runs the game backend without Swing, so web clients on a lab server can drive it
+ * over HTTP. It is an entry point next to {@link MainApp}. Each pet is a game context of a
+ * {@link GameSessionRegistry}, and every request runs on its own virtual thread on JDK 21 or later, or on a
+ * pooled platform thread on older JDKs.
+ *
+ * Endpoints, all answering with a JSON description of the pet:
+ * <ul>
+ *     <li>{@code GET /pets/{name}} - the pet's state</li>
+ *     <li>{@code GET /pets/{name}/events} - a server-sent event stream of the pet's state, sent again whenever
+ *     the game changes</li>
+ *     <li>{@code POST /pets/{name}?type=0} - loads the pet, creating it with the given type if it is new</li>
+ *     <li>{@code POST /pets/{name}/give?item=Treat} - gives an item from the inventory</li>
+ *     <li>{@code POST /pets/{name}/vet}, {@code /sleep}, {@code /exercise} - the matching game actions</li>
+ *     <li>{@code POST /pets/{name}/study/start} and {@code /study/stop} - starts or ends a study session</li>
+ *     <li>{@code POST /pets/{name}/save} - saves the game and waits for the disk</li>
+ * </ul>
+ * Pet names are 1 to 32 letters, digits, spaces, underscores or hyphens, so a request cannot write separators
+ * or line breaks into the shared CSV files; other names and pet types outside 0 to 2 are answered with 400.
+ */
+public class HeadlessServer {
+
+    /** The port used when none is given */
+    public static final int DEFAULT_PORT = 8080;
+    private static final long HEARTBEAT_SECONDS = 15; // Longest an event stream stays silent, to notice clients leaving
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9 _-]{1,32}"); // Names safe to write to the CSV files
+    private static final int MAX_PET_TYPE = 2; // Pet types are 0 = dog, 1 = cat, 2 = bird
+    private static final StatePublisher.Change END_OF_STREAM = new StatePublisher.Change(null, null); // Marks a completed stream
+
+    private final GameSessionRegistry registry; // Holds the game context of every pet
+    private final Map<String, StudySessionEngine.StudySession> studySessions = new ConcurrentHashMap<>(); // Running sessions by lower-case pet name
+    private final HttpServer server; // Serves the endpoints
+    private final ExecutorService executor; // Runs each request on a thread of its own
+
+    /**
+     * Constructs a HeadlessServer on the given port. The server is not started yet.
+     *
+     * @param port     The port to listen on, or 0 for any free port.
+     * @param registry The game contexts to serve.
+     * @throws IOException if the port cannot be bound.
+     */
+    public HeadlessServer(int port, GameSessionRegistry registry) throws IOException {
+        this.registry = registry;
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.executor = newThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/pets/", this::handle);
+    }
+
+    /**
+     * Creates an executor running each task on a new virtual thread where the JDK has them (21 or later), and
+     * on a cached pool of platform threads otherwise, so the server still builds and runs on JDK 17.
+     *
+     * @return The executor.
+     */
+    static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Starts answering requests.
+     */
+    public void start() {
+        server.start();
+        System.err.println("Headless server listening on port " + getPort());
+    }
+
+    /**
+     * Stops the server, letting running requests finish for up to a second, and saves every game.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        for (GameManager session : registry.sessions()) {
+            session.saveGameAsync();
+        }
+        SaveQueue.getInstance().flush();
+    }
+
+    /**
+     * Retrieves the port the server listens on.
+     *
+     * @return The bound port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Routes one request to its endpoint.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getRawPath().substring("/pets/".length()).split("/");
+            String name = URLDecoder.decode(path[0], StandardCharsets.UTF_8);
+            String action = path.length > 1 ? String.join("/", Arrays.copyOfRange(path, 1, path.length)) : "";
+            String method = exchange.getRequestMethod();
+            if (name.isEmpty()) {
+                respond(exchange, 404, error("No pet name given"));
+                return;
+            }
+            if (!VALID_NAME.matcher(name).matches()) {
+                respond(exchange, 400, error("A pet name is 1 to 32 letters, digits, spaces, '_' or '-'"));
+                return;
+            }
+            if (action.isEmpty() && method.equals("POST")) {
+                int type = parseType(exchange);
+                if (type < 0) {
+                    respond(exchange, 400, error("A pet type is 0 (dog), 1 (cat) or 2 (bird)"));
+                    return;
+                }
+                GameManager session = registry.acquire(name, type);
+                try {
+                    respond(exchange, 200, describe(session));
+                } finally {
+                    registry.release(session);
+                }
+                return;
+            }
+
+            GameManager session = findSession(name);
+            if (session == null) {
+                respond(exchange, 404, error("No pet named " + name + ", create it with POST /pets/" + name));
+                return;
+            }
+            try {
+                route(exchange, name, session, action, method);
+            } finally {
+                registry.release(session);
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error(e.toString()));
+        }
+    }
+
+    /**
+     * Runs one request on a pet's game context, which the registry keeps resident meanwhile.
+     */
+    private void route(HttpExchange exchange, String name, GameManager session, String action, String method)
+            throws IOException {
+        if (action.isEmpty() && method.equals("GET")) {
+            respond(exchange, 200, describe(session));
+        } else if (action.equals("events") && method.equals("GET")) {
+            stream(exchange, session);
+        } else if (!method.equals("POST")) {
+            respond(exchange, 405, error("Use POST for " + action));
+        } else if (action.equals("save")) {
+            synchronized (session) {
+                session.saveGameAsync();
+            }
+            // Wait for the disk without holding the game, so study timers for it are not held up
+            boolean saved = SaveQueue.getInstance().flush();
+            respond(exchange, saved ? 200 : 500, saved ? describe(session) : error("The game could not be saved"));
+        } else {
+            act(exchange, name, session, action);
+        }
+    }
+
+    /**
+     * Runs a game action on a pet. The response is sent after the game is released, so a slow client
+     * cannot hold up study timers for the pet.
+     */
+    private void act(HttpExchange exchange, String name, GameManager session, String action) throws IOException {
+        String key = name.toLowerCase();
+        int status = 200;
+        String body;
+        synchronized (session) {
+            switch (action) {
+                case "give":
+                    String item = query(exchange).get("item");
+                    if (item == null || !session.givePet(item)) {
+                        status = 409;
+                    }
+                    break;
+                case "vet":
+                    session.visitVet();
+                    break;
+                case "sleep":
+                    session.sleepPet();
+                    break;
+                case "exercise":
+                    session.exercisePet();
+                    break;
+                case "study/start":
+                    StudySessionEngine.StudySession running = studySessions.get(key);
+                    if (running != null && !running.isFinished()) {
+                        status = 409;
+                    } else {
+                        studySessions.put(key, startStudy(name, key, session));
+                    }
+                    break;
+                case "study/stop":
+                    StudySessionEngine.StudySession study = studySessions.remove(key);
+                    if (study == null || !study.interrupt()) {
+                        status = 409;
+                    }
+                    break;
+                default:
+                    status = 404;
+                    break;
+            }
+            body = status == 200 ? describe(session) : error(failure(action, exchange));
+        }
+        respond(exchange, status, body);
+    }
+
+    /**
+     * Starts a study session, keeping the pet's game context in use until the session has been credited, so
+     * the registry cannot evict the game the session is crediting.
+     */
+    private StudySessionEngine.StudySession startStudy(String name, String key, GameManager session) {
+        registry.acquire(name); // Resident, since the request holds it too
+        try {
+            return session.startStudySessionAsync(() -> {
+                studySessions.computeIfPresent(key, (k, study) -> study.isFinished() ? null : study);
+                registry.release(session);
+            });
+        } catch (RuntimeException e) {
+            registry.release(session);
+            throw e;
+        }
+    }
+
+    private static String failure(String action, HttpExchange exchange) {
+        switch (action) {
+            case "give":
+                return "No " + query(exchange).get("item") + " in the inventory";
+            case "study/start":
+                return "A study session is already running";
+            case "study/stop":
+                return "No study session is running";
+            default:
+                return "Unknown action " + action;
+        }
+    }
+
+    /**
+     * Finds and acquires a pet's game context, loading it again if it was evicted but the pet is saved. The
+     * caller releases it once the request is done.
+     */
+    private GameManager findSession(String name) {
+        GameManager session = registry.acquire(name);
+        if (session == null && PetsDictionary.loadPet(name) != null) {
+            session = registry.acquire(name, 0);
+        }
+        return session;
+    }
+
+    /**
+     * Sends the pet's state as a server-sent event, then again after every change until the client leaves or
+     * the game is closed. One change is taken at a time, so a slow client is sent the latest state once it
+     * catches up instead of holding up the game or piling up events.
+     */
+    private void stream(HttpExchange exchange, GameManager session) throws IOException {
+        BlockingQueue<StatePublisher.Change> changes = new LinkedBlockingQueue<>();
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        session.getStatePublisher().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(StatePublisher.Change change) {
+                changes.add(change);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                changes.add(END_OF_STREAM);
+            }
+
+            @Override
+            public void onComplete() {
+                changes.add(END_OF_STREAM);
+            }
+        });
+
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            boolean changed = true; // The first event is the state the client starts from
+            while (true) {
+                String event = changed ? "data: " + describe(session) + "\n\n" : ": keep-alive\n\n";
+                out.write(event.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                if (changed) {
+                    subscription[0].request(1);
+                }
+                StatePublisher.Change change = changes.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                if (change == END_OF_STREAM) {
+                    break;
+                }
+                changed = change != null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            subscription[0].cancel();
+        }
+    }
+
+    /**
+     * Describes a pet, its inventory, its statistics and its running study session as JSON.
+     */
+    private String describe(GameManager session) {
+        StringBuilder json = new StringBuilder(256);
+        synchronized (session) {
+            Pet pet = session.getCurrentPet();
+            json.append("{\"name\":\"").append(escape(pet.getName()))
+                    .append("\",\"type\":").append(pet.getPetType())
+                    .append(",\"health\":").append(pet.getHealth())
+                    .append(",\"sleep\":").append(pet.getSleep())
+                    .append(",\"fullness\":").append(pet.getFullness())
+                    .append(",\"happiness\":").append(pet.getHappiness())
+                    .append(",\"score\":").append(pet.getPetScore())
+                    .append(",\"inventory\":\"").append(escape(session.getCurrentInventory().toString()))
+                    .append("\",\"totalStudyTime\":").append(session.getCurrentStatisticsTracker().getTotalStudyTime());
+            StudySessionEngine.StudySession study = studySessions.get(pet.getName().toLowerCase());
+            if (study != null) {
+                json.append(",\"study\":{\"phase\":\"").append(study.getPhase())
+                        .append("\",\"remainingMillis\":").append(study.getRemaining().toMillis()).append('}');
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Reads the pet type of a create request.
+     *
+     * @return The type, 0 if none is given, or -1 if it is not a valid pet type.
+     */
+    private static int parseType(HttpExchange exchange) {
+        String type = query(exchange).get("type");
+        try {
+            int value = type == null ? 0 : Integer.parseInt(type);
+            return value >= 0 && value <= MAX_PET_TYPE ? value : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + escape(message) + "\"}";
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Starts a headless server until the process is stopped.
+     *
+     * @param args The port, optionally followed by the most games to keep in memory and {@code --verbose}
+     *             to keep the game's console messages.
+     * @throws IOException if the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxSessions = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        boolean verbose = args.length > 2 && args[2].equals("--verbose");
+        if (!verbose) {
+            // The game narrates every action on the console, which would throttle a busy server
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        HeadlessServer server = new HeadlessServer(port, new GameSessionRegistry(GameManager::new, maxSessions));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "headless-shutdown"));
+        server.start();
+    }
+}
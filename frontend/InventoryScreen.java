@@ -97,7 +97,6 @@ public class InventoryScreen extends JPanel {
         JButton snackButton = createImageButton("resources/snack.png");
         snackButton.addActionListener(e -> {
             GameManager.getInstance().givePet("Snack");
-
         });
         add(snackButton, gbc);
     }
@@ -112,7 +111,6 @@ public class InventoryScreen extends JPanel {
         JButton mealButton = createImageButton("resources/meal.png");
         mealButton.addActionListener(e -> {
             GameManager.getInstance().givePet("Meal");
-
         });
         add(mealButton, gbc);
     }
@@ -127,7 +125,6 @@ public class InventoryScreen extends JPanel {
         JButton plushyButton = createImageButton("resources/plushy.png");
         plushyButton.addActionListener(e -> {
             GameManager.getInstance().givePet("Plushy");
-
         });
         add(plushyButton, gbc);
     }
@@ -142,7 +139,6 @@ public class InventoryScreen extends JPanel {
         JButton ballButton = createImageButton("resources/ball.png");
         ballButton.addActionListener(e -> {
             GameManager.getInstance().givePet("Ball");
-
         });
         add(ballButton, gbc);
     }
@@ -6,7 +6,10 @@ import java.awt.*;
 import javax.imageio.ImageIO;
 import java.io.IOException;
 import java.net.URL;
+import java.time.LocalDate;
+import backend.GameManager;
 import backend.Settings;
+import backend.StudyHistory;
 
 /**
  * The Parent class represents a parent control panel in the application.
@@ -96,8 +99,8 @@ public class Parent extends JPanel {
         viewStatsButton.addActionListener(e -> {
             String stats = "Your Current Stats:\n"
                     + "Study Time: " + Settings.getInstance().getStudyTime() + " minutes\n"
-                    + "Break Time: " + Settings.getInstance().getBreakTime() + " minutes\n"
-                    + "Other Stats: TBD";
+                    + "Break Time: " + Settings.getInstance().getBreakTime() + " minutes\n\n"
+                    + studyHistoryReport(GameManager.getInstance().getStudyHistory());
 
             JOptionPane.showMessageDialog(parentFrame,
                     stats,
@@ -198,6 +201,42 @@ public class Parent extends JPanel {
         return button;
     }
 
+    /**
+     * Builds the study part of the stats report: this day, week and month, and a bar per day of the last week.
+     * Only the stored daily, weekly and monthly totals are read, never the individual sessions.
+     *
+     * @param history The study history of the current pet.
+     * @return The report text.
+     */
+    private static String studyHistoryReport(StudyHistory history) {
+        LocalDate today = LocalDate.now();
+        StudyHistory.Bucket day = history.getTotal(StudyHistory.Period.DAY, today);
+        StudyHistory.Bucket week = history.getTotal(StudyHistory.Period.WEEK, today);
+        StudyHistory.Bucket month = history.getTotal(StudyHistory.Period.MONTH, today);
+        StringBuilder report = new StringBuilder()
+                .append("Studied Today: ").append(day.getMinutes()).append(" minutes (")
+                .append(day.getSessions()).append(" sessions)\n")
+                .append("Studied This Week: ").append(week.getMinutes()).append(" minutes (")
+                .append(week.getSessions()).append(" sessions, ").append(week.getInterruptedSessions())
+                .append(" interrupted)\n")
+                .append("Studied This Month: ").append(month.getMinutes()).append(" minutes\n\n")
+                .append("Last 7 Days:\n");
+
+        int[] minutes = new int[7];
+        int most = 1;
+        for (StudyHistory.Bucket bucket : history.getTotals(StudyHistory.Period.DAY, today.minusDays(6), today)) {
+            int index = (int) (bucket.getStart().toEpochDay() - today.minusDays(6).toEpochDay());
+            minutes[index] = bucket.getMinutes();
+            most = Math.max(most, bucket.getMinutes());
+        }
+        for (int i = 0; i < minutes.length; i++) {
+            LocalDate date = today.minusDays(6 - i);
+            report.append(String.format("%-4s", date.getDayOfWeek().toString().substring(0, 3)))
+                    .append("#".repeat(minutes[i] * 20 / most)).append(' ').append(minutes[i]).append(" min\n");
+        }
+        return report.toString();
+    }
+
     /**
      * Shows a pop-up dialog for setting study or break times.
      *
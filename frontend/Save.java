@@ -12,7 +12,6 @@ import java.net.URL;
  * It allows users to save the current game or load a previously saved state.
  */
 public class Save extends JPanel {
-    private PetsDictionary petsDictionary;
     private CardLayout cardLayout;
     private JPanel mainPanel;
     private JFrame parentFrame;
@@ -25,7 +24,6 @@ public class Save extends JPanel {
      * @param mainPanel  The main panel containing all the different screens.
      */
     public Save(CardLayout cardLayout, JPanel mainPanel) {
-        this.petsDictionary = new PetsDictionary();
         this.cardLayout = cardLayout;
         this.mainPanel = mainPanel;
         this.parentFrame = parentFrame;
@@ -58,7 +56,7 @@ public class Save extends JPanel {
         gbc.gridy++;
         JButton saveGameButton = createButton("Save Game");
         saveGameButton.addActionListener(e -> {
-            GameManager.getInstance().saveGame();
+            GameManager.getInstance().saveGameAsync();
             System.out.println("Save Game button clicked");
         });
         add(saveGameButton, gbc);
@@ -126,7 +124,11 @@ public class Save extends JPanel {
         PopUp popup = new PopUp(parentFrame, imagePath, placeholder, e -> {
             String input = e.getActionCommand();
             String result = input.substring(10); // "Pet Name: " has 10 characters
-            Pet pet = petsDictionary.getPetByName(result);
+            Pet pet = PetsDictionary.getShared().getPetByName(result);
+            if (pet == null) {
+                System.err.println("No saved pet named " + result);
+                return;
+            }
             int type = pet.getPetType();
             GameManager gameManager;
 
@@ -134,7 +136,7 @@ public class Save extends JPanel {
                 case 0:
                 case 1:
                 case 2:
-                    gameManager = new GameManager(result, type);
+                    gameManager = GameSessionRegistry.getInstance().getOrCreate(result, type);
                     GameManager.setInstance(gameManager);
                     break;
                 default:
@@ -142,9 +144,7 @@ public class Save extends JPanel {
                     return;
             }
 
-            GameScreen gameScreen = new GameScreen(cardLayout, mainPanel);
-            mainPanel.add(gameScreen, "Game");
-            cardLayout.show(mainPanel, "Game");
+            GameScreen.open(cardLayout, mainPanel);
         });
         popup.show();
     }
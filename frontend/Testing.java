@@ -6,7 +6,7 @@ import java.io.IOException;
 import backend.*;
 public class Testing {
     public static void main(String[] args) {
-        PetsDictionary petsDictionary = new PetsDictionary();
+        PetsDictionary petsDictionary = PetsDictionary.getShared();
         Settings settings = Settings.getInstance();
         System.out.println("Settings loaded: " + settings);
         System.out.println("Pets loaded: " + petsDictionary);
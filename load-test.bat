@@ -0,0 +1,10 @@
+@echo off
+
+REM Load test a running headless server, started with run-headless.bat
+REM Arguments: server URL, number of clients, requests per client
+echo Starting the load test...
+cd out
+java frontend.HeadlessLoadTest http://localhost:8080 200 200
+
+REM Pause after the load test ends
+pause
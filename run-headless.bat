@@ -0,0 +1,20 @@
+@echo off
+
+REM Compile backend and frontend Java files
+echo Compiling Java files...
+javac -d out backend\*.java frontend\*.java
+
+REM Check if compilation was successful
+if %ERRORLEVEL% NEQ 0 (
+    echo Compilation failed!
+    pause
+    exit /b
+)
+
+REM Run the headless server: port, most games kept in memory (0 for no limit), optionally --verbose
+echo Starting the headless server...
+cd out
+java frontend.HeadlessServer 8080 5000
+
+REM Pause after the server ends
+pause